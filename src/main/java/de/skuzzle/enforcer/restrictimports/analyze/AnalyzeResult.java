@@ -3,6 +3,8 @@ package de.skuzzle.enforcer.restrictimports.analyze;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -45,8 +47,7 @@ public final class AnalyzeResult {
      * @return The matches grouped by {@link BannedImportGroup}
      */
     public Map<BannedImportGroup, List<MatchedFile>> srcMatchesByGroup() {
-        return srcMatches.stream()
-                .collect(Collectors.groupingBy(MatchedFile::getMatchedBy));
+        return groupByGroup(srcMatches);
     }
 
     /**
@@ -65,8 +66,48 @@ public final class AnalyzeResult {
      * @return The matches grouped by {@link BannedImportGroup}
      */
     public Map<BannedImportGroup, List<MatchedFile>> testMatchesByGroup() {
-        return testMatches.stream()
-                .collect(Collectors.groupingBy(MatchedFile::getMatchedBy));
+        return groupByGroup(testMatches);
+    }
+
+    /**
+     * Groups the given matches using the dense group ids that have been assigned during
+     * the analysis. Each group is only hashed once instead of once per match. Falls back to
+     * hashing the groups if the matches have not been created by an analysis or if equal
+     * ids denote different groups, e.g. because the matches stem from different analyses.
+     */
+    private static Map<BannedImportGroup, List<MatchedFile>> groupByGroup(List<MatchedFile> matches) {
+        int groupCount = 0;
+        for (final MatchedFile match : matches) {
+            if (match.getGroupId() < 0) {
+                return matches.stream()
+                        .collect(Collectors.groupingBy(MatchedFile::getMatchedBy));
+            }
+            groupCount = Math.max(groupCount, match.getGroupId() + 1);
+        }
+
+        final List<List<MatchedFile>> matchesById = new ArrayList<>(
+                Collections.nCopies(groupCount, (List<MatchedFile>) null));
+        for (final MatchedFile match : matches) {
+            List<MatchedFile> groupMatches = matchesById.get(match.getGroupId());
+            if (groupMatches == null) {
+                groupMatches = new ArrayList<>();
+                matchesById.set(match.getGroupId(), groupMatches);
+            } else if (groupMatches.get(0).getMatchedBy() != match.getMatchedBy()) {
+                return matches.stream()
+                        .collect(Collectors.groupingBy(MatchedFile::getMatchedBy));
+            }
+            groupMatches.add(match);
+        }
+
+        final Map<BannedImportGroup, List<MatchedFile>> result = new LinkedHashMap<>();
+        for (final List<MatchedFile> groupMatches : matchesById) {
+            if (groupMatches != null) {
+                // distinct ids might still denote equal groups
+                result.computeIfAbsent(groupMatches.get(0).getMatchedBy(), group -> new ArrayList<>())
+                        .addAll(groupMatches);
+            }
+        }
+        return result;
     }
 
     /**
@@ -0,0 +1,53 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link MatchListener} which materializes all received matches into an
+ * {@link AnalyzeResult}. Matches within the result are sorted by their source file so
+ * that the result does not depend on the order in which the files have been analyzed.
+ *
+ * @since 1.1.0
+ */
+public final class AnalyzeResultCollector implements MatchListener {
+
+    private final List<MatchedFile> srcMatches = new ArrayList<>();
+    private final List<MatchedFile> testMatches = new ArrayList<>();
+    private long duration;
+
+    @Override
+    public void matchInCompileCode(MatchedFile match) {
+        srcMatches.add(match);
+    }
+
+    @Override
+    public void matchInTestCode(MatchedFile match) {
+        testMatches.add(match);
+    }
+
+    @Override
+    public void analysisFinished(long duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Creates the {@link AnalyzeResult} from all matches received so far.
+     *
+     * @return The result.
+     */
+    public AnalyzeResult getResult() {
+        return AnalyzeResult.builder()
+                .withMatches(sorted(srcMatches))
+                .withMatchesInTestCode(sorted(testMatches))
+                .withDuration(duration)
+                .build();
+    }
+
+    private static List<MatchedFile> sorted(List<MatchedFile> matches) {
+        final List<MatchedFile> result = new ArrayList<>(matches);
+        result.sort(Comparator.comparing(MatchedFile::getSourceFile));
+        return result;
+    }
+}
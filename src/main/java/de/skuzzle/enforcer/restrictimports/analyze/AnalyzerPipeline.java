@@ -0,0 +1,261 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+
+/**
+ * Analyzes source files in three stages that run concurrently: the walker (the thread
+ * calling {@link #submit(Path, Path, Consumer)}) produces the paths of source files,
+ * parser threads turn them into {@link ParsedFile ParsedFiles} and matcher threads
+ * match those against the banned imports. Stages are connected by bounded queues, so
+ * a stage that is too fast is blocked until the next stage catches up.
+ * <p>
+ * The number of items waiting in each queue as well as the time a stage spent waiting
+ * for the next stage is logged on debug level once the pipeline has finished.
+ *
+ * @since 1.1.0
+ */
+final class AnalyzerPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzerPipeline.class);
+
+    private static final WorkItem END_OF_INPUT = new WorkItem(null, null, (Path) null);
+
+    private final Function<Path, Optional<ParsedFile>> parser;
+    private final BiFunction<Path, ParsedFile, Optional<MatchedFile>> matcher;
+    private final int parserThreads;
+    private final int matcherThreads;
+
+    private final Stage parseStage;
+    private final Stage matchStage;
+    private final ExecutorService executor;
+    private final List<Future<?>> workers = new ArrayList<>();
+    private final AtomicInteger runningParsers;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    AnalyzerPipeline(int parserThreads, int matcherThreads, int queueCapacity,
+            Function<Path, Optional<ParsedFile>> parser,
+            BiFunction<Path, ParsedFile, Optional<MatchedFile>> matcher) {
+        this.parser = parser;
+        this.matcher = matcher;
+        this.parserThreads = parserThreads;
+        this.matcherThreads = matcherThreads;
+        this.parseStage = new Stage("parse", queueCapacity);
+        this.matchStage = new Stage("match", queueCapacity);
+        this.runningParsers = new AtomicInteger(parserThreads);
+        this.executor = Executors.newFixedThreadPool(parserThreads + matcherThreads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("restrict-imports-pipeline-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    /**
+     * Starts the parser and matcher threads.
+     */
+    void start() {
+        for (int i = 0; i < parserThreads; ++i) {
+            workers.add(executor.submit(this::parseLoop));
+        }
+        for (int i = 0; i < matcherThreads; ++i) {
+            workers.add(executor.submit(this::matchLoop));
+        }
+    }
+
+    /**
+     * Queues a source file for being parsed and matched. Blocks while the queue of the
+     * parse stage is full.
+     *
+     * @param root The source root the file has been found in.
+     * @param sourceFile The source file.
+     * @param matchSink Receives the match for that file, if any. Calls are synchronized
+     *            across all sinks of this pipeline.
+     * @return Whether the pipeline accepts more files. Returns false once a stage has
+     *         failed.
+     */
+    boolean submit(Path root, Path sourceFile, Consumer<MatchedFile> matchSink) {
+        if (failure.get() != null) {
+            return false;
+        }
+        parseStage.put(new WorkItem(root, matchSink, sourceFile));
+        return true;
+    }
+
+    /**
+     * Signals that all files have been submitted, waits for the remaining files to be
+     * processed and shuts down all threads.
+     *
+     * @throws RuntimeException The first exception that occurred in any of the stages.
+     */
+    void finish() {
+        try {
+            for (int i = 0; i < parserThreads; ++i) {
+                parseStage.put(END_OF_INPUT);
+            }
+            for (final Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (final ExecutionException e) {
+            failure.compareAndSet(null, e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LOGGER.debug("Pipeline finished. {}, {}", parseStage, matchStage);
+        final Throwable e = failure.get();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        } else if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e != null) {
+            throw new IllegalStateException("Unexpected exception while analyzing source files", e);
+        }
+    }
+
+    private void parseLoop() {
+        try {
+            for (WorkItem item = parseStage.take(); item != END_OF_INPUT; item = parseStage.take()) {
+                // after a failure, remaining items are drained without processing them
+                if (failure.get() == null) {
+                    try {
+                        final Optional<ParsedFile> parsedFile = parser.apply(item.sourceFile);
+                        if (parsedFile.isPresent()) {
+                            matchStage.put(new WorkItem(item.root, item.matchSink, parsedFile.get()));
+                        }
+                    } catch (final RuntimeException | Error e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        } finally {
+            // the last parser to finish tells the matchers that there is no more input
+            if (runningParsers.decrementAndGet() == 0) {
+                for (int i = 0; i < matcherThreads; ++i) {
+                    matchStage.put(END_OF_INPUT);
+                }
+            }
+        }
+    }
+
+    private void matchLoop() {
+        for (WorkItem item = matchStage.take(); item != END_OF_INPUT; item = matchStage.take()) {
+            if (failure.get() == null) {
+                try {
+                    final Optional<MatchedFile> match = matcher.apply(item.root, item.parsedFile);
+                    if (match.isPresent()) {
+                        // listeners need not be thread safe
+                        synchronized (this) {
+                            item.matchSink.accept(match.get());
+                        }
+                    }
+                } catch (final RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+    }
+
+    private static final class WorkItem {
+        private final Path root;
+        private final Consumer<MatchedFile> matchSink;
+        private final Path sourceFile;
+        private final ParsedFile parsedFile;
+
+        private WorkItem(Path root, Consumer<MatchedFile> matchSink, Path sourceFile) {
+            this.root = root;
+            this.matchSink = matchSink;
+            this.sourceFile = sourceFile;
+            this.parsedFile = null;
+        }
+
+        private WorkItem(Path root, Consumer<MatchedFile> matchSink, ParsedFile parsedFile) {
+            this.root = root;
+            this.matchSink = matchSink;
+            this.sourceFile = null;
+            this.parsedFile = parsedFile;
+        }
+    }
+
+    /**
+     * The input queue of a stage along with some metrics about it.
+     */
+    private static final class Stage {
+        private final String name;
+        private final BlockingQueue<WorkItem> queue;
+        private final int capacity;
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicInteger maxDepth = new AtomicInteger();
+        // time the previous stage was blocked because this stage's queue was full
+        private final AtomicLong producerWaitNanos = new AtomicLong();
+        // time this stage was idle because its queue was empty
+        private final AtomicLong consumerWaitNanos = new AtomicLong();
+
+        private Stage(String name, int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void put(WorkItem item) {
+            final long start = System.nanoTime();
+            try {
+                queue.put(item);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for stage " + name, e);
+            }
+            producerWaitNanos.addAndGet(System.nanoTime() - start);
+            if (item != END_OF_INPUT) {
+                items.incrementAndGet();
+            }
+            final int depth = queue.size();
+            maxDepth.accumulateAndGet(depth, Math::max);
+        }
+
+        private WorkItem take() {
+            final long start = System.nanoTime();
+            try {
+                return queue.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for input of stage " + name, e);
+            } finally {
+                consumerWaitNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stage '%s': %d items, max queue depth %d/%d, producers blocked %d ms, "
+                    + "consumers idle %d ms",
+                    name, items.get(), maxDepth.get(), capacity,
+                    TimeUnit.NANOSECONDS.toMillis(producerWaitNanos.get()),
+                    TimeUnit.NANOSECONDS.toMillis(consumerWaitNanos.get()));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.base.MoreObjects;
 
 import java.nio.charset.Charset;
@@ -7,9 +9,11 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -22,13 +26,55 @@ public final class AnalyzerSettings {
     private final Charset sourceFileCharset;
     private final Collection<Path> srcDirectories;
     private final Collection<Path> testDirectories;
+    private final Collection<Path> allDirectories;
+    private final int parallelism;
+    private final int concurrentFileReads;
+    private final int parserThreads;
+    private final int matcherThreads;
+    private final int pipelineQueueCapacity;
+    private final boolean trustDirectoryLayout;
+    private final boolean analyzeClassFiles;
+    private final Collection<Path> dependencyJars;
+    private final Path importIndexFile;
+    private final Collection<Path> wildcardClasspath;
+    private final boolean detectFullyQualifiedReferences;
 
     private AnalyzerSettings(Charset sourceFileCharset,
             Collection<Path> srcDirectories,
-            Collection<Path> testDirectories) {
+            Collection<Path> testDirectories,
+            int parallelism,
+            int concurrentFileReads,
+            int parserThreads,
+            int matcherThreads,
+            int pipelineQueueCapacity,
+            boolean trustDirectoryLayout,
+            boolean analyzeClassFiles,
+            Collection<Path> dependencyJars,
+            Path importIndexFile,
+            Collection<Path> wildcardClasspath,
+            boolean detectFullyQualifiedReferences) {
         this.sourceFileCharset = sourceFileCharset;
         this.srcDirectories = srcDirectories;
         this.testDirectories = testDirectories;
+        this.allDirectories = union(srcDirectories, testDirectories);
+        this.parallelism = parallelism;
+        this.concurrentFileReads = concurrentFileReads;
+        this.parserThreads = parserThreads;
+        this.matcherThreads = matcherThreads;
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+        this.trustDirectoryLayout = trustDirectoryLayout;
+        this.analyzeClassFiles = analyzeClassFiles;
+        this.dependencyJars = dependencyJars;
+        this.importIndexFile = importIndexFile;
+        this.wildcardClasspath = wildcardClasspath;
+        this.detectFullyQualifiedReferences = detectFullyQualifiedReferences;
+    }
+
+    private static Collection<Path> union(Collection<Path> srcDirectories, Collection<Path> testDirectories) {
+        final Set<Path> result = new HashSet<>(srcDirectories.size() + testDirectories.size());
+        result.addAll(srcDirectories);
+        result.addAll(testDirectories);
+        return Collections.unmodifiableSet(result);
     }
 
     public static Builder builder() {
@@ -53,15 +99,160 @@ public final class AnalyzerSettings {
      * @return All source directories that are subject to analysis.
      */
     public Collection<Path> getAllDirectories() {
-        final Set<Path> result = new HashSet<>(srcDirectories.size() + testDirectories.size());
-        result.addAll(srcDirectories);
-        result.addAll(testDirectories);
-        return result;
+        return allDirectories;
+    }
+
+    /**
+     * The number of threads that are used to analyze the source files. If this is 1, all
+     * files are analyzed sequentially by the calling thread.
+     *
+     * @return The number of threads.
+     * @since 1.1.0
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * The maximum number of source files that are read at the same time on virtual
+     * threads. If this is 0 or if the running JDK does not support virtual threads, files
+     * are read by the threads that also do the matching as determined by
+     * {@link #getParallelism()}. Otherwise, parallelism only determines the number of
+     * threads that match the parsed files against the banned imports.
+     *
+     * @return The maximum number of concurrently read files.
+     * @since 1.1.0
+     */
+    public int getConcurrentFileReads() {
+        return this.concurrentFileReads;
+    }
+
+    /**
+     * Whether source files are analyzed by a pipeline in which walking the source
+     * directories, parsing and matching happen concurrently on separate threads. If
+     * enabled, {@link #getParallelism()} is ignored in favor of
+     * {@link #getParserThreads()} and {@link #getMatcherThreads()}.
+     *
+     * @return Whether to use a pipeline.
+     * @since 1.1.0
+     */
+    public boolean isPipelined() {
+        return this.parserThreads > 0;
+    }
+
+    /**
+     * The number of threads that parse source files if {@link #isPipelined()} is true.
+     *
+     * @return The number of parser threads.
+     * @since 1.1.0
+     */
+    public int getParserThreads() {
+        return this.parserThreads;
+    }
+
+    /**
+     * The number of threads that match parsed source files against the banned imports if
+     * {@link #isPipelined()} is true.
+     *
+     * @return The number of matcher threads.
+     * @since 1.1.0
+     */
+    public int getMatcherThreads() {
+        return this.matcherThreads;
+    }
+
+    /**
+     * The maximum number of files that may wait in front of each pipeline stage. A stage
+     * that produces files faster than the next stage can consume them is blocked once
+     * this limit is reached.
+     *
+     * @return The capacity of the queues between the pipeline stages.
+     * @since 1.1.0
+     */
+    public int getPipelineQueueCapacity() {
+        return this.pipelineQueueCapacity;
+    }
+
+    /**
+     * Whether the directory layout below the source roots mirrors the package names of
+     * the source files within. If so, directories in which no class can select a
+     * {@link BannedImportGroup} are skipped entirely and files whose class name, as
+     * derived from their path, selects no group are not opened at all.
+     *
+     * @return Whether to trust the directory layout.
+     * @since 1.1.0
+     */
+    public boolean isTrustDirectoryLayout() {
+        return this.trustDirectoryLayout;
+    }
+
+    /**
+     * Whether the analyzed directories contain compiled class files instead of source
+     * files. If so, the classes that are referenced from the constant pool of each class
+     * file are matched against the banned imports. This includes classes that are used
+     * by their full qualified name without being imported. Matches have no line
+     * information.
+     *
+     * @return Whether to analyze class files.
+     * @since 1.1.0
+     */
+    public boolean isAnalyzeClassFiles() {
+        return this.analyzeClassFiles;
+    }
+
+    /**
+     * Jar files of dependencies whose classes are analyzed in addition to the src
+     * directories. Matches within these jars are reported as matches in compile code.
+     *
+     * @return The dependency jars.
+     * @since 1.1.0
+     */
+    public Collection<Path> getDependencyJars() {
+        return this.dependencyJars;
+    }
+
+    /**
+     * The file in which an inverted index of the imports of all analyzed files is
+     * persisted between analyses. If present, only files that changed since the index
+     * has been written are parsed and the groups are matched against the distinct
+     * import names of the index.
+     *
+     * @return The index file.
+     * @since 1.1.0
+     */
+    public Optional<Path> getImportIndexFile() {
+        return Optional.ofNullable(this.importIndexFile);
+    }
+
+    /**
+     * Jar files and class directories whose classes are used to resolve wildcard imports.
+     * A wildcard import is banned if any banned class of these entries can be reached
+     * through it. If empty, wildcard imports are only matched literally.
+     *
+     * @return The classpath entries.
+     * @since 1.1.0
+     */
+    public Collection<Path> getWildcardClasspath() {
+        return this.wildcardClasspath;
+    }
+
+    /**
+     * Whether source files are scanned beyond their imports for references to full
+     * qualified class names which are then matched like imports. Has no effect when
+     * analyzing class files.
+     *
+     * @return Whether to scan the whole source files.
+     * @since 1.1.0
+     */
+    public boolean isDetectFullyQualifiedReferences() {
+        return this.detectFullyQualifiedReferences;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sourceFileCharset, srcDirectories, testDirectories);
+        return Objects.hash(sourceFileCharset, srcDirectories, testDirectories, parallelism, concurrentFileReads,
+                parserThreads, matcherThreads, pipelineQueueCapacity, trustDirectoryLayout, analyzeClassFiles,
+                dependencyJars, importIndexFile, wildcardClasspath, detectFullyQualifiedReferences);
     }
 
     @Override
@@ -69,7 +260,18 @@ public final class AnalyzerSettings {
         return obj == this || obj instanceof AnalyzerSettings
                 && Objects.equals(sourceFileCharset, ((AnalyzerSettings) obj).sourceFileCharset)
                 && Objects.equals(srcDirectories, ((AnalyzerSettings) obj).srcDirectories)
-                && Objects.equals(testDirectories, ((AnalyzerSettings) obj).testDirectories);
+                && Objects.equals(testDirectories, ((AnalyzerSettings) obj).testDirectories)
+                && parallelism == ((AnalyzerSettings) obj).parallelism
+                && concurrentFileReads == ((AnalyzerSettings) obj).concurrentFileReads
+                && parserThreads == ((AnalyzerSettings) obj).parserThreads
+                && matcherThreads == ((AnalyzerSettings) obj).matcherThreads
+                && pipelineQueueCapacity == ((AnalyzerSettings) obj).pipelineQueueCapacity
+                && trustDirectoryLayout == ((AnalyzerSettings) obj).trustDirectoryLayout
+                && analyzeClassFiles == ((AnalyzerSettings) obj).analyzeClassFiles
+                && Objects.equals(dependencyJars, ((AnalyzerSettings) obj).dependencyJars)
+                && Objects.equals(importIndexFile, ((AnalyzerSettings) obj).importIndexFile)
+                && Objects.equals(wildcardClasspath, ((AnalyzerSettings) obj).wildcardClasspath)
+                && detectFullyQualifiedReferences == ((AnalyzerSettings) obj).detectFullyQualifiedReferences;
     }
 
     @Override
@@ -78,6 +280,17 @@ public final class AnalyzerSettings {
                 .add("sourceFileCharset", sourceFileCharset)
                 .add("srcDirectories", srcDirectories)
                 .add("testDirectories", testDirectories)
+                .add("parallelism", parallelism)
+                .add("concurrentFileReads", concurrentFileReads)
+                .add("parserThreads", parserThreads)
+                .add("matcherThreads", matcherThreads)
+                .add("pipelineQueueCapacity", pipelineQueueCapacity)
+                .add("trustDirectoryLayout", trustDirectoryLayout)
+                .add("analyzeClassFiles", analyzeClassFiles)
+                .add("dependencyJars", dependencyJars)
+                .add("importIndexFile", importIndexFile)
+                .add("wildcardClasspath", wildcardClasspath)
+                .add("detectFullyQualifiedReferences", detectFullyQualifiedReferences)
                 .toString();
     }
 
@@ -85,7 +298,18 @@ public final class AnalyzerSettings {
 
         private final List<Path> srcDirectories = new ArrayList<>();
         private final List<Path> testDirectories = new ArrayList<>();
+        private final List<Path> dependencyJars = new ArrayList<>();
+        private final List<Path> wildcardClasspath = new ArrayList<>();
         private Charset sourceFileCharset = Charset.defaultCharset();
+        private int parallelism = 1;
+        private int concurrentFileReads = 0;
+        private int parserThreads = 0;
+        private int matcherThreads = 0;
+        private int pipelineQueueCapacity = 1024;
+        private boolean trustDirectoryLayout = false;
+        private boolean analyzeClassFiles = false;
+        private boolean detectFullyQualifiedReferences = false;
+        private Path importIndexFile;
 
         private Builder() {
             // hidden
@@ -116,8 +340,163 @@ public final class AnalyzerSettings {
             return this;
         }
 
+        /**
+         * Sets the number of threads that are used to analyze the source files. Defaults
+         * to 1.
+         *
+         * @param parallelism The number of threads.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withParallelism(int parallelism) {
+            checkArgument(parallelism > 0, "parallelism must be > 0 but was %s", parallelism);
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Enables reading source files on virtual threads if the running JDK supports
+         * them. Defaults to 0, which disables virtual threads.
+         *
+         * @param concurrentFileReads The maximum number of files that are read at the
+         *            same time.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withConcurrentFileReads(int concurrentFileReads) {
+            checkArgument(concurrentFileReads >= 0, "concurrentFileReads must be >= 0 but was %s",
+                    concurrentFileReads);
+            this.concurrentFileReads = concurrentFileReads;
+            return this;
+        }
+
+        /**
+         * Analyzes source files using a pipeline in which walking the source
+         * directories, parsing and matching happen concurrently. Disabled by default.
+         *
+         * @param parserThreads The number of threads that parse source files.
+         * @param matcherThreads The number of threads that match the parsed files.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withPipeline(int parserThreads, int matcherThreads) {
+            checkArgument(parserThreads > 0, "parserThreads must be > 0 but was %s", parserThreads);
+            checkArgument(matcherThreads > 0, "matcherThreads must be > 0 but was %s", matcherThreads);
+            this.parserThreads = parserThreads;
+            this.matcherThreads = matcherThreads;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of files that may wait in front of each pipeline stage.
+         * Defaults to 1024.
+         *
+         * @param pipelineQueueCapacity The capacity of the queues between the stages.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withPipelineQueueCapacity(int pipelineQueueCapacity) {
+            checkArgument(pipelineQueueCapacity > 0, "pipelineQueueCapacity must be > 0 but was %s",
+                    pipelineQueueCapacity);
+            this.pipelineQueueCapacity = pipelineQueueCapacity;
+            return this;
+        }
+
+        /**
+         * Whether to assume that the directory layout below the source roots mirrors the
+         * package names. Defaults to false. If enabled, directories and files that can
+         * not select a {@link BannedImportGroup} according to their path are not visited
+         * at all. Source files that are placed in a directory that does not match their
+         * package might be missed.
+         *
+         * @param trustDirectoryLayout Whether to trust the directory layout.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withTrustDirectoryLayout(boolean trustDirectoryLayout) {
+            this.trustDirectoryLayout = trustDirectoryLayout;
+            return this;
+        }
+
+        /**
+         * Whether the src and test directories contain compiled class files that should
+         * be analyzed instead of source files. Defaults to false.
+         *
+         * @param analyzeClassFiles Whether to analyze class files.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withAnalyzeClassFiles(boolean analyzeClassFiles) {
+            this.analyzeClassFiles = analyzeClassFiles;
+            return this;
+        }
+
+        /**
+         * Adds jar files of dependencies whose classes should be analyzed as well.
+         *
+         * @param dependencyJars The jar files.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withDependencyJars(Collection<Path> dependencyJars) {
+            this.dependencyJars.addAll(dependencyJars);
+            return this;
+        }
+
+        /**
+         * Sets the file in which an inverted index of all imports is persisted between
+         * analyses. Disabled by default.
+         *
+         * @param importIndexFile The index file or null to disable the index.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withImportIndexFile(Path importIndexFile) {
+            this.importIndexFile = importIndexFile;
+            return this;
+        }
+
+        /**
+         * Adds jar files and class directories whose classes are used to resolve
+         * wildcard imports.
+         *
+         * @param wildcardClasspath The classpath entries.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withWildcardClasspath(Collection<Path> wildcardClasspath) {
+            this.wildcardClasspath.addAll(wildcardClasspath);
+            return this;
+        }
+
+        /**
+         * Sets whether source files are scanned beyond their imports for references to
+         * full qualified class names. Disabled by default.
+         *
+         * @param detectFullyQualifiedReferences Whether to scan the whole source files.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder withDetectFullyQualifiedReferences(boolean detectFullyQualifiedReferences) {
+            this.detectFullyQualifiedReferences = detectFullyQualifiedReferences;
+            return this;
+        }
+
         public AnalyzerSettings build() {
-            return new AnalyzerSettings(sourceFileCharset, srcDirectories, testDirectories);
+            return new AnalyzerSettings(sourceFileCharset,
+                    new ArrayList<>(srcDirectories),
+                    new ArrayList<>(testDirectories),
+                    parallelism,
+                    concurrentFileReads,
+                    parserThreads,
+                    matcherThreads,
+                    pipelineQueueCapacity,
+                    trustDirectoryLayout,
+                    analyzeClassFiles,
+                    new ArrayList<>(dependencyJars),
+                    importIndexFile,
+                    new ArrayList<>(wildcardClasspath),
+                    detectFullyQualifiedReferences);
         }
     }
 }
@@ -1,7 +1,8 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
 /**
- * Thrown in case a {@link BannedImportGroup} was not properly configured by the user.
+ * Thrown in case a {@link BannedImportGroup} or a {@link Layer} was not properly
+ * configured by the user.
  * 
  * @author Simon Taddiken
  */
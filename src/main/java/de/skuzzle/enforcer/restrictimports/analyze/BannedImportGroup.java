@@ -1,7 +1,6 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -23,6 +22,13 @@ public final class BannedImportGroup {
     private final List<PackagePattern> excludedClasses;
     private final String reason;
 
+    // compiled forms of the above pattern lists which are used for matching
+    private final PackagePatternAutomaton basePackageMatcher;
+    private final PackagePatternAutomaton bannedImportMatcher;
+    private final PackagePatternAutomaton allowedImportMatcher;
+    private final PackagePatternAutomaton excludedClassMatcher;
+    private final ImportPrefilter bannedImportPrefilter;
+
     private BannedImportGroup(List<PackagePattern> basePackages,
             List<PackagePattern> bannedImports,
             List<PackagePattern> allowedImports,
@@ -33,6 +39,11 @@ public final class BannedImportGroup {
         this.allowedImports = allowedImports;
         this.excludedClasses = excludedClasses;
         this.reason = reason;
+        this.basePackageMatcher = new PackagePatternAutomaton(basePackages);
+        this.bannedImportMatcher = new PackagePatternAutomaton(bannedImports);
+        this.allowedImportMatcher = new PackagePatternAutomaton(allowedImports);
+        this.excludedClassMatcher = new PackagePatternAutomaton(excludedClasses);
+        this.bannedImportPrefilter = new ImportPrefilter(bannedImports);
     }
 
     public static Builder builder() {
@@ -44,18 +55,63 @@ public final class BannedImportGroup {
     }
 
     public boolean basePackageMatches(String fqcn) {
-        return matchesAnyPattern(fqcn, basePackages);
+        return basePackageMatcher.matchesAny(fqcn);
+    }
+
+    /**
+     * Returns the first of this group's base packages that matches the given fqcn.
+     *
+     * @param fqcn The full qualified class name.
+     * @return The first matching base package.
+     * @since 1.1.0
+     */
+    Optional<PackagePattern> firstMatchingBasePackage(String fqcn) {
+        final int index = basePackageMatcher.firstMatch(fqcn);
+        return index < 0
+                ? Optional.empty()
+                : Optional.of(basePackages.get(index));
     }
 
     public List<PackagePattern> getBannedImports() {
         return this.bannedImports;
     }
 
+    /**
+     * Cheap check whether the given import might be banned by this group. If this returns
+     * false, {@link #ifImportIsBanned(String)} is guaranteed to return an empty optional.
+     *
+     * @param importName The import to check.
+     * @return Whether the import might be banned.
+     * @since 1.1.0
+     */
+    boolean mightBeBanned(String importName) {
+        return bannedImportPrefilter.mightBeBanned(importName);
+    }
+
     public Optional<PackagePattern> ifImportIsBanned(String importName) {
-        return bannedImports.stream()
-                .filter(bannedImport -> bannedImport.matches(importName))
-                .filter(result -> !allowedImportMatches(importName))
-                .findFirst();
+        final int index = bannedImportIndexOf(importName);
+        return index < 0
+                ? Optional.empty()
+                : Optional.of(bannedImports.get(index));
+    }
+
+    /**
+     * Returns the index of the banned import pattern that bans the given import.
+     *
+     * @param importName The import to check.
+     * @return The index within {@link #getBannedImports()} or -1 if the import is not
+     *         banned.
+     * @since 1.1.0
+     */
+    int bannedImportIndexOf(String importName) {
+        if (!mightBeBanned(importName)) {
+            return -1;
+        }
+        final int index = bannedImportMatcher.firstMatch(importName);
+        if (index < 0 || allowedImportMatches(importName)) {
+            return -1;
+        }
+        return index;
     }
 
     public List<PackagePattern> getAllowedImports() {
@@ -63,7 +119,7 @@ public final class BannedImportGroup {
     }
 
     public boolean allowedImportMatches(String importName) {
-        return matchesAnyPattern(importName, allowedImports);
+        return allowedImportMatcher.matchesAny(importName);
     }
 
     public List<PackagePattern> getExcludedClasses() {
@@ -71,13 +127,7 @@ public final class BannedImportGroup {
     }
 
     public boolean exclusionMatches(String fqcn) {
-        return matchesAnyPattern(fqcn, excludedClasses);
-    }
-
-    private boolean matchesAnyPattern(String packageName,
-            Collection<PackagePattern> patterns) {
-        return patterns.stream()
-                .anyMatch(pattern -> pattern.matches(packageName));
+        return excludedClassMatcher.matchesAny(fqcn);
     }
 
     public String getReason() {
@@ -180,6 +230,17 @@ public final class BannedImportGroup {
             return group;
         }
 
+        /**
+         * Assembles the {@link BannedImportGroup} without checking its consistency. Only
+         * to be used for groups that are known to have been checked before, like groups
+         * that are read from a {@link BannedImportGroupsFile}.
+         *
+         * @return The group.
+         */
+        BannedImportGroup buildWithoutConsistencyCheck() {
+            return new BannedImportGroup(basePackages, bannedImports, allowedImports, excludedClasses, reason);
+        }
+
         private void checkGroupConsistency(BannedImportGroup group) {
             checkAmbiguous(group);
             checkBannedImportsPresent(group);
@@ -196,13 +257,15 @@ public final class BannedImportGroup {
             checkAmbiguous(group.getExcludedClasses(), "exclusion");
         }
 
-        private void checkAmbiguous(Collection<PackagePattern> patterns, String errorTemplate) {
-            for (final PackagePattern outer : patterns) {
-                for (final PackagePattern inner : patterns) {
-                    if (inner != outer && (inner.matches(outer))) {
-                        throw new BannedImportDefinitionException(String
-                                .format("There are ambiguous %s definitions: %s, %s", errorTemplate, inner, outer));
-                    }
+        private void checkAmbiguous(List<PackagePattern> patterns, String errorTemplate) {
+            final PackagePatternIndex index = new PackagePatternIndex(patterns);
+            for (int i = 0; i < patterns.size(); ++i) {
+                final PackagePattern outer = patterns.get(i);
+                final int inner = index.firstMatching(outer, i);
+                if (inner >= 0) {
+                    throw new BannedImportDefinitionException(String
+                            .format("There are ambiguous %s definitions: %s, %s", errorTemplate,
+                                    patterns.get(inner), outer));
                 }
             }
         }
@@ -226,10 +289,9 @@ public final class BannedImportGroup {
         }
 
         private void allowedImportMustMatchBannedPattern(BannedImportGroup group) {
+            final PackagePatternIndex bannedImports = new PackagePatternIndex(group.getBannedImports());
             for (final PackagePattern allowedImport : group.getAllowedImports()) {
-                final boolean matches = group.getBannedImports().stream()
-                        .anyMatch(bannedPackage -> bannedPackage.matches(allowedImport));
-                if (!matches) {
+                if (!bannedImports.anyMatches(allowedImport)) {
                     throw new BannedImportDefinitionException(String.format(
                             "The allowed import pattern '%s' does not match any banned package.",
                             allowedImport));
@@ -238,10 +300,9 @@ public final class BannedImportGroup {
         }
 
         private void exclusionsMustMatchBasePattern(BannedImportGroup group) {
+            final PackagePatternIndex basePackages = new PackagePatternIndex(group.getBasePackages());
             for (final PackagePattern excludedClass : group.getExcludedClasses()) {
-                final boolean matches = group.getBasePackages().stream()
-                        .anyMatch(basePackage -> basePackage.matches(excludedClass));
-                if (!matches) {
+                if (!basePackages.anyMatches(excludedClass)) {
                     throw new BannedImportDefinitionException(String.format(
                             "The exclusion pattern '%s' does not match any base package.",
                             excludedClass));
@@ -1,31 +1,93 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.base.Preconditions;
 
 /**
  * Groups multiple {@link BannedImportGroup} objects.
+ * <p>
+ * When being built, every group is assigned a dense integer id that corresponds to its
+ * position within this instance and every banned import pattern of every group is
+ * assigned a dense integer id as well. Matches carry these ids so that they can be
+ * grouped and counted using plain arrays instead of hashing the groups.
  *
  * @author Simon Taddiken
  */
 public final class BannedImportGroups {
 
     private final List<BannedImportGroup> groups;
+    // id of the first banned import pattern of each group, followed by the total number of
+    // patterns
+    private final int[] patternIdOffsets;
+    // optional, used to resolve wildcard imports
+    private final ClassNameIndex classNameIndex;
+    // pattern ids by group id and wildcard import
+    private final ConcurrentMap<String, Integer> wildcardVerdicts = new ConcurrentHashMap<>();
 
-    private BannedImportGroups(List<BannedImportGroup> groups) {
+    private BannedImportGroups(List<BannedImportGroup> groups, ClassNameIndex classNameIndex) {
         this.groups = groups;
+        this.classNameIndex = classNameIndex;
+        this.patternIdOffsets = new int[groups.size() + 1];
+        for (int groupId = 0; groupId < groups.size(); ++groupId) {
+            patternIdOffsets[groupId + 1] = patternIdOffsets[groupId]
+                    + groups.get(groupId).getBannedImports().size();
+        }
     }
 
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * Creates a copy of these groups which also bans wildcard imports through which any
+     * banned class of the given index could be reached.
+     *
+     * @param classNameIndex The classes that can be reached by wildcard imports.
+     * @return The groups.
+     * @since 1.1.0
+     */
+    BannedImportGroups resolvingWildcardsWith(ClassNameIndex classNameIndex) {
+        return new BannedImportGroups(groups, classNameIndex);
+    }
+
+    List<BannedImportGroup> getGroups() {
+        return this.groups;
+    }
+
+    /**
+     * Returns the group with the given id.
+     *
+     * @param groupId The id of the group.
+     * @return The group.
+     * @since 1.1.0
+     */
+    BannedImportGroup getGroup(int groupId) {
+        return groups.get(groupId);
+    }
+
+    /**
+     * The number of banned import patterns of all groups. Pattern ids range from 0 to
+     * this number, exclusive.
+     *
+     * @return The number of patterns.
+     * @since 1.1.0
+     */
+    int getPatternCount() {
+        return patternIdOffsets[groups.size()];
+    }
+
     /**
      * Selects the {@link BannedImportGroup} with the most specific base package matching
      * the given full qualified class name. If the most specific match also specifies an
@@ -35,21 +97,117 @@ public final class BannedImportGroups {
      * @return The group with the most specific base package match.
      */
     public Optional<BannedImportGroup> selectGroupFor(String fqcn) {
-        return groups.stream()
-                .map(group -> matches(group, fqcn))
+        final int groupId = selectGroupIdFor(fqcn);
+        return groupId < 0
+                ? Optional.empty()
+                : Optional.of(groups.get(groupId));
+    }
+
+    /**
+     * Same as {@link #selectGroupFor(String)} but returns the id of the selected group.
+     *
+     * @param fqcn The full qualified class name to find the group for.
+     * @return The id of the group with the most specific base package match or -1 if no
+     *         group applies.
+     * @since 1.1.0
+     */
+    int selectGroupIdFor(String fqcn) {
+        final int groupId = IntStream.range(0, groups.size())
+                .mapToObj(id -> matches(id, fqcn))
                 .filter(Optional::isPresent)
                 .map(Optional::get)
                 .sorted()
-                .map(GroupMatch::getGroup)
+                .mapToInt(GroupMatch::getGroupId)
                 .findFirst()
-                .filter(group -> !group.exclusionMatches(fqcn));
+                .orElse(-1);
+        return groupId < 0 || groups.get(groupId).exclusionMatches(fqcn)
+                ? -1
+                : groupId;
     }
 
-    private Optional<GroupMatch> matches(BannedImportGroup group, String fqcn) {
-        return group.getBasePackages().stream()
-                .filter(pattern -> pattern.matches(fqcn))
-                .findFirst()
-                .map(basePackage -> new GroupMatch(basePackage, group));
+    private Optional<GroupMatch> matches(int groupId, String fqcn) {
+        return groups.get(groupId).firstMatchingBasePackage(fqcn)
+                .map(basePackage -> new GroupMatch(basePackage, groupId));
+    }
+
+    /**
+     * Returns the id of the banned import pattern of the given group that bans the given
+     * import. If these groups have been created by
+     * {@link #resolvingWildcardsWith(ClassNameIndex)}, a non-static wildcard import that
+     * is not banned itself is banned by the pattern of the first banned class that it
+     * reaches.
+     *
+     * @param groupId The id of the group to check the import against.
+     * @param importName The import.
+     * @return The id of the pattern or -1 if the import is not banned by the group.
+     * @since 1.1.0
+     * @see BannedImportGroup#ifImportIsBanned(String)
+     */
+    int bannedPatternIdFor(int groupId, String importName) {
+        int index = groups.get(groupId).bannedImportIndexOf(importName);
+        if (index < 0 && classNameIndex != null && isWildcard(importName)) {
+            index = wildcardVerdicts.computeIfAbsent(groupId + ":" + importName,
+                    key -> resolveWildcard(groups.get(groupId), importName));
+        }
+        return index < 0
+                ? -1
+                : patternIdOffsets[groupId] + index;
+    }
+
+    private static boolean isWildcard(String importName) {
+        return importName.endsWith(".*") && !importName.startsWith("static ");
+    }
+
+    private int resolveWildcard(BannedImportGroup group, String importName) {
+        final String packageName = importName.substring(0, importName.length() - 2);
+        for (final String simpleName : classNameIndex.getSimpleNames(packageName)) {
+            final int index = group.bannedImportIndexOf(packageName + "." + simpleName);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The literal prefixes of all non-static banned import patterns. Patterns that start
+     * with a wildcard have no literal prefix and are not represented.
+     *
+     * @return The prefixes.
+     * @since 1.1.0
+     * @see PackagePatternImpl#getLiteralPrefix()
+     */
+    Set<String> getLiteralPrefixesOfBannedImports() {
+        final Set<String> result = new TreeSet<>();
+        for (final BannedImportGroup group : groups) {
+            for (final PackagePattern bannedImport : group.getBannedImports()) {
+                final String prefix = PatternTrie.asImpl(bannedImport).getLiteralPrefix();
+                if (!bannedImport.isStatic() && !prefix.isEmpty()) {
+                    result.add(prefix);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the banned import pattern with the given id.
+     *
+     * @param patternId The id of the pattern.
+     * @return The pattern.
+     * @since 1.1.0
+     */
+    PackagePattern getPattern(int patternId) {
+        int groupId = Arrays.binarySearch(patternIdOffsets, patternId);
+        if (groupId < 0) {
+            groupId = -groupId - 2;
+        } else {
+            // skip groups without banned imports
+            while (patternIdOffsets[groupId + 1] == patternId) {
+                ++groupId;
+            }
+        }
+        return groups.get(groupId).getBannedImports().get(patternId - patternIdOffsets[groupId]);
     }
 
     @Override
@@ -70,15 +228,15 @@ public final class BannedImportGroups {
 
     private static class GroupMatch implements Comparable<GroupMatch> {
         private final PackagePattern basePackage;
-        private final BannedImportGroup group;
+        private final int groupId;
 
-        public GroupMatch(PackagePattern basePackage, BannedImportGroup group) {
+        public GroupMatch(PackagePattern basePackage, int groupId) {
             this.basePackage = basePackage;
-            this.group = group;
+            this.groupId = groupId;
         }
 
-        public BannedImportGroup getGroup() {
-            return this.group;
+        public int getGroupId() {
+            return this.groupId;
         }
 
         @Override
@@ -107,7 +265,7 @@ public final class BannedImportGroups {
 
         public BannedImportGroups build() {
             Preconditions.checkArgument(!groups.isEmpty(), "No BannedImportGroups have been specified");
-            return new BannedImportGroups(groups);
+            return new BannedImportGroups(groups, null);
         }
     }
 }
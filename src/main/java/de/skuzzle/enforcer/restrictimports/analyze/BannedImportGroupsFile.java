@@ -0,0 +1,148 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary representation of already validated {@link BannedImportGroups}. Reading
+ * groups from such a file skips parsing the patterns as well as all the consistency
+ * checks that are performed by {@link BannedImportGroup.Builder#build()}.
+ * <p>
+ * The file is tagged with a hash of the configuration from which the groups have been
+ * created. Reading only succeeds if the caller passes the same hash, so changing the
+ * configuration automatically invalidates the file.
+ *
+ * @since 1.1.0
+ */
+public final class BannedImportGroupsFile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BannedImportGroupsFile.class);
+
+    private static final int MAGIC = 0x52494743;
+    private static final short VERSION = 1;
+
+    private BannedImportGroupsFile() {
+        // hidden
+    }
+
+    /**
+     * Reads the groups from the given file if it exists and has been written for the
+     * given configuration hash.
+     *
+     * @param file The file to read.
+     * @param configurationHash Hash of the configuration the groups are expected to be
+     *            created from.
+     * @return The groups or an empty optional if the file does not exist, is outdated or
+     *         is corrupt.
+     */
+    public static Optional<BannedImportGroups> read(Path file, String configurationHash) {
+        checkArgument(file != null, "file must not be null");
+        checkArgument(configurationHash != null, "configurationHash must not be null");
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try {
+            final ByteBuffer in = BinaryFiles.read(file);
+            if (in.remaining() < 6
+                    || in.getInt() != MAGIC
+                    || in.getShort() != VERSION
+                    || !configurationHash.equals(BinaryFiles.readString(in))) {
+                LOGGER.debug("Compiled groups in {} are outdated", file);
+                return Optional.empty();
+            }
+
+            final int groupCount = in.getInt();
+            checkCount(groupCount, in);
+            final BannedImportGroups.Builder groups = BannedImportGroups.builder();
+            for (int i = 0; i < groupCount; ++i) {
+                groups.withGroup(readGroup(in));
+            }
+            return Optional.of(groups.build());
+        } catch (final IOException | BufferUnderflowException | IllegalArgumentException e) {
+            LOGGER.debug("Could not read compiled groups from {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the given groups to the given file. An existing file will be replaced.
+     *
+     * @param file The file to write.
+     * @param configurationHash Hash of the configuration the groups have been created
+     *            from.
+     * @param groups The groups to write.
+     * @throws IOException If writing the file fails.
+     */
+    public static void write(Path file, String configurationHash, BannedImportGroups groups) throws IOException {
+        checkArgument(file != null, "file must not be null");
+        checkArgument(configurationHash != null, "configurationHash must not be null");
+        checkArgument(groups != null, "groups must not be null");
+
+        BinaryFiles.writeAtomically(file, out -> {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            BinaryFiles.writeString(configurationHash, out);
+            out.writeInt(groups.getGroups().size());
+            for (final BannedImportGroup group : groups.getGroups()) {
+                writeGroup(group, out);
+            }
+        });
+    }
+
+    private static void writeGroup(BannedImportGroup group, DataOutputStream out) throws IOException {
+        writePatterns(group.getBasePackages(), out);
+        writePatterns(group.getBannedImports(), out);
+        writePatterns(group.getAllowedImports(), out);
+        writePatterns(group.getExcludedClasses(), out);
+        out.writeBoolean(group.getReason() != null);
+        if (group.getReason() != null) {
+            BinaryFiles.writeString(group.getReason(), out);
+        }
+    }
+
+    private static void writePatterns(List<PackagePattern> patterns, DataOutputStream out) throws IOException {
+        out.writeInt(patterns.size());
+        for (final PackagePattern pattern : patterns) {
+            PackagePatternCodec.write(pattern, out);
+        }
+    }
+
+    private static BannedImportGroup readGroup(ByteBuffer in) throws IOException {
+        return BannedImportGroup.builder()
+                .withBasePackages(readPatterns(in))
+                .withBannedImports(readPatterns(in))
+                .withAllowedImports(readPatterns(in))
+                .withExcludedClasses(readPatterns(in))
+                .withReason(in.get() != 0 ? BinaryFiles.readString(in) : null)
+                .buildWithoutConsistencyCheck();
+    }
+
+    private static List<PackagePattern> readPatterns(ByteBuffer in) throws IOException {
+        final int count = in.getInt();
+        checkCount(count, in);
+        final List<PackagePattern> patterns = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            patterns.add(PackagePatternCodec.read(in));
+        }
+        return patterns;
+    }
+
+    private static void checkCount(int count, ByteBuffer in) throws IOException {
+        if (count < 0 || count > in.remaining()) {
+            throw new IOException("Invalid element count: " + count);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Helpers for reading and writing the binary cache files of this plugin.
+ *
+ * @since 1.1.0
+ */
+final class BinaryFiles {
+
+    private BinaryFiles() {
+        // hidden
+    }
+
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads the whole given file into a heap buffer. The files are not memory mapped
+     * because a mapping is only released by the garbage collector and, on Windows,
+     * prevents the file from being replaced by {@link #writeAtomically(Path, ContentWriter)}
+     * during the same run.
+     *
+     * @param file The file to read.
+     * @return The buffer holding the file's content.
+     * @throws IOException If the file can not be read.
+     */
+    static ByteBuffer read(Path file) throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file));
+    }
+
+    /**
+     * Writes the given file by first writing a temporary file in the same directory and
+     * then moving it to the target. Concurrent readers will thus never see a partially
+     * written file.
+     *
+     * @param file The file to write.
+     * @param writer Writes the actual content.
+     * @throws IOException If writing fails.
+     */
+    static void writeAtomically(Path file, ContentWriter writer) throws IOException {
+        final Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(),
+                file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                writer.writeTo(out);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    static void writeString(String s, DataOutputStream out) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) throws IOException {
+        try {
+            final int length = in.getInt();
+            if (length < 0 || length > in.remaining()) {
+                throw new IOException("Invalid string length: " + length);
+            }
+            final byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (final BufferUnderflowException e) {
+            throw new IOException("Unexpected end of serialized string", e);
+        }
+    }
+}
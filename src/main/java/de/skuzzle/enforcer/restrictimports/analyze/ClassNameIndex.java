@@ -0,0 +1,150 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Knows the simple names of all classes on a classpath by their package. Classes nested
+ * in another class are listed under the name of the enclosing class, just like they
+ * would be reached by a wildcard import of that class.
+ * <p>
+ * Jars are indexed by reading their central directory only, which is cheap enough that
+ * the names are not persisted. They are kept in memory for as long as the jar's size and
+ * modification time stay the same, so that all modules of a build share them. Class
+ * directories are always listed anew as their content changes with every compilation.
+ *
+ * @since 1.1.0
+ */
+final class ClassNameIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassNameIndex.class);
+
+    private static final String[] NO_NAMES = new String[0];
+    private static final int MAX_CACHED_JARS = 1024;
+
+    private static final JarFiles.JarCache<Map<String, String[]>> JAR_CACHE = new JarFiles.JarCache<>(
+            MAX_CACHED_JARS, names -> 1);
+
+    private final Map<String, String[]> simpleNames;
+
+    private ClassNameIndex(Map<String, String[]> simpleNames) {
+        this.simpleNames = simpleNames;
+    }
+
+    /**
+     * Indexes the classes of the given jars and class directories. Entries that neither
+     * exist as a directory nor as a file are ignored.
+     *
+     * @param classpath The jars and class directories.
+     * @return The index.
+     */
+    static ClassNameIndex of(Collection<Path> classpath) {
+        final Map<String, TreeSet<String>> collected = new HashMap<>();
+        for (final Path entry : classpath) {
+            final Map<String, String[]> names;
+            if (Files.isDirectory(entry)) {
+                names = indexDirectory(entry);
+            } else if (Files.isRegularFile(entry)) {
+                names = indexJar(entry);
+            } else {
+                LOGGER.debug("Skipping missing classpath entry {}", entry);
+                continue;
+            }
+            names.forEach((packageName, classNames) -> collected
+                    .computeIfAbsent(packageName, key -> new TreeSet<>())
+                    .addAll(Arrays.asList(classNames)));
+        }
+
+        final Map<String, String[]> simpleNames = new HashMap<>(collected.size());
+        collected.forEach((packageName, classNames) -> simpleNames.put(packageName,
+                classNames.toArray(NO_NAMES)));
+        LOGGER.debug("Indexed class names of {} packages from {} classpath entries", simpleNames.size(),
+                classpath.size());
+        return new ClassNameIndex(simpleNames);
+    }
+
+    /**
+     * The simple names of all classes that are directly contained in the given package or
+     * class.
+     *
+     * @param packageName The name of a package or of an enclosing class.
+     * @return The simple names in alphabetical order. Must not be modified.
+     */
+    String[] getSimpleNames(String packageName) {
+        return simpleNames.getOrDefault(packageName, NO_NAMES);
+    }
+
+    private static Map<String, String[]> indexDirectory(Path directory) {
+        final Map<String, TreeSet<String>> collected = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.map(file -> directory.relativize(file).toString().replace('\\', '/'))
+                    .forEach(name -> addClass(name, collected));
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encountered IOException while indexing classes of " + directory, e);
+        }
+        return toArrays(collected);
+    }
+
+    private static Map<String, String[]> indexJar(Path jar) {
+        return JAR_CACHE.get(jar, ClassNameIndex::readJar);
+    }
+
+    private static Map<String, String[]> readJar(Path jar) {
+        LOGGER.debug("Indexing class names of {}", jar);
+        final Map<String, TreeSet<String>> collected = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+            JarFiles.classFileEntries(zipFile)
+                    .map(ZipEntry::getName)
+                    .forEach(name -> addClass(name, collected));
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encountered IOException while indexing classes of " + jar, e);
+        }
+        return toArrays(collected);
+    }
+
+    /**
+     * Adds the class with the given entry name, like
+     * <code>com/foo/Outer$Inner.class</code>, to the collected names. Anonymous and local
+     * classes as well as module and package descriptors can not be imported and are
+     * skipped.
+     */
+    private static void addClass(String entryName, Map<String, TreeSet<String>> collected) {
+        if (!JarFiles.isClassFile(entryName)) {
+            return;
+        }
+        final String binaryName = entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+        final int lastSeparator = Math.max(binaryName.lastIndexOf('.'), binaryName.lastIndexOf('$'));
+        final String simpleName = binaryName.substring(lastSeparator + 1);
+        if (simpleName.isEmpty()
+                || !Character.isJavaIdentifierStart(simpleName.charAt(0))
+                || simpleName.equals("module-info")
+                || simpleName.equals("package-info")) {
+            return;
+        }
+        final String enclosing = lastSeparator < 0
+                ? ""
+                : binaryName.substring(0, lastSeparator).replace('$', '.');
+        collected.computeIfAbsent(enclosing, key -> new TreeSet<>()).add(simpleName);
+    }
+
+    private static Map<String, String[]> toArrays(Map<String, TreeSet<String>> collected) {
+        final Map<String, String[]> result = new TreeMap<>();
+        collected.forEach((packageName, classNames) -> result.put(packageName, classNames.toArray(NO_NAMES)));
+        return Collections.unmodifiableMap(result);
+    }
+}
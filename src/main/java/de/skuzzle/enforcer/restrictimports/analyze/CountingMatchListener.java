@@ -0,0 +1,84 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * {@link MatchListener} which only counts the matches it receives.
+ *
+ * @since 1.1.0
+ */
+public final class CountingMatchListener implements MatchListener {
+
+    private int srcFiles;
+    private int srcImports;
+    private int testFiles;
+    private int testImports;
+
+    @Override
+    public void matchInCompileCode(MatchedFile match) {
+        ++srcFiles;
+        srcImports += match.getMatchedImports().size();
+    }
+
+    @Override
+    public void matchInTestCode(MatchedFile match) {
+        ++testFiles;
+        testImports += match.getMatchedImports().size();
+    }
+
+    /**
+     * Returns whether at least one banned import has been found within the analyzed
+     * compile OR test source files.
+     *
+     * @return Whether a banned import has been found.
+     */
+    public boolean bannedImportsFound() {
+        return srcFiles > 0 || testFiles > 0;
+    }
+
+    /**
+     * Number of compile source files that contained at least one banned import.
+     *
+     * @return The number of files.
+     */
+    public int getSrcFiles() {
+        return this.srcFiles;
+    }
+
+    /**
+     * Number of banned imports found within compile source files.
+     *
+     * @return The number of imports.
+     */
+    public int getSrcImports() {
+        return this.srcImports;
+    }
+
+    /**
+     * Number of test source files that contained at least one banned import.
+     *
+     * @return The number of files.
+     */
+    public int getTestFiles() {
+        return this.testFiles;
+    }
+
+    /**
+     * Number of banned imports found within test source files.
+     *
+     * @return The number of imports.
+     */
+    public int getTestImports() {
+        return this.testImports;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("srcFiles", srcFiles)
+                .add("srcImports", srcImports)
+                .add("testFiles", testFiles)
+                .add("testImports", testImports)
+                .toString();
+    }
+}
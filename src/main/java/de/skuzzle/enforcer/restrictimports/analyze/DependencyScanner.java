@@ -0,0 +1,154 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.ByteStreams;
+
+import de.skuzzle.enforcer.restrictimports.parser.ClassFileParser;
+import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+
+/**
+ * Analyzes the classes that are contained in dependency jars. Matches are reported with
+ * the jar as source root and with paths of the form <code>&lt;jar&gt;/&lt;entry&gt;</code>.
+ * <p>
+ * The classes that are referenced by a jar do not depend on the banned imports, so they
+ * are kept in memory for as long as the jar's size and modification time stay the same.
+ * That way, each jar is scanned only once even if many modules of a build depend on it.
+ *
+ * @since 1.1.0
+ */
+final class DependencyScanner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DependencyScanner.class);
+
+    // the weight of a jar is the number of its classes and their references
+    private static final long MAX_CACHED_REFERENCES = 2_000_000;
+
+    private static final JarFiles.JarCache<List<ParsedFile>> JAR_CACHE = new JarFiles.JarCache<>(
+            MAX_CACHED_REFERENCES,
+            classes -> classes.stream().mapToInt(parsedFile -> 1 + parsedFile.getImports().size()).sum());
+
+    private final ClassFileParser classFileParser;
+    private final ImportAnalyzer importAnalyzer;
+    private final int parallelism;
+
+    DependencyScanner(ClassFileParser classFileParser, ImportAnalyzer importAnalyzer, int parallelism) {
+        this.classFileParser = classFileParser;
+        this.importAnalyzer = importAnalyzer;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Matches the classes of all given jars against the given groups. The classes of
+     * each jar are parsed by a thread pool that is shared by all jars.
+     *
+     * @param jars The jar files.
+     * @param groups The groups to match against.
+     * @param matchSink Receives the matches.
+     */
+    void scan(Iterable<Path> jars, BannedImportGroups groups, Consumer<MatchedFile> matchSink) {
+        final Optional<ExecutorService> executor = parallelism <= 1
+                ? Optional.empty()
+                : Optional.of(Executors.newFixedThreadPool(parallelism));
+        try {
+            for (final Path jar : jars) {
+                for (final ParsedFile parsedFile : readClasses(jar, executor)) {
+                    importAnalyzer.matchFile(jar, parsedFile, groups).ifPresent(matchSink);
+                }
+            }
+        } finally {
+            executor.ifPresent(ExecutorService::shutdown);
+        }
+    }
+
+    /**
+     * Reads the classes of the given jar from the cache or by scanning the jar.
+     *
+     * @param jar The jar file.
+     * @param executor Parses the jar's class files or empty to parse them on the
+     *            calling thread.
+     * @return The parsed classes.
+     */
+    List<ParsedFile> readClasses(Path jar, Optional<ExecutorService> executor) {
+        return JAR_CACHE.get(jar, unused -> {
+            LOGGER.debug("Scanning dependency {}", jar);
+            return Collections.unmodifiableList(scanJar(jar, executor));
+        });
+    }
+
+    private List<ParsedFile> scanJar(Path jar, Optional<ExecutorService> executor) {
+        try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+            final List<Callable<Optional<ParsedFile>>> tasks = JarFiles.classFileEntries(zipFile)
+                    .map(entry -> (Callable<Optional<ParsedFile>>) () -> parseEntry(jar, zipFile, entry))
+                    .collect(Collectors.toList());
+            return runAll(jar, tasks, executor);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encountered IOException while scanning dependency " + jar, e);
+        }
+    }
+
+    private Optional<ParsedFile> parseEntry(Path jar, ZipFile zipFile, ZipEntry entry) throws IOException {
+        final byte[] classFile;
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            classFile = ByteStreams.toByteArray(in);
+        }
+        return classFileParser.parse(jar.resolve(entry.getName()), ByteBuffer.wrap(classFile), fqcn -> true);
+    }
+
+    private List<ParsedFile> runAll(Path jar, List<Callable<Optional<ParsedFile>>> tasks,
+            Optional<ExecutorService> executor) {
+        final List<ParsedFile> result = new ArrayList<>(tasks.size());
+        if (!executor.isPresent()) {
+            try {
+                for (final Callable<Optional<ParsedFile>> task : tasks) {
+                    task.call().ifPresent(result::add);
+                }
+            } catch (final RuntimeException e) {
+                throw e;
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Encountered IOException while scanning dependency " + jar, e);
+            } catch (final Exception e) {
+                throw new IllegalStateException("Unexpected exception while scanning dependency " + jar, e);
+            }
+            return result;
+        }
+
+        try {
+            for (final Future<Optional<ParsedFile>> future : executor.get().invokeAll(tasks)) {
+                future.get().ifPresent(result::add);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning dependency " + jar, e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException("Encountered IOException while scanning dependency " + jar,
+                        (IOException) e.getCause());
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Unexpected exception while scanning dependency " + jar, e.getCause());
+        }
+        return result;
+    }
+}
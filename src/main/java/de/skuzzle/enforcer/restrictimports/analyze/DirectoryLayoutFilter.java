@@ -0,0 +1,151 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.file.Path;
+
+/**
+ * Decides which directories and files below a source root need to be analyzed, based on
+ * the assumption that the directory layout mirrors the package names. A file
+ * <code>com/acme/shipping/Parcel.java</code> is thus assumed to declare the class
+ * <code>com.acme.shipping.Parcel</code>.
+ * <p>
+ * A directory is rejected if, for every {@link BannedImportGroup}, either no base package
+ * can match a class within that directory or the group's exclusions match all of these
+ * classes. The check is conservative: whenever the outcome for a pattern can not be
+ * decided from the directory alone, the directory is accepted. A file is rejected if its
+ * guessed class name does not select any group.
+ *
+ * @since 1.1.0
+ */
+final class DirectoryLayoutFilter {
+
+    /** Filter that accepts every directory and file. */
+    static final DirectoryLayoutFilter ACCEPT_ALL = new DirectoryLayoutFilter(null);
+
+    private final BannedImportGroups groups;
+
+    private DirectoryLayoutFilter(BannedImportGroups groups) {
+        this.groups = groups;
+    }
+
+    static DirectoryLayoutFilter forGroups(BannedImportGroups groups) {
+        return new DirectoryLayoutFilter(groups);
+    }
+
+    /**
+     * Tests whether the given directory can contain source files that select a group.
+     *
+     * @param root The source root.
+     * @param directory A directory below the source root.
+     * @return Whether the directory needs to be analyzed.
+     */
+    boolean acceptsDirectory(Path root, Path directory) {
+        if (groups == null) {
+            return true;
+        }
+        final String[] packageParts = relativeNames(root, directory);
+        return packageParts.length == 0
+                || groups.getGroups().stream().anyMatch(group -> mightApply(group, packageParts));
+    }
+
+    /**
+     * Tests whether the given source file might select a group, without opening it. The
+     * full qualified class name of the file is guessed from its path.
+     *
+     * @param root The source root.
+     * @param sourceFile A source file below the source root.
+     * @return Whether the file needs to be analyzed.
+     */
+    boolean acceptsFile(Path root, Path sourceFile) {
+        if (groups == null) {
+            return true;
+        }
+        final String[] names = relativeNames(root, sourceFile);
+        final String fileName = names[names.length - 1];
+        final int extension = fileName.lastIndexOf('.');
+        names[names.length - 1] = extension < 0
+                ? fileName
+                : fileName.substring(0, extension);
+        return groups.selectGroupFor(String.join(".", names)).isPresent();
+    }
+
+    private static String[] relativeNames(Path root, Path path) {
+        final Path relative = root.relativize(path);
+        if (relative.toString().isEmpty()) {
+            return new String[0];
+        }
+        final String[] names = new String[relative.getNameCount()];
+        for (int i = 0; i < names.length; ++i) {
+            names[i] = relative.getName(i).toString();
+        }
+        return names;
+    }
+
+    private static boolean mightApply(BannedImportGroup group, String[] packageParts) {
+        final boolean mightSelectGroup = group.getBasePackages().stream()
+                .anyMatch(basePackage -> mightMatchClassIn(PatternTrie.asImpl(basePackage), packageParts));
+        final boolean allExcluded = group.getExcludedClasses().stream()
+                .anyMatch(exclusion -> matchesAllClassesIn(PatternTrie.asImpl(exclusion), packageParts));
+        return mightSelectGroup && !allExcluded;
+    }
+
+    // whether there might be a name that starts with the package parts, has at least one
+    // more part and is matched by the pattern. Mirrors PackagePatternImpl.matches
+    private static boolean mightMatchClassIn(PackagePatternImpl pattern, String[] packageParts) {
+        if (pattern.isStatic()) {
+            return false;
+        }
+        final String[] parts = pattern.getParts();
+        int matchIndex = 0;
+        for (int patternIndex = 0; patternIndex < parts.length; ++patternIndex) {
+            if (matchIndex == packageParts.length) {
+                // the remaining pattern parts can still match the class name and the
+                // sub packages
+                return true;
+            }
+            final String part = parts[patternIndex];
+            if ("**".equals(part)) {
+                if (patternIndex + 1 == parts.length) {
+                    return true;
+                }
+                final String nextPart = parts[patternIndex + 1];
+                while (matchIndex < packageParts.length && !matchParts(nextPart, packageParts[matchIndex])) {
+                    ++matchIndex;
+                }
+            } else if (matchParts(part, packageParts[matchIndex])) {
+                ++matchIndex;
+            } else {
+                return false;
+            }
+        }
+        // pattern is exhausted but the class name still has at least one part
+        return false;
+    }
+
+    // whether the pattern matches every name that starts with the package parts and has
+    // at least one more part. Only recognizes patterns like 'com.foo.**'
+    private static boolean matchesAllClassesIn(PackagePatternImpl pattern, String[] packageParts) {
+        if (pattern.isStatic()) {
+            return false;
+        }
+        final String[] parts = pattern.getParts();
+        final int prefixLength = parts.length - 1;
+        if (!"**".equals(parts[prefixLength]) || prefixLength > packageParts.length) {
+            return false;
+        }
+        for (int i = 0; i < prefixLength; ++i) {
+            if ("**".equals(parts[i]) || !matchParts(parts[i], packageParts[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchParts(String patternPart, String matchPart) {
+        if ("*".equals(patternPart) || "**".equals(patternPart)) {
+            return true;
+        } else if ("'*'".equals(patternPart)) {
+            return "*".equals(matchPart);
+        }
+        return patternPart.equals(matchPart);
+    }
+}
@@ -0,0 +1,130 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import de.skuzzle.enforcer.restrictimports.parser.ClassFileParser;
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatementParser;
+import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+import de.skuzzle.enforcer.restrictimports.parser.QualifiedNameScanner;
+
+/**
+ * Determines which files below the analyzed directories are subject to analysis and how
+ * they are turned into {@link ParsedFile ParsedFiles}.
+ *
+ * @since 1.1.0
+ */
+interface FileParser {
+
+    /**
+     * Parses the imports of source files for which a
+     * {@link de.skuzzle.enforcer.restrictimports.parser.lang.LanguageSupport} is known.
+     *
+     * @param charset The charset of the source files.
+     * @return The parser.
+     */
+    static FileParser forSourceFiles(Charset charset) {
+        return forSourceFiles(ImportStatementParser.defaultInstance(charset), "source:" + charset.name());
+    }
+
+    /**
+     * Parses the imports of source files and also scans the rest of each file for
+     * references to full qualified class names.
+     *
+     * @param charset The charset of the source files.
+     * @param referenceScanner Finds the references.
+     * @return The parser.
+     * @since 1.1.0
+     */
+    static FileParser forSourceFiles(Charset charset, QualifiedNameScanner referenceScanner) {
+        return forSourceFiles(ImportStatementParser.withReferenceScanner(charset, referenceScanner),
+                "source:" + charset.name() + ":references:" + referenceScanner.getCacheKey());
+    }
+
+    static FileParser forSourceFiles(ImportStatementParser parser, String cacheKey) {
+        final Predicate<Path> supportedFileTypes = new SourceTreeAnalyzerImpl.SourceFileMatcher();
+        return new FileParser() {
+
+            @Override
+            public boolean isSupported(Path file) {
+                return supportedFileTypes.test(file);
+            }
+
+            @Override
+            public String getCacheKey() {
+                return cacheKey;
+            }
+
+            @Override
+            public Optional<ParsedFile> parse(Path file, Predicate<String> fqcnFilter) {
+                return parser.parse(file, SourceTreeAnalyzerImpl.getLanguageSupport(file), fqcnFilter);
+            }
+        };
+    }
+
+    /**
+     * Parses the classes that are referenced by compiled class files.
+     *
+     * @return The parser.
+     */
+    static FileParser forClassFiles() {
+        final ClassFileParser parser = ClassFileParser.defaultInstance();
+        return new FileParser() {
+
+            @Override
+            public boolean isSupported(Path file) {
+                return file.getFileName().toString().endsWith(".class") && !Files.isDirectory(file);
+            }
+
+            @Override
+            public String getCacheKey() {
+                return "class";
+            }
+
+            @Override
+            public Optional<ParsedFile> parse(Path file, Predicate<String> fqcnFilter) {
+                return parser.parse(file, fqcnFilter);
+            }
+        };
+    }
+
+    /**
+     * Whether the given file is subject to analysis.
+     *
+     * @param file The file.
+     * @return Whether the file can be parsed.
+     */
+    boolean isSupported(Path file);
+
+    /**
+     * Identifies the kind of files this parser handles and the way they are parsed.
+     * Parsers with equal keys produce equal results for the same file, so their results
+     * may be shared via a {@link ParsedFileCache}.
+     *
+     * @return The key.
+     */
+    String getCacheKey();
+
+    /**
+     * Parses the given file.
+     *
+     * @param file The file to parse.
+     * @return The parsed file.
+     */
+    default ParsedFile parse(Path file) {
+        return parse(file, fqcn -> true).get();
+    }
+
+    /**
+     * Parses the given file but stops as soon as its full qualified class name is known
+     * and is rejected by the given filter.
+     *
+     * @param file The file to parse.
+     * @param fqcnFilter Decides whether the file is of interest.
+     * @return The parsed file or an empty optional if the filter rejected the file.
+     */
+    Optional<ParsedFile> parse(Path file, Predicate<String> fqcnFilter);
+}
@@ -5,6 +5,7 @@ import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -21,33 +22,36 @@ class ImportAnalyzer {
     /**
      * Collects all imports that are banned within the given source file.
      *
+     * @param sourceRoot The source root directory in which the file has been found.
      * @param sourceFile The parsed file to check for banned imports..
      * @param groups The groups of banned imports to check the file against. From all
      *            groups, the one with the most specific base pattern match is chosen.
      * @return a {@link MatchedFile} holds information about the found matches. Returns an
      *         empty optional if no matches were found.
      */
-    Optional<MatchedFile> matchFile(ParsedFile sourceFile, BannedImportGroups groups) {
+    Optional<MatchedFile> matchFile(Path sourceRoot, ParsedFile sourceFile, BannedImportGroups groups) {
         LOGGER.trace("Analyzing {} for banned imports", sourceFile);
 
-        final BannedImportGroup group = groups.selectGroupFor(sourceFile.getFqcn()).orElse(null);
-        if (group == null) {
+        final int groupId = groups.selectGroupIdFor(sourceFile.getFqcn());
+        if (groupId < 0) {
             LOGGER.trace("No rule group matched {}", sourceFile);
             return Optional.empty();
         }
+        final BannedImportGroup group = groups.getGroup(groupId);
         LOGGER.trace("Selected {} for {}", group, sourceFile);
 
         final List<MatchedImport> matches = new ArrayList<>();
         for (ImportStatement importStmt : sourceFile.getImports()) {
-            group.ifImportIsBanned(importStmt.getImportName())
-                    .map(bannedImport -> new MatchedImport(importStmt.getLine(), importStmt.getImportName(),
-                            bannedImport))
-                    .ifPresent(matches::add);
+            final int patternId = groups.bannedPatternIdFor(groupId, importStmt.getImportName());
+            if (patternId >= 0) {
+                matches.add(new MatchedImport(importStmt.getLine(), importStmt.getImportName(),
+                        groups.getPattern(patternId), patternId));
+            }
         }
         if (matches.isEmpty()) {
             return Optional.empty();
         }
-        final MatchedFile matchedFile = new MatchedFile(sourceFile.getPath(), matches, group);
+        final MatchedFile matchedFile = new MatchedFile(sourceFile.getPath(), sourceRoot, matches, group, groupId);
         LOGGER.debug("Found banned import matches: {}", matchedFile);
         return Optional.of(matchedFile);
     }
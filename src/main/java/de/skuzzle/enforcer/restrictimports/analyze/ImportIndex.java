@@ -0,0 +1,346 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
+import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+
+/**
+ * Persistent inverted index from every distinct import name to the files that use it.
+ * Evaluating groups against the index matches the patterns only once per distinct
+ * import name and group instead of once per import statement, and requires no file to be
+ * read.
+ * <p>
+ * The index is kept up to date incrementally: only files whose size or modification time
+ * changed since they were indexed are parsed again and files that no longer exist are
+ * removed. As the index does not depend on the groups, it stays valid when the banned
+ * imports change. For the same reason, references within the body of source files are
+ * recorded regardless of the banned imports and only those that start with the literal
+ * prefix of a banned import are considered while matching.
+ *
+ * @since 1.1.0
+ */
+final class ImportIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportIndex.class);
+
+    private static final int MAGIC = 0x52494949;
+    private static final short VERSION = 2;
+    private static final int UNKNOWN = -2;
+
+    private final String parserKey;
+    // sorted so that matches are reported in a stable order
+    private final Map<Path, IndexedFile> files = new TreeMap<>();
+    private final Map<String, Set<IndexedFile>> importToFiles = new HashMap<>();
+
+    private ImportIndex(String parserKey) {
+        this.parserKey = parserKey;
+    }
+
+    /**
+     * Creates an empty index for files that are parsed by a parser with the given cache
+     * key.
+     *
+     * @param parserKey The {@link FileParser#getCacheKey() cache key} of the parser.
+     * @return The empty index.
+     */
+    static ImportIndex empty(String parserKey) {
+        return new ImportIndex(parserKey);
+    }
+
+    /**
+     * Reads the index from the given file. Returns an empty index if the file does not
+     * exist, is corrupt or has been written for a different parser.
+     *
+     * @param indexFile The file to read.
+     * @param parserKey The {@link FileParser#getCacheKey() cache key} of the parser.
+     * @param fileSystem The file system of the indexed files.
+     * @return The index.
+     */
+    static ImportIndex read(Path indexFile, String parserKey, FileSystem fileSystem) {
+        final ImportIndex index = new ImportIndex(parserKey);
+        if (!Files.isRegularFile(indexFile)) {
+            return index;
+        }
+
+        try {
+            final ByteBuffer in = BinaryFiles.read(indexFile);
+            if (in.remaining() < 6
+                    || in.getInt() != MAGIC
+                    || in.getShort() != VERSION
+                    || !parserKey.equals(BinaryFiles.readString(in))) {
+                LOGGER.debug("Import index {} is outdated", indexFile);
+                return index;
+            }
+
+            final int fileCount = in.getInt();
+            for (int i = 0; i < fileCount; ++i) {
+                final Path file = fileSystem.getPath(BinaryFiles.readString(in));
+                final Path root = fileSystem.getPath(BinaryFiles.readString(in));
+                final boolean testCode = in.get() != 0;
+                final long lastModified = in.getLong();
+                final long size = in.getLong();
+                final String fqcn = BinaryFiles.readString(in);
+                final String declaredPackage = BinaryFiles.readString(in);
+                final int importCount = in.getInt();
+                final List<ImportStatement> imports = new ArrayList<>(Math.min(importCount, in.remaining()));
+                for (int j = 0; j < importCount; ++j) {
+                    final String importName = BinaryFiles.readString(in);
+                    final int line = in.getInt();
+                    imports.add(new ImportStatement(importName, line, in.get() != 0));
+                }
+                index.add(new IndexedFile(root, testCode, lastModified, size,
+                        new ParsedFile(file, declaredPackage, fqcn, imports)));
+            }
+            return index;
+        } catch (final IOException | BufferUnderflowException | IllegalArgumentException e) {
+            LOGGER.debug("Could not read import index from {}", indexFile, e);
+            return new ImportIndex(parserKey);
+        }
+    }
+
+    /**
+     * Writes this index to the given file. An existing file will be replaced.
+     *
+     * @param indexFile The file to write.
+     * @throws IOException If writing fails.
+     */
+    void write(Path indexFile) throws IOException {
+        BinaryFiles.writeAtomically(indexFile, out -> {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            BinaryFiles.writeString(parserKey, out);
+            out.writeInt(files.size());
+            for (final IndexedFile indexedFile : files.values()) {
+                writeFile(indexedFile, out);
+            }
+        });
+    }
+
+    private static void writeFile(IndexedFile indexedFile, DataOutputStream out) throws IOException {
+        final ParsedFile parsedFile = indexedFile.parsedFile;
+        BinaryFiles.writeString(parsedFile.getPath().toString(), out);
+        BinaryFiles.writeString(indexedFile.root.toString(), out);
+        out.writeBoolean(indexedFile.testCode);
+        out.writeLong(indexedFile.lastModified);
+        out.writeLong(indexedFile.size);
+        BinaryFiles.writeString(parsedFile.getFqcn(), out);
+        BinaryFiles.writeString(parsedFile.getDeclaredPackage(), out);
+        out.writeInt(parsedFile.getImports().size());
+        for (final ImportStatement importStatement : parsedFile.getImports()) {
+            BinaryFiles.writeString(importStatement.getImportName(), out);
+            out.writeInt(importStatement.getLine());
+            out.writeBoolean(importStatement.isReference());
+        }
+    }
+
+    /**
+     * Makes sure that the given file is indexed with its current content. The file is
+     * only parsed if it is not indexed yet or if it has changed since it has been
+     * indexed.
+     *
+     * @param root The source root in which the file has been found.
+     * @param file The file.
+     * @param testCode Whether the file is test code.
+     * @param fileParser Parses the file if required.
+     * @return Whether the file has been parsed.
+     * @throws IOException If the file's attributes can not be read.
+     */
+    boolean refresh(Path root, Path file, boolean testCode, FileParser fileParser) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        final IndexedFile existing = files.get(file);
+        if (existing != null
+                && existing.lastModified == lastModified
+                && existing.size == attributes.size()
+                && existing.root.equals(root)
+                && existing.testCode == testCode) {
+            return false;
+        }
+
+        remove(file);
+        add(new IndexedFile(root, testCode, lastModified, attributes.size(), fileParser.parse(file)));
+        return true;
+    }
+
+    /**
+     * Removes all files from this index that are not contained in the given collection.
+     *
+     * @param existingFiles The files to keep.
+     * @return The number of removed files.
+     */
+    int retainAll(Collection<Path> existingFiles) {
+        int removed = 0;
+        final Iterator<Path> it = new ArrayList<>(files.keySet()).iterator();
+        while (it.hasNext()) {
+            final Path file = it.next();
+            if (!existingFiles.contains(file)) {
+                remove(file);
+                ++removed;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * The number of distinct import names within this index.
+     *
+     * @return The number of distinct import names.
+     */
+    int getImportCount() {
+        return importToFiles.size();
+    }
+
+    /**
+     * The number of files within this index.
+     *
+     * @return The number of files.
+     */
+    int getFileCount() {
+        return files.size();
+    }
+
+    /**
+     * Matches all indexed files against the given groups. Like a
+     * {@link de.skuzzle.enforcer.restrictimports.parser.QualifiedNameScanner#forPrefixes(Collection)
+     * scanner for prefixes}, references are only matched if they start with the literal
+     * prefix of any banned import.
+     *
+     * @param groups The groups.
+     * @param srcSink Receives the matches in compile code.
+     * @param testSink Receives the matches in test code.
+     */
+    void match(BannedImportGroups groups, Consumer<MatchedFile> srcSink, Consumer<MatchedFile> testSink) {
+        final Set<String> referencePrefixes = groups.getLiteralPrefixesOfBannedImports();
+        for (final IndexedFile indexedFile : files.values()) {
+            indexedFile.groupId = groups.selectGroupIdFor(indexedFile.parsedFile.getFqcn());
+            indexedFile.bannedImports = null;
+        }
+
+        // the pattern id that bans the current import name, per group id
+        final int[] verdicts = new int[groups.getGroups().size()];
+        for (final Map.Entry<String, Set<IndexedFile>> entry : importToFiles.entrySet()) {
+            final String importName = entry.getKey();
+            Arrays.fill(verdicts, UNKNOWN);
+            for (final IndexedFile indexedFile : entry.getValue()) {
+                final int groupId = indexedFile.groupId;
+                if (groupId < 0) {
+                    continue;
+                }
+                if (verdicts[groupId] == UNKNOWN) {
+                    verdicts[groupId] = groups.bannedPatternIdFor(groupId, importName);
+                }
+                if (verdicts[groupId] >= 0) {
+                    if (indexedFile.bannedImports == null) {
+                        indexedFile.bannedImports = new HashMap<>();
+                    }
+                    indexedFile.bannedImports.put(importName, verdicts[groupId]);
+                }
+            }
+        }
+
+        for (final IndexedFile indexedFile : files.values()) {
+            final ParsedFile parsedFile = indexedFile.parsedFile;
+            final Map<String, Integer> banned = indexedFile.bannedImports;
+            if (banned == null) {
+                continue;
+            }
+            // report the matches in the order in which they appear in the file
+            final List<MatchedImport> matches = new ArrayList<>(banned.size());
+            for (final ImportStatement importStatement : parsedFile.getImports()) {
+                final Integer patternId = banned.get(importStatement.getImportName());
+                if (patternId != null
+                        && (!importStatement.isReference()
+                                || startsWithAny(importStatement.getImportName(), referencePrefixes))) {
+                    matches.add(new MatchedImport(importStatement.getLine(), importStatement.getImportName(),
+                            groups.getPattern(patternId), patternId));
+                }
+            }
+            indexedFile.bannedImports = null;
+            if (matches.isEmpty()) {
+                continue;
+            }
+            final MatchedFile matchedFile = new MatchedFile(parsedFile.getPath(), indexedFile.root, matches,
+                    groups.getGroup(indexedFile.groupId), indexedFile.groupId);
+            if (indexedFile.testCode) {
+                testSink.accept(matchedFile);
+            } else {
+                srcSink.accept(matchedFile);
+            }
+        }
+    }
+
+    private static boolean startsWithAny(String importName, Set<String> prefixes) {
+        for (final String prefix : prefixes) {
+            if (importName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(IndexedFile indexedFile) {
+        files.put(indexedFile.parsedFile.getPath(), indexedFile);
+        for (final ImportStatement importStatement : indexedFile.parsedFile.getImports()) {
+            importToFiles.computeIfAbsent(importStatement.getImportName(), name -> new LinkedHashSet<>())
+                    .add(indexedFile);
+        }
+    }
+
+    private void remove(Path file) {
+        final IndexedFile removed = files.remove(file);
+        if (removed == null) {
+            return;
+        }
+        for (final ImportStatement importStatement : removed.parsedFile.getImports()) {
+            final Set<IndexedFile> users = importToFiles.get(importStatement.getImportName());
+            if (users != null) {
+                users.remove(removed);
+                if (users.isEmpty()) {
+                    importToFiles.remove(importStatement.getImportName());
+                }
+            }
+        }
+    }
+
+    private static final class IndexedFile {
+        private final Path root;
+        private final boolean testCode;
+        private final long lastModified;
+        private final long size;
+        private final ParsedFile parsedFile;
+
+        // scratch state of the current match() invocation
+        private int groupId;
+        private Map<String, Integer> bannedImports;
+
+        private IndexedFile(Path root, boolean testCode, long lastModified, long size, ParsedFile parsedFile) {
+            this.root = root;
+            this.testCode = testCode;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.parsedFile = parsedFile;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cheap pre check which rejects most imports that can not be matched by any of a list of
+ * {@link PackagePattern PackagePatterns}, before the actual matching takes place. It
+ * remembers the first two parts of every pattern and rejects all import names whose
+ * leading parts differ from all of them. Rejecting a name needs a hash lookup of its
+ * first part (and possibly a second one) and does not require to split it.
+ * <p>
+ * If any pattern starts with a wildcard, every name of the same kind (static or
+ * non-static) might be matched and the filter accepts all of them.
+ *
+ * @since 1.1.0
+ */
+final class ImportPrefilter {
+
+    private static final String STATIC_PREFIX = "static ";
+
+    private final Segments staticSegments;
+    private final Segments nonStaticSegments;
+
+    ImportPrefilter(List<PackagePattern> patterns) {
+        this.staticSegments = new Segments();
+        this.nonStaticSegments = new Segments();
+        for (final PackagePattern pattern : patterns) {
+            final PackagePatternImpl impl = PatternTrie.asImpl(pattern);
+            final Segments segments = impl.isStatic()
+                    ? staticSegments
+                    : nonStaticSegments;
+            segments.add(impl.getParts());
+        }
+    }
+
+    /**
+     * Tests whether the given import name might be matched by any of the patterns. If
+     * this method returns false, no pattern matches the import.
+     *
+     * @param importName The import name to test.
+     * @return Whether a pattern might match.
+     */
+    boolean mightBeBanned(String importName) {
+        if (importName.startsWith(STATIC_PREFIX)) {
+            return staticSegments.mightMatch(importName, STATIC_PREFIX.length());
+        }
+        return nonStaticSegments.mightMatch(importName, 0);
+    }
+
+    private static boolean isWildcard(String part) {
+        return "*".equals(part) || "**".equals(part) || "'*'".equals(part);
+    }
+
+    private static final class Segments {
+        // maps a first part to all possible second parts. A null value means that any
+        // second part is possible
+        private final Map<String, Set<String>> firstToSecond = new HashMap<>();
+        private boolean matchesAll;
+
+        private void add(String[] parts) {
+            if (isWildcard(parts[0])) {
+                matchesAll = true;
+                return;
+            }
+            if (parts.length == 1 || isWildcard(parts[1])) {
+                firstToSecond.put(parts[0], null);
+            } else if (!firstToSecond.containsKey(parts[0])) {
+                final Set<String> second = new HashSet<>();
+                second.add(parts[1]);
+                firstToSecond.put(parts[0], second);
+            } else {
+                final Set<String> second = firstToSecond.get(parts[0]);
+                if (second != null) {
+                    second.add(parts[1]);
+                }
+            }
+        }
+
+        private boolean mightMatch(String name, int start) {
+            if (matchesAll) {
+                return true;
+            }
+            final int firstDot = name.indexOf('.', start);
+            final String first = firstDot < 0
+                    ? name.substring(start)
+                    : name.substring(start, firstDot);
+            if (!firstToSecond.containsKey(first)) {
+                return false;
+            }
+            final Set<String> possibleSecond = firstToSecond.get(first);
+            if (possibleSecond == null || firstDot < 0) {
+                return true;
+            }
+            final int secondDot = name.indexOf('.', firstDot + 1);
+            final String second = secondDot < 0
+                    ? name.substring(firstDot + 1)
+                    : name.substring(firstDot + 1, secondDot);
+            return possibleSecond.contains(second);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Helpers for reading the classes within jars and for caching what has been read from
+ * them.
+ *
+ * @since 1.1.0
+ */
+final class JarFiles {
+
+    private JarFiles() {
+        // hidden
+    }
+
+    /**
+     * Lists the class file entries of the given jar. Only the central directory is read
+     * to list the entries.
+     *
+     * @param zipFile The opened jar.
+     * @return The class file entries.
+     */
+    static Stream<? extends ZipEntry> classFileEntries(ZipFile zipFile) {
+        return zipFile.stream()
+                .filter(entry -> !entry.isDirectory() && isClassFile(entry.getName()));
+    }
+
+    /**
+     * Whether the given entry name denotes a class file of the jar's default version.
+     * Multi release jars contain additional versions of some classes below
+     * <code>META-INF/versions</code>, which are skipped.
+     *
+     * @param entryName The name of the entry.
+     * @return Whether it is a class file.
+     */
+    static boolean isClassFile(String entryName) {
+        return entryName.endsWith(".class") && !entryName.startsWith("META-INF/");
+    }
+
+    /**
+     * Keeps values that have been read from jars in memory for as long as the jar's size
+     * and modification time stay the same, so that all modules of a build share them.
+     * Nothing is written to disk, as the local repository might not be writable and
+     * computing a checksum would read the whole jar. Jars are identified by their
+     * absolute path, so that a rebuilt jar replaces its outdated entry.
+     *
+     * @param <T> The type of the values.
+     */
+    static final class JarCache<T> {
+        private final Cache<Path, CachedJar<T>> cache;
+        private final ToIntFunction<T> weigher;
+
+        /**
+         * Creates a cache that holds values up to the given total weight. This bounds
+         * the memory of long running JVMs like mvnd that see many jars over time.
+         *
+         * @param maximumWeight The maximum total weight.
+         * @param weigher Determines the weight of a value.
+         */
+        JarCache(long maximumWeight, ToIntFunction<T> weigher) {
+            this.cache = CacheBuilder.newBuilder()
+                    .maximumWeight(maximumWeight)
+                    .weigher((Path jar, CachedJar<T> cached) -> cached.weight)
+                    .build();
+            this.weigher = weigher;
+        }
+
+        /**
+         * Returns the cached value of the given jar or reads it again if the jar has
+         * changed.
+         *
+         * @param jar The jar.
+         * @param reader Reads the value from the jar.
+         * @return The value.
+         */
+        T get(Path jar, Function<Path, T> reader) {
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Encountered IOException while reading attributes of " + jar, e);
+            }
+            final Path key = jar.toAbsolutePath();
+            final CachedJar<T> cached = cache.getIfPresent(key);
+            if (cached != null && cached.isUpToDate(attributes)) {
+                return cached.value;
+            }
+
+            final T value = reader.apply(jar);
+            cache.put(key, new CachedJar<>(attributes.size(), attributes.lastModifiedTime().toMillis(), value,
+                    weigher.applyAsInt(value)));
+            return value;
+        }
+    }
+
+    /**
+     * A value read from a jar along with the size and modification time of the jar when
+     * it has been read.
+     */
+    private static final class CachedJar<T> {
+        private final long size;
+        private final long lastModified;
+        private final T value;
+        private final int weight;
+
+        private CachedJar(long size, long lastModified, T value, int weight) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.value = value;
+            this.weight = weight;
+        }
+
+        private boolean isUpToDate(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A named layer of a layered architecture. A layer consists of all packages whose
+ * wildcard import (e.g. <code>com.foo.*</code>) is matched by its package patterns and
+ * may only depend on the layers that are explicitly allowed.
+ *
+ * @since 1.1.0
+ * @see Layers
+ */
+public final class Layer {
+
+    private final String name;
+    private final List<PackagePattern> packages;
+    private final List<String> allowedDependencies;
+
+    private Layer(String name, List<PackagePattern> packages, List<String> allowedDependencies) {
+        this.name = name;
+        this.packages = packages;
+        this.allowedDependencies = allowedDependencies;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Patterns of the full qualified names of the classes that belong to this layer.
+     *
+     * @return The patterns.
+     */
+    public List<PackagePattern> getPackages() {
+        return this.packages;
+    }
+
+    /**
+     * Names of the layers on which this layer may depend.
+     *
+     * @return The layer names.
+     */
+    public List<String> getAllowedDependencies() {
+        return this.allowedDependencies;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, packages, allowedDependencies);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof Layer
+                && Objects.equals(name, ((Layer) obj).name)
+                && Objects.equals(packages, ((Layer) obj).packages)
+                && Objects.equals(allowedDependencies, ((Layer) obj).allowedDependencies);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("name", this.name)
+                .add("packages", this.packages)
+                .add("allowedDependencies", this.allowedDependencies)
+                .toString();
+    }
+
+    public static class Builder {
+        private String name;
+        private List<PackagePattern> packages = ImmutableList.of();
+        private final List<String> allowedDependencies = new ArrayList<>();
+
+        private Builder() {
+            // hidden
+        }
+
+        public Builder withName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder withPackages(List<PackagePattern> packages) {
+            this.packages = packages;
+            return this;
+        }
+
+        public Builder withPackages(String... packages) {
+            return withPackages(PackagePattern.parseAll(Arrays.asList(packages)));
+        }
+
+        public Builder withAllowedDependencies(Collection<String> layerNames) {
+            this.allowedDependencies.addAll(layerNames);
+            return this;
+        }
+
+        public Builder withAllowedDependencies(String... layerNames) {
+            return withAllowedDependencies(Arrays.asList(layerNames));
+        }
+
+        /**
+         * Assembles the {@link Layer} from this builder.
+         *
+         * @return The layer.
+         * @throws BannedImportDefinitionException If the layer definition is not
+         *             consistent.
+         */
+        public Layer build() {
+            if (name == null || name.isEmpty()) {
+                throw new BannedImportDefinitionException("Layers must have a name");
+            }
+            if (packages.isEmpty()) {
+                throw new BannedImportDefinitionException(String.format(
+                        "There are no packages specified for layer '%s'", name));
+            }
+            if (packages.stream().anyMatch(PackagePattern::isStatic)) {
+                throw new BannedImportDefinitionException(String.format(
+                        "Packages of layer '%s' must not be static", name));
+            }
+            return new Layer(name, packages, new ArrayList<>(allowedDependencies));
+        }
+    }
+}
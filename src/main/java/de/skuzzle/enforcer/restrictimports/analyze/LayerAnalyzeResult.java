@@ -0,0 +1,96 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Final result of checking the code base against {@link Layers}.
+ *
+ * @since 1.1.0
+ */
+public final class LayerAnalyzeResult {
+
+    private final List<LayerViolation> srcViolations;
+    private final List<LayerViolation> testViolations;
+    private final List<List<String>> layerCycles;
+    private final long duration;
+
+    LayerAnalyzeResult(List<LayerViolation> srcViolations, List<LayerViolation> testViolations,
+            List<List<String>> layerCycles, long duration) {
+        this.srcViolations = srcViolations;
+        this.testViolations = testViolations;
+        this.layerCycles = layerCycles;
+        this.duration = duration;
+    }
+
+    /**
+     * The violations that were found within compile source files.
+     *
+     * @return The violations.
+     */
+    public List<LayerViolation> getSrcViolations() {
+        return this.srcViolations;
+    }
+
+    /**
+     * The violations that were found within test source files.
+     *
+     * @return The violations.
+     */
+    public List<LayerViolation> getTestViolations() {
+        return this.testViolations;
+    }
+
+    /**
+     * Groups of layers that depend on each other in a cycle. The layers within each cycle
+     * are listed in the order in which they have been defined.
+     *
+     * @return The cycles.
+     */
+    public List<List<String>> getLayerCycles() {
+        return this.layerCycles;
+    }
+
+    /**
+     * Whether any violation or cycle has been found.
+     *
+     * @return Whether the layers have been violated.
+     */
+    public boolean violationsFound() {
+        return !srcViolations.isEmpty() || !testViolations.isEmpty() || !layerCycles.isEmpty();
+    }
+
+    /**
+     * How long the analysis took, in ms.
+     *
+     * @return Analysis duration in ms.
+     */
+    public long getDuration() {
+        return this.duration;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(srcViolations, testViolations, layerCycles);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof LayerAnalyzeResult
+                && Objects.equals(srcViolations, ((LayerAnalyzeResult) obj).srcViolations)
+                && Objects.equals(testViolations, ((LayerAnalyzeResult) obj).testViolations)
+                && Objects.equals(layerCycles, ((LayerAnalyzeResult) obj).layerCycles);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("srcViolations", this.srcViolations)
+                .add("testViolations", this.testViolations)
+                .add("layerCycles", this.layerCycles)
+                .add("duration", this.duration)
+                .toString();
+    }
+}
@@ -0,0 +1,29 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+/**
+ * Checks the dependencies between the packages of the whole source tree against the
+ * allowed dependencies of a layered architecture.
+ *
+ * @since 1.1.0
+ */
+public interface LayerAnalyzer {
+
+    /**
+     * Creates a new {@link LayerAnalyzer} instance.
+     *
+     * @return The analyzer.
+     */
+    static LayerAnalyzer getInstance() {
+        return new LayerAnalyzerImpl(new SourceTreeAnalyzerImpl(null));
+    }
+
+    /**
+     * Builds the package dependency graph from all source files found recursively in the
+     * configured root directories and checks it against the given layers.
+     *
+     * @param settings Context information for performing the analysis.
+     * @param layers The layers.
+     * @return The result.
+     */
+    LayerAnalyzeResult analyze(AnalyzerSettings settings, Layers layers);
+}
@@ -0,0 +1,295 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.skuzzle.enforcer.restrictimports.analyze.PackageGraph.Dependency;
+
+final class LayerAnalyzerImpl implements LayerAnalyzer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LayerAnalyzerImpl.class);
+
+    private static final Comparator<LayerViolation> BY_FILE_AND_LINE = Comparator
+            .comparing(LayerViolation::getSourceFile)
+            .thenComparingInt(LayerViolation::getImportLine);
+
+    private final SourceTreeAnalyzerImpl sourceTreeAnalyzer;
+
+    LayerAnalyzerImpl(SourceTreeAnalyzerImpl sourceTreeAnalyzer) {
+        this.sourceTreeAnalyzer = sourceTreeAnalyzer;
+    }
+
+    @Override
+    public LayerAnalyzeResult analyze(AnalyzerSettings settings, Layers layers) {
+        final long start = System.currentTimeMillis();
+        final PackageGraph.Builder graphBuilder = PackageGraph.builder();
+        sourceTreeAnalyzer.parseAll(settings,
+                (root, parsedFile) -> graphBuilder.addFile(root, parsedFile, false),
+                (root, parsedFile) -> graphBuilder.addFile(root, parsedFile, true));
+        final PackageGraph graph = graphBuilder.build();
+        LOGGER.debug("Built package graph with {} packages and {} dependencies", graph.getPackageCount(),
+                graph.getTargets().length);
+
+        final LayerCheck check = new LayerCheck(graph, layers);
+        check.checkDirectDependencies();
+        if (layers.isCheckTransitiveDependencies()) {
+            check.checkTransitiveDependencies();
+        }
+        final List<List<String>> layerCycles = check.findLayerCycles();
+
+        check.srcViolations.sort(BY_FILE_AND_LINE);
+        check.testViolations.sort(BY_FILE_AND_LINE);
+        final long duration = System.currentTimeMillis() - start;
+        return new LayerAnalyzeResult(check.srcViolations, check.testViolations, layerCycles, duration);
+    }
+
+    private static final class LayerCheck {
+        private static final int UNSEEN = -1;
+
+        private final PackageGraph graph;
+        private final Layers layers;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] layerOf;
+        // edges of the unlayered packages, reversed
+        private int[] reverseOffsets;
+        private int[] reverseTargets;
+        // next package on a shortest path to each layer, by layer id, computed on demand
+        private final int[][] nextHops;
+        // actual dependencies between the layers, by layer id
+        private final BitSet[] layerDependencies;
+        private final List<LayerViolation> srcViolations = new ArrayList<>();
+        private final List<LayerViolation> testViolations = new ArrayList<>();
+
+        private LayerCheck(PackageGraph graph, Layers layers) {
+            this.graph = graph;
+            this.layers = layers;
+            this.offsets = graph.getOffsets();
+            this.targets = graph.getTargets();
+            this.layerOf = new int[graph.getPackageCount()];
+            for (int packageId = 0; packageId < layerOf.length; ++packageId) {
+                layerOf[packageId] = layers.selectLayerFor(graph.getWildcardImport(packageId));
+            }
+            this.nextHops = new int[layers.getLayerCount()][];
+            this.layerDependencies = new BitSet[layers.getLayerCount()];
+            for (int layerId = 0; layerId < layerDependencies.length; ++layerId) {
+                layerDependencies[layerId] = new BitSet();
+            }
+        }
+
+        private void checkDirectDependencies() {
+            for (int packageId = 0; packageId < layerOf.length; ++packageId) {
+                final int layer = layerOf[packageId];
+                if (layer < 0) {
+                    continue;
+                }
+                for (int edge = offsets[packageId]; edge < offsets[packageId + 1]; ++edge) {
+                    final int otherLayer = layerOf[targets[edge]];
+                    if (otherLayer < 0 || otherLayer == layer) {
+                        continue;
+                    }
+                    layerDependencies[layer].set(otherLayer);
+                    if (!layers.mayDependOn(layer, otherLayer)) {
+                        report(edge, layer, otherLayer, Collections.emptyList());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Finds dependencies of layered packages on other layers that go through packages
+         * which do not belong to any layer. The layers that are reachable from each
+         * unlayered package are computed once per strongly connected component of the
+         * unlayered packages, in reverse topological order. The paths that are reported
+         * along with the violations are taken from one breadth first search per violated
+         * layer. So the whole check is linear in the size of the graph times the number of
+         * layers.
+         */
+        private void checkTransitiveDependencies() {
+            // only follow edges leaving unlayered packages
+            final int[] unlayeredOffsets = new int[layerOf.length + 1];
+            for (int packageId = 0; packageId < layerOf.length; ++packageId) {
+                final int degree = layerOf[packageId] < 0
+                        ? offsets[packageId + 1] - offsets[packageId]
+                        : 0;
+                unlayeredOffsets[packageId + 1] = unlayeredOffsets[packageId] + degree;
+            }
+            final int[] unlayeredTargets = new int[unlayeredOffsets[layerOf.length]];
+            for (int packageId = 0; packageId < layerOf.length; ++packageId) {
+                if (layerOf[packageId] < 0) {
+                    System.arraycopy(targets, offsets[packageId], unlayeredTargets, unlayeredOffsets[packageId],
+                            offsets[packageId + 1] - offsets[packageId]);
+                }
+            }
+
+            final StronglyConnectedComponents components = StronglyConnectedComponents.of(unlayeredOffsets,
+                    unlayeredTargets);
+            final BitSet[] reachableLayers = new BitSet[components.getComponentCount()];
+            for (int component = 0; component < reachableLayers.length; ++component) {
+                final BitSet reachable = new BitSet();
+                for (final int packageId : components.getMembers(component)) {
+                    for (int edge = unlayeredOffsets[packageId]; edge < unlayeredOffsets[packageId + 1]; ++edge) {
+                        final int target = unlayeredTargets[edge];
+                        final int targetComponent = components.getComponentOf(target);
+                        if (layerOf[target] >= 0) {
+                            reachable.set(layerOf[target]);
+                        } else if (targetComponent != component) {
+                            // successors are processed first
+                            reachable.or(reachableLayers[targetComponent]);
+                        }
+                    }
+                }
+                reachableLayers[component] = reachable;
+            }
+
+            reverseOffsets = new int[layerOf.length + 1];
+            for (final int target : unlayeredTargets) {
+                ++reverseOffsets[target + 1];
+            }
+            for (int packageId = 0; packageId < layerOf.length; ++packageId) {
+                reverseOffsets[packageId + 1] += reverseOffsets[packageId];
+            }
+            reverseTargets = new int[unlayeredTargets.length];
+            final int[] next = Arrays.copyOf(reverseOffsets, layerOf.length);
+            for (int packageId = 0; packageId < layerOf.length; ++packageId) {
+                for (int edge = unlayeredOffsets[packageId]; edge < unlayeredOffsets[packageId + 1]; ++edge) {
+                    reverseTargets[next[unlayeredTargets[edge]]++] = packageId;
+                }
+            }
+
+            for (int packageId = 0; packageId < layerOf.length; ++packageId) {
+                final int layer = layerOf[packageId];
+                if (layer < 0) {
+                    continue;
+                }
+                final BitSet reported = new BitSet();
+                for (int edge = offsets[packageId]; edge < offsets[packageId + 1]; ++edge) {
+                    final int target = targets[edge];
+                    if (layerOf[target] >= 0) {
+                        continue;
+                    }
+                    final BitSet reachable = reachableLayers[components.getComponentOf(target)];
+                    for (int other = reachable.nextSetBit(0); other >= 0; other = reachable.nextSetBit(other + 1)) {
+                        if (other == layer) {
+                            continue;
+                        }
+                        layerDependencies[layer].set(other);
+                        if (!layers.mayDependOn(layer, other) && !reported.get(other)) {
+                            reported.set(other);
+                            report(edge, layer, other, pathToLayer(target, other));
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * The shortest path through unlayered packages from the given package, which must
+         * reach the given layer, to any package of that layer.
+         */
+        private List<String> pathToLayer(int from, int layer) {
+            if (nextHops[layer] == null) {
+                nextHops[layer] = findNextHops(layer);
+            }
+            final int[] nextHop = nextHops[layer];
+            final List<String> path = new ArrayList<>();
+            for (int packageId = from; packageId != UNSEEN; packageId = nextHop[packageId]) {
+                path.add(graph.getPackageName(packageId));
+                if (layerOf[packageId] == layer) {
+                    break;
+                }
+            }
+            return path;
+        }
+
+        /**
+         * Breadth first search along the reversed edges of the unlayered packages,
+         * starting at all packages of the given layer. For every unlayered package from
+         * which the layer can be reached, this records the next package on a shortest path
+         * to the layer.
+         */
+        private int[] findNextHops(int layer) {
+            final int[] nextHop = new int[layerOf.length];
+            Arrays.fill(nextHop, UNSEEN);
+            final Deque<Integer> queue = new ArrayDeque<>();
+            for (int packageId = 0; packageId < layerOf.length; ++packageId) {
+                if (layerOf[packageId] == layer) {
+                    queue.add(packageId);
+                }
+            }
+            while (!queue.isEmpty()) {
+                final int packageId = queue.poll();
+                for (int edge = reverseOffsets[packageId]; edge < reverseOffsets[packageId + 1]; ++edge) {
+                    final int source = reverseTargets[edge];
+                    if (nextHop[source] == UNSEEN) {
+                        nextHop[source] = packageId;
+                        queue.add(source);
+                    }
+                }
+            }
+            return nextHop;
+        }
+
+        private List<List<String>> findLayerCycles() {
+            final int layerCount = layerDependencies.length;
+            final int[] layerOffsets = new int[layerCount + 1];
+            for (int layer = 0; layer < layerCount; ++layer) {
+                layerOffsets[layer + 1] = layerOffsets[layer] + layerDependencies[layer].cardinality();
+            }
+            final int[] layerTargets = new int[layerOffsets[layerCount]];
+            for (int layer = 0; layer < layerCount; ++layer) {
+                int edge = layerOffsets[layer];
+                final BitSet dependencies = layerDependencies[layer];
+                for (int other = dependencies.nextSetBit(0); other >= 0; other = dependencies.nextSetBit(other + 1)) {
+                    layerTargets[edge++] = other;
+                }
+            }
+
+            final StronglyConnectedComponents components = StronglyConnectedComponents.of(layerOffsets,
+                    layerTargets);
+            final List<int[]> cycles = new ArrayList<>();
+            for (int component = 0; component < components.getComponentCount(); ++component) {
+                if (components.getSize(component) > 1) {
+                    cycles.add(components.getMembers(component));
+                }
+            }
+            cycles.sort(Comparator.comparingInt(members -> members[0]));
+
+            final List<List<String>> result = new ArrayList<>(cycles.size());
+            for (final int[] members : cycles) {
+                final List<String> names = new ArrayList<>(members.length);
+                for (final int layer : members) {
+                    names.add(layers.getName(layer));
+                }
+                result.add(names);
+            }
+            return result;
+        }
+
+        private void report(int edge, int layer, int otherLayer, List<String> via) {
+            final Dependency dependency = graph.getDependency(edge);
+            final LayerViolation violation = new LayerViolation(dependency.getSourceFile(),
+                    dependency.getSourceRoot(),
+                    dependency.getImportStatement().getLine(),
+                    dependency.getImportStatement().getImportName(),
+                    layers.getName(layer),
+                    layers.getName(otherLayer),
+                    via);
+            LOGGER.debug("Found layer violation: {}", violation);
+            if (dependency.isTestCode()) {
+                testViolations.add(violation);
+            } else {
+                srcViolations.add(violation);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
+
+/**
+ * An import through which a layer depends on another layer that it must not depend on.
+ * If the dependency is transitive, the packages through which it goes are listed by
+ * {@link #getVia()}.
+ *
+ * @since 1.1.0
+ */
+public final class LayerViolation {
+
+    private final Path sourceFile;
+    // only carried along for formatting purposes, not part of equals/hashCode
+    private final Path sourceRoot;
+    private final int importLine;
+    private final String importName;
+    private final String layer;
+    private final String dependsOn;
+    private final List<String> via;
+
+    LayerViolation(Path sourceFile, Path sourceRoot, int importLine, String importName, String layer,
+            String dependsOn, List<String> via) {
+        this.sourceFile = sourceFile;
+        this.sourceRoot = sourceRoot;
+        this.importLine = importLine;
+        this.importName = importName;
+        this.layer = layer;
+        this.dependsOn = dependsOn;
+        this.via = via;
+    }
+
+    /**
+     * The source file containing the import.
+     *
+     * @return The source file.
+     */
+    public Path getSourceFile() {
+        return this.sourceFile;
+    }
+
+    /**
+     * The source root directory in which the source file has been found.
+     *
+     * @return The root directory or an empty optional if the root is unknown.
+     */
+    public Optional<Path> getSourceRoot() {
+        return Optional.ofNullable(this.sourceRoot);
+    }
+
+    /**
+     * The physical line of the import. Number is always 1-based or
+     * {@link ImportStatement#UNKNOWN_LINE}!
+     *
+     * @return The line number.
+     */
+    public int getImportLine() {
+        return this.importLine;
+    }
+
+    public String getImportName() {
+        return this.importName;
+    }
+
+    /**
+     * Name of the layer to which the source file belongs.
+     *
+     * @return The layer name.
+     */
+    public String getLayer() {
+        return this.layer;
+    }
+
+    /**
+     * Name of the layer on which the source file depends but must not.
+     *
+     * @return The layer name.
+     */
+    public String getDependsOn() {
+        return this.dependsOn;
+    }
+
+    /**
+     * The packages through which the dependency goes, starting with the package of the
+     * import and ending with a package of the {@link #getDependsOn() other layer}. Empty
+     * if the import directly refers to the other layer.
+     *
+     * @return The packages.
+     */
+    public List<String> getVia() {
+        return this.via;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceFile, importLine, importName, layer, dependsOn, via);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof LayerViolation
+                && Objects.equals(sourceFile, ((LayerViolation) obj).sourceFile)
+                && importLine == ((LayerViolation) obj).importLine
+                && Objects.equals(importName, ((LayerViolation) obj).importName)
+                && Objects.equals(layer, ((LayerViolation) obj).layer)
+                && Objects.equals(dependsOn, ((LayerViolation) obj).dependsOn)
+                && Objects.equals(via, ((LayerViolation) obj).via);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("sourceFile", this.sourceFile)
+                .add("sourceRoot", this.sourceRoot)
+                .add("importLine", this.importLine)
+                .add("importName", this.importName)
+                .add("layer", this.layer)
+                .add("dependsOn", this.dependsOn)
+                .add("via", this.via)
+                .toString();
+    }
+}
@@ -0,0 +1,194 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * The layers of a layered architecture along with the dependencies that are allowed
+ * between them. Each layer is assigned a dense integer id that corresponds to its
+ * position.
+ *
+ * @since 1.1.0
+ * @see LayerAnalyzer
+ */
+public final class Layers {
+
+    private final List<Layer> layers;
+    private final boolean checkTransitiveDependencies;
+
+    // compiled forms of the above layers which are used for analysis
+    private final List<PackagePatternAutomaton> packageMatchers;
+    private final BitSet[] allowedDependencies;
+
+    private Layers(List<Layer> layers, boolean checkTransitiveDependencies) {
+        this.layers = layers;
+        this.checkTransitiveDependencies = checkTransitiveDependencies;
+        this.packageMatchers = new ArrayList<>(layers.size());
+        this.allowedDependencies = new BitSet[layers.size()];
+
+        final Map<String, Integer> layerIds = new HashMap<>();
+        for (int layerId = 0; layerId < layers.size(); ++layerId) {
+            final Layer layer = layers.get(layerId);
+            if (layerIds.put(layer.getName(), layerId) != null) {
+                throw new BannedImportDefinitionException(String.format(
+                        "There are multiple layers named '%s'", layer.getName()));
+            }
+            packageMatchers.add(new PackagePatternAutomaton(layer.getPackages()));
+        }
+        for (int layerId = 0; layerId < layers.size(); ++layerId) {
+            final Layer layer = layers.get(layerId);
+            allowedDependencies[layerId] = new BitSet(layers.size());
+            allowedDependencies[layerId].set(layerId);
+            for (final String allowed : layer.getAllowedDependencies()) {
+                final Integer allowedId = layerIds.get(allowed);
+                if (allowedId == null) {
+                    throw new BannedImportDefinitionException(String.format(
+                            "Layer '%s' may depend on unknown layer '%s'", layer.getName(), allowed));
+                }
+                allowedDependencies[layerId].set(allowedId);
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Layer> getLayers() {
+        return this.layers;
+    }
+
+    /**
+     * Whether dependencies on other layers that go through packages which do not belong
+     * to any layer are checked as well.
+     *
+     * @return Whether to check transitive dependencies.
+     */
+    public boolean isCheckTransitiveDependencies() {
+        return this.checkTransitiveDependencies;
+    }
+
+    int getLayerCount() {
+        return layers.size();
+    }
+
+    String getName(int layerId) {
+        return layers.get(layerId).getName();
+    }
+
+    /**
+     * Selects the layer with the most specific package pattern matching the given full
+     * qualified class name. All matching patterns of each layer are taken into account,
+     * so the order of the patterns within a layer does not matter. If multiple layers
+     * match equally specific, the first one wins.
+     *
+     * @param fqcn The class name.
+     * @return The layer id or -1 if the class does not belong to any layer.
+     */
+    int selectLayerFor(String fqcn) {
+        int result = -1;
+        PackagePattern resultPattern = null;
+        for (int layerId = 0; layerId < layers.size(); ++layerId) {
+            if (!packageMatchers.get(layerId).matchesAny(fqcn)) {
+                continue;
+            }
+            for (final PackagePattern pattern : layers.get(layerId).getPackages()) {
+                if (pattern.matches(fqcn)
+                        && (resultPattern == null || pattern.compareTo(resultPattern) > 0)) {
+                    result = layerId;
+                    resultPattern = pattern;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether the layer with the given id may depend on the other layer. Every layer may
+     * depend on itself.
+     *
+     * @param layerId The depending layer.
+     * @param otherLayerId The layer depended upon.
+     * @return Whether the dependency is allowed.
+     */
+    boolean mayDependOn(int layerId, int otherLayerId) {
+        return allowedDependencies[layerId].get(otherLayerId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(layers, checkTransitiveDependencies);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof Layers
+                && Objects.equals(layers, ((Layers) obj).layers)
+                && checkTransitiveDependencies == ((Layers) obj).checkTransitiveDependencies;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("layers", this.layers)
+                .add("checkTransitiveDependencies", this.checkTransitiveDependencies)
+                .toString();
+    }
+
+    public static final class Builder {
+        private final List<Layer> layers = new ArrayList<>();
+        private boolean checkTransitiveDependencies = true;
+
+        private Builder() {
+            // hidden
+        }
+
+        public Builder withLayers(Collection<Layer> layers) {
+            this.layers.addAll(layers);
+            return this;
+        }
+
+        public Builder withLayer(Layer layer) {
+            this.layers.add(layer);
+            return this;
+        }
+
+        public Builder withLayer(Layer.Builder layerBuilder) {
+            this.layers.add(layerBuilder.build());
+            return this;
+        }
+
+        /**
+         * Whether dependencies on other layers that go through packages which do not
+         * belong to any layer are checked as well. Defaults to true.
+         *
+         * @param checkTransitiveDependencies Whether to check transitive dependencies.
+         * @return This builder.
+         */
+        public Builder withCheckTransitiveDependencies(boolean checkTransitiveDependencies) {
+            this.checkTransitiveDependencies = checkTransitiveDependencies;
+            return this;
+        }
+
+        /**
+         * Assembles the {@link Layers}.
+         *
+         * @return The layers.
+         * @throws BannedImportDefinitionException If there are no layers, if layer names
+         *             are not unique or if a layer may depend on an unknown layer.
+         */
+        public Layers build() {
+            if (layers.isEmpty()) {
+                throw new BannedImportDefinitionException("There are no layers specified");
+            }
+            return new Layers(new ArrayList<>(layers), checkTransitiveDependencies);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * SPI for receiving the matches of the banned import analysis as soon as they are found.
+ * In contrast to the {@link AnalyzeResult}, matches that are passed to a listener are not
+ * retained by the analyzer. This allows to process huge amounts of matches with bounded
+ * memory.
+ *
+ * @since 1.1.0
+ */
+public interface MatchListener {
+
+    /**
+     * Creates a listener which delegates to all the given listeners in the given order.
+     *
+     * @param listeners The listeners to delegate to.
+     * @return The composite listener.
+     */
+    static MatchListener composite(MatchListener... listeners) {
+        final List<MatchListener> delegates = ImmutableList.copyOf(Arrays.asList(listeners));
+        return new MatchListener() {
+
+            @Override
+            public void matchInCompileCode(MatchedFile match) {
+                delegates.forEach(delegate -> delegate.matchInCompileCode(match));
+            }
+
+            @Override
+            public void matchInTestCode(MatchedFile match) {
+                delegates.forEach(delegate -> delegate.matchInTestCode(match));
+            }
+
+            @Override
+            public void analysisFinished(long duration) {
+                delegates.forEach(delegate -> delegate.analysisFinished(duration));
+            }
+        };
+    }
+
+    /**
+     * Called for every analyzed compile source file that contains at least one banned
+     * import.
+     *
+     * @param match The matches within that file.
+     */
+    void matchInCompileCode(MatchedFile match);
+
+    /**
+     * Called for every analyzed test source file that contains at least one banned
+     * import.
+     *
+     * @param match The matches within that file.
+     */
+    void matchInTestCode(MatchedFile match);
+
+    /**
+     * Called once after all files have been analyzed.
+     *
+     * @param duration How long the analysis took, in ms.
+     */
+    default void analysisFinished(long duration) {
+        // do nothing
+    }
+}
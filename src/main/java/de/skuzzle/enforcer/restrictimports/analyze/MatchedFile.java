@@ -7,6 +7,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Holds the matches that were found within a single source file. Instances can be
@@ -17,13 +18,25 @@ import java.util.Objects;
 public final class MatchedFile {
 
     private final Path sourceFile;
+    // only carried along for formatting purposes, not part of equals/hashCode
+    private final Path sourceRoot;
     private final List<MatchedImport> matchedImports;
     private final BannedImportGroup matchedBy;
+    // dense id of matchedBy within the analyzed BannedImportGroups, not part of
+    // equals/hashCode
+    private final int groupId;
 
-    MatchedFile(Path sourceFile, List<MatchedImport> matchedImports, BannedImportGroup matchedBy) {
+    MatchedFile(Path sourceFile, Path sourceRoot, List<MatchedImport> matchedImports, BannedImportGroup matchedBy) {
+        this(sourceFile, sourceRoot, matchedImports, matchedBy, -1);
+    }
+
+    MatchedFile(Path sourceFile, Path sourceRoot, List<MatchedImport> matchedImports, BannedImportGroup matchedBy,
+            int groupId) {
         this.sourceFile = sourceFile;
+        this.sourceRoot = sourceRoot;
         this.matchedImports = matchedImports;
         this.matchedBy = matchedBy;
+        this.groupId = groupId;
     }
 
     /**
@@ -45,6 +58,16 @@ public final class MatchedFile {
         return this.sourceFile;
     }
 
+    /**
+     * The source root directory in which the source file has been found.
+     *
+     * @return The root directory or an empty optional if the root is unknown.
+     * @since 1.1.0
+     */
+    public Optional<Path> getSourceRoot() {
+        return Optional.ofNullable(this.sourceRoot);
+    }
+
     /**
      * The matches found in this file.
      *
@@ -64,6 +87,17 @@ public final class MatchedFile {
         return this.matchedBy;
     }
 
+    /**
+     * The id of the group that caused the matches in this file within the analyzed
+     * {@link BannedImportGroups}.
+     *
+     * @return The group id or -1 if this match has not been created by an analysis.
+     * @since 1.1.0
+     */
+    int getGroupId() {
+        return this.groupId;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(sourceFile, matchedImports, matchedBy);
@@ -81,6 +115,7 @@ public final class MatchedFile {
     public String toString() {
         return MoreObjects.toStringHelper(this)
                 .add("sourceFile", this.sourceFile)
+                .add("sourceRoot", this.sourceRoot)
                 .add("matchedImports", matchedImports)
                 .add("matchedBy", matchedBy)
                 .toString();
@@ -88,6 +123,7 @@ public final class MatchedFile {
 
     public static class Builder {
         private final Path sourceFile;
+        private Path sourceRoot;
         private final List<MatchedImport> matchedImports = new ArrayList<>();
         private BannedImportGroup matchedBy;
 
@@ -96,6 +132,18 @@ public final class MatchedFile {
             this.sourceFile = sourceFile;
         }
 
+        /**
+         * Sets the source root directory in which the file has been found.
+         *
+         * @param sourceRoot The root directory.
+         * @return This builder.
+         * @since 1.1.0
+         */
+        public Builder inSourceRoot(Path sourceRoot) {
+            this.sourceRoot = sourceRoot;
+            return this;
+        }
+
         /**
          * Records a matched import within this file.
          *
@@ -130,7 +178,7 @@ public final class MatchedFile {
          */
         public MatchedFile build() {
             Preconditions.checkArgument(matchedBy != null, "matchedBy must not be null for MatchedFile %s", sourceFile);
-            return new MatchedFile(sourceFile, matchedImports, matchedBy);
+            return new MatchedFile(sourceFile, sourceRoot, matchedImports, matchedBy);
         }
     }
 }
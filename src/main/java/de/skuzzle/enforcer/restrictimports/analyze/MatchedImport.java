@@ -5,6 +5,8 @@ import com.google.common.base.Preconditions;
 
 import java.util.Objects;
 
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
+
 /**
  * Represents a single match of a banned import within a java source file.
  *
@@ -15,20 +17,29 @@ public final class MatchedImport {
     private final int importLine;
     private final String matchedString;
     private final PackagePattern matchedBy;
+    // dense id of matchedBy within the analyzed BannedImportGroups, not part of
+    // equals/hashCode
+    private final int patternId;
 
     MatchedImport(int importLine, String matchedString, PackagePattern matchedBy) {
+        this(importLine, matchedString, matchedBy, -1);
+    }
+
+    MatchedImport(int importLine, String matchedString, PackagePattern matchedBy, int patternId) {
         Preconditions.checkArgument(matchedString != null && !matchedString.isEmpty(),
                 "matched String must not be empty");
         Preconditions.checkArgument(matchedBy != null, "matchedBy should not be null");
-        Preconditions.checkArgument(importLine > 0, "line numbers should be 1-based and not start at 0");
+        Preconditions.checkArgument(importLine > 0 || importLine == ImportStatement.UNKNOWN_LINE,
+                "line numbers should be 1-based and not start at 0");
         this.importLine = importLine;
         this.matchedString = matchedString;
         this.matchedBy = matchedBy;
+        this.patternId = patternId;
     }
 
     /**
      * The physical line within the source file in which the import has been matched.
-     * Number is always 1-based!
+     * Number is always 1-based or {@link ImportStatement#UNKNOWN_LINE}!
      *
      * @return The line number of the matched imports.
      */
@@ -36,6 +47,17 @@ public final class MatchedImport {
         return this.importLine;
     }
 
+    /**
+     * Whether the physical line of this match is known. This is not the case for matches
+     * within class files.
+     *
+     * @return Whether {@link #getImportLine()} is a valid line number.
+     * @since 1.1.0
+     */
+    public boolean isImportLineKnown() {
+        return this.importLine != ImportStatement.UNKNOWN_LINE;
+    }
+
     public String getMatchedString() {
         return this.matchedString;
     }
@@ -44,6 +66,17 @@ public final class MatchedImport {
         return this.matchedBy;
     }
 
+    /**
+     * The id of the pattern that caused this match within the analyzed
+     * {@link BannedImportGroups}.
+     *
+     * @return The pattern id or -1 if this match has not been created by an analysis.
+     * @since 1.1.0
+     */
+    int getPatternId() {
+        return this.patternId;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.importLine, this.matchedString, this.matchedBy);
@@ -0,0 +1,62 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * A set of packages that depend on each other, directly or transitively. Every package of
+ * a cycle can be reached from every other package of the same cycle.
+ *
+ * @since 1.1.0
+ */
+public final class PackageCycle {
+
+    private final List<String> packages;
+    private final List<PackageDependency> dependencies;
+
+    PackageCycle(List<String> packages, List<PackageDependency> dependencies) {
+        this.packages = packages;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * The packages that form this cycle, in alphabetical order.
+     *
+     * @return The packages.
+     */
+    public List<String> getPackages() {
+        return this.packages;
+    }
+
+    /**
+     * The dependencies between the packages of this cycle. Removing dependencies from
+     * this list is the way to break the cycle.
+     *
+     * @return The dependencies.
+     */
+    public List<PackageDependency> getDependencies() {
+        return this.dependencies;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(packages, dependencies);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof PackageCycle
+                && Objects.equals(packages, ((PackageCycle) obj).packages)
+                && Objects.equals(dependencies, ((PackageCycle) obj).dependencies);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("packages", this.packages)
+                .add("dependencies", this.dependencies)
+                .toString();
+    }
+}
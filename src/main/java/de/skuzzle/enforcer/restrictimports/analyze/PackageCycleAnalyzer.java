@@ -0,0 +1,48 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+
+/**
+ * Searches the whole source tree for packages that depend on each other in a cycle.
+ *
+ * @since 1.1.0
+ */
+public interface PackageCycleAnalyzer {
+
+    /**
+     * Creates a new {@link PackageCycleAnalyzer} instance.
+     *
+     * @return The analyzer.
+     */
+    static PackageCycleAnalyzer getInstance() {
+        return new PackageCycleAnalyzerImpl(new SourceTreeAnalyzerImpl(null));
+    }
+
+    /**
+     * Creates a new {@link PackageCycleAnalyzer} instance which takes parsed files from
+     * the given cache and adds newly parsed files to it.
+     *
+     * @param parseCache The cache.
+     * @return The analyzer.
+     */
+    static PackageCycleAnalyzer getInstance(ParsedFileCache parseCache) {
+        checkArgument(parseCache != null, "parseCache must not be null");
+        return new PackageCycleAnalyzerImpl(new SourceTreeAnalyzerImpl(parseCache));
+    }
+
+    /**
+     * Builds the package dependency graph from all source files found recursively in the
+     * configured root directories and searches it for cycles. Only packages whose
+     * wildcard import (e.g. <code>com.foo.*</code>) matches any of the given base
+     * packages are taken into account.
+     *
+     * @param settings Context information for performing the analysis.
+     * @param basePackages Patterns of the packages that are checked.
+     * @return The result.
+     * @throws BannedImportDefinitionException If there are no base packages or if any of
+     *             them is static.
+     */
+    PackageCycleResult analyze(AnalyzerSettings settings, List<PackagePattern> basePackages);
+}
@@ -0,0 +1,101 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.skuzzle.enforcer.restrictimports.analyze.PackageGraph.Dependency;
+
+final class PackageCycleAnalyzerImpl implements PackageCycleAnalyzer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PackageCycleAnalyzerImpl.class);
+
+    private final SourceTreeAnalyzerImpl sourceTreeAnalyzer;
+
+    PackageCycleAnalyzerImpl(SourceTreeAnalyzerImpl sourceTreeAnalyzer) {
+        this.sourceTreeAnalyzer = sourceTreeAnalyzer;
+    }
+
+    @Override
+    public PackageCycleResult analyze(AnalyzerSettings settings, List<PackagePattern> basePackages) {
+        if (basePackages.isEmpty()) {
+            throw new BannedImportDefinitionException("There are no base packages specified");
+        }
+        if (basePackages.stream().anyMatch(PackagePattern::isStatic)) {
+            throw new BannedImportDefinitionException("Base packages must not be static");
+        }
+        final long start = System.currentTimeMillis();
+        final PackageGraph.Builder graphBuilder = PackageGraph.builder();
+        // the graph grows while the source tree is being walked
+        sourceTreeAnalyzer.parseAll(settings,
+                (root, parsedFile) -> graphBuilder.addFile(root, parsedFile, false),
+                (root, parsedFile) -> graphBuilder.addFile(root, parsedFile, true));
+        final PackageGraph graph = graphBuilder.build();
+        LOGGER.debug("Built package graph with {} packages and {} dependencies", graph.getPackageCount(),
+                graph.getTargets().length);
+
+        final PackagePatternAutomaton basePackageMatcher = new PackagePatternAutomaton(basePackages);
+        final boolean[] inScope = new boolean[graph.getPackageCount()];
+        for (int packageId = 0; packageId < inScope.length; ++packageId) {
+            inScope[packageId] = basePackageMatcher.matchesAny(graph.getWildcardImport(packageId));
+        }
+
+        // only edges between packages in scope
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final int[] scopedOffsets = new int[inScope.length + 1];
+        final int[] scopedTargets = new int[targets.length];
+        for (int packageId = 0; packageId < inScope.length; ++packageId) {
+            int edgeCount = scopedOffsets[packageId];
+            if (inScope[packageId]) {
+                for (int edge = offsets[packageId]; edge < offsets[packageId + 1]; ++edge) {
+                    if (inScope[targets[edge]]) {
+                        scopedTargets[edgeCount++] = targets[edge];
+                    }
+                }
+            }
+            scopedOffsets[packageId + 1] = edgeCount;
+        }
+
+        final StronglyConnectedComponents components = StronglyConnectedComponents.of(scopedOffsets,
+                scopedTargets);
+        final List<PackageCycle> cycles = new ArrayList<>();
+        for (int component = 0; component < components.getComponentCount(); ++component) {
+            if (components.getSize(component) > 1) {
+                cycles.add(toCycle(graph, components, component));
+            }
+        }
+        cycles.sort(Comparator.comparing(cycle -> cycle.getPackages().get(0)));
+
+        final long duration = System.currentTimeMillis() - start;
+        return new PackageCycleResult(cycles, duration);
+    }
+
+    private PackageCycle toCycle(PackageGraph graph, StronglyConnectedComponents components, int component) {
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final List<String> packages = new ArrayList<>(components.getSize(component));
+        final List<PackageDependency> dependencies = new ArrayList<>();
+        for (final int packageId : components.getMembers(component)) {
+            packages.add(graph.getPackageName(packageId));
+            for (int edge = offsets[packageId]; edge < offsets[packageId + 1]; ++edge) {
+                if (components.getComponentOf(targets[edge]) == component) {
+                    final Dependency dependency = graph.getDependency(edge);
+                    dependencies.add(new PackageDependency(graph.getPackageName(packageId),
+                            graph.getPackageName(targets[edge]),
+                            dependency.getSourceFile(),
+                            dependency.getSourceRoot(),
+                            dependency.getImportStatement().getLine(),
+                            dependency.getImportStatement().getImportName()));
+                }
+            }
+        }
+        packages.sort(null);
+        dependencies.sort(Comparator.comparing(PackageDependency::getFromPackage)
+                .thenComparing(PackageDependency::getToPackage));
+        return new PackageCycle(packages, dependencies);
+    }
+}
@@ -0,0 +1,68 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Final result of searching the code base for package cycles.
+ *
+ * @since 1.1.0
+ */
+public final class PackageCycleResult {
+
+    private final List<PackageCycle> cycles;
+    private final long duration;
+
+    PackageCycleResult(List<PackageCycle> cycles, long duration) {
+        this.cycles = cycles;
+        this.duration = duration;
+    }
+
+    /**
+     * The cycles that have been found, ordered by their first package.
+     *
+     * @return The cycles.
+     */
+    public List<PackageCycle> getCycles() {
+        return this.cycles;
+    }
+
+    /**
+     * Returns whether at least one cycle has been found.
+     *
+     * @return Whether a cycle has been found.
+     */
+    public boolean cyclesFound() {
+        return !cycles.isEmpty();
+    }
+
+    /**
+     * How long the analysis took, in ms.
+     *
+     * @return Analysis duration in ms.
+     */
+    public long getDuration() {
+        return this.duration;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cycles);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof PackageCycleResult
+                && Objects.equals(cycles, ((PackageCycleResult) obj).cycles);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("cycles", this.cycles)
+                .add("duration", this.duration)
+                .toString();
+    }
+}
@@ -0,0 +1,102 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
+
+/**
+ * A dependency from one package on another along with the first import that caused it.
+ *
+ * @since 1.1.0
+ */
+public final class PackageDependency {
+
+    private final String fromPackage;
+    private final String toPackage;
+    private final Path sourceFile;
+    // only carried along for formatting purposes, not part of equals/hashCode
+    private final Path sourceRoot;
+    private final int importLine;
+    private final String importName;
+
+    PackageDependency(String fromPackage, String toPackage, Path sourceFile, Path sourceRoot, int importLine,
+            String importName) {
+        this.fromPackage = fromPackage;
+        this.toPackage = toPackage;
+        this.sourceFile = sourceFile;
+        this.sourceRoot = sourceRoot;
+        this.importLine = importLine;
+        this.importName = importName;
+    }
+
+    public String getFromPackage() {
+        return this.fromPackage;
+    }
+
+    public String getToPackage() {
+        return this.toPackage;
+    }
+
+    /**
+     * The source file containing the import.
+     *
+     * @return The source file.
+     */
+    public Path getSourceFile() {
+        return this.sourceFile;
+    }
+
+    /**
+     * The source root directory in which the source file has been found.
+     *
+     * @return The root directory or an empty optional if the root is unknown.
+     */
+    public Optional<Path> getSourceRoot() {
+        return Optional.ofNullable(this.sourceRoot);
+    }
+
+    /**
+     * The physical line of the import. Number is always 1-based or
+     * {@link ImportStatement#UNKNOWN_LINE}!
+     *
+     * @return The line number.
+     */
+    public int getImportLine() {
+        return this.importLine;
+    }
+
+    public String getImportName() {
+        return this.importName;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fromPackage, toPackage, sourceFile, importLine, importName);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof PackageDependency
+                && Objects.equals(fromPackage, ((PackageDependency) obj).fromPackage)
+                && Objects.equals(toPackage, ((PackageDependency) obj).toPackage)
+                && Objects.equals(sourceFile, ((PackageDependency) obj).sourceFile)
+                && importLine == ((PackageDependency) obj).importLine
+                && Objects.equals(importName, ((PackageDependency) obj).importName);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("fromPackage", this.fromPackage)
+                .add("toPackage", this.toPackage)
+                .add("sourceFile", this.sourceFile)
+                .add("sourceRoot", this.sourceRoot)
+                .add("importLine", this.importLine)
+                .add("importName", this.importName)
+                .toString();
+    }
+}
@@ -0,0 +1,256 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
+import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+
+/**
+ * Import dependencies between the packages of the analyzed source files. There is an
+ * edge from package A to package B if any file in A imports a class of B. Only packages
+ * that contain at least one analyzed file are part of the graph, imports of all other
+ * packages are ignored.
+ * <p>
+ * Packages are identified by dense integer ids and the edges are stored in compressed
+ * sparse row format so that graph algorithms can work on plain arrays. For each edge the
+ * first import that caused it is retained for reporting.
+ *
+ * @since 1.1.0
+ */
+final class PackageGraph {
+
+    private final List<String> packageNames;
+    private final int[] offsets;
+    private final int[] targets;
+    private final Dependency[] dependencies;
+
+    private PackageGraph(List<String> packageNames, int[] offsets, int[] targets, Dependency[] dependencies) {
+        this.packageNames = packageNames;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.dependencies = dependencies;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The number of packages. Package ids range from 0 to this number, exclusive.
+     *
+     * @return The number of packages.
+     */
+    int getPackageCount() {
+        return packageNames.size();
+    }
+
+    String getPackageName(int packageId) {
+        return packageNames.get(packageId);
+    }
+
+    /**
+     * The wildcard import of the given package, e.g. <code>com.foo.*</code>. Package
+     * patterns are matched against it to decide whether a package as a whole is selected
+     * by them. Patterns whose last part is a wildcard select the package while patterns
+     * that name a single class never do.
+     *
+     * @param packageId The package.
+     * @return The wildcard import.
+     */
+    String getWildcardImport(int packageId) {
+        final String packageName = packageNames.get(packageId);
+        return packageName.isEmpty()
+                ? "*"
+                : packageName + ".*";
+    }
+
+    /**
+     * The edges of package <code>n</code> are stored from index <code>offsets[n]</code>
+     * (inclusive) to <code>offsets[n + 1]</code> (exclusive) within
+     * {@link #getTargets()} and {@link #getDependency(int)}.
+     *
+     * @return The offsets. Must not be modified.
+     */
+    int[] getOffsets() {
+        return this.offsets;
+    }
+
+    /**
+     * The target package of each edge.
+     *
+     * @return The targets. Must not be modified.
+     */
+    int[] getTargets() {
+        return this.targets;
+    }
+
+    /**
+     * The first import that caused the given edge.
+     *
+     * @param edge The index of the edge.
+     * @return The import.
+     */
+    Dependency getDependency(int edge) {
+        return dependencies[edge];
+    }
+
+    /**
+     * A single import of a source file.
+     */
+    static final class Dependency {
+        private final Path sourceFile;
+        private final Path sourceRoot;
+        private final boolean testCode;
+        private final ImportStatement importStatement;
+
+        private Dependency(Path sourceFile, Path sourceRoot, boolean testCode, ImportStatement importStatement) {
+            this.sourceFile = sourceFile;
+            this.sourceRoot = sourceRoot;
+            this.testCode = testCode;
+            this.importStatement = importStatement;
+        }
+
+        Path getSourceFile() {
+            return this.sourceFile;
+        }
+
+        Path getSourceRoot() {
+            return this.sourceRoot;
+        }
+
+        boolean isTestCode() {
+            return this.testCode;
+        }
+
+        ImportStatement getImportStatement() {
+            return this.importStatement;
+        }
+    }
+
+    /**
+     * Collects the parsed files from which the graph is built. Instances are thread safe
+     * so that files can be added while the source tree is still being walked.
+     */
+    static final class Builder {
+        private final Map<String, Integer> packageIds = new HashMap<>();
+        private final List<String> packageNames = new ArrayList<>();
+        private final List<SourceFile> sourceFiles = new ArrayList<>();
+
+        private Builder() {
+            // hidden
+        }
+
+        /**
+         * Adds a parsed file to the graph.
+         *
+         * @param sourceRoot The source root in which the file has been found.
+         * @param parsedFile The file.
+         * @param testCode Whether the file is test code.
+         * @return This builder.
+         */
+        synchronized Builder addFile(Path sourceRoot, ParsedFile parsedFile, boolean testCode) {
+            final String packageName = parsedFile.getDeclaredPackage();
+            Integer packageId = packageIds.get(packageName);
+            if (packageId == null) {
+                packageId = packageNames.size();
+                packageIds.put(packageName, packageId);
+                packageNames.add(packageName);
+            }
+            sourceFiles.add(new SourceFile(sourceRoot, parsedFile, testCode, packageId));
+            return this;
+        }
+
+        /**
+         * Resolves the imports of all added files to the packages of the graph.
+         *
+         * @return The graph.
+         */
+        synchronized PackageGraph build() {
+            // first dependency per edge, keyed by source package id in the upper and
+            // target package id in the lower 32 bits
+            final Map<Long, Dependency> edges = new HashMap<>();
+            for (final SourceFile sourceFile : sourceFiles) {
+                for (final ImportStatement importStatement : sourceFile.parsedFile.getImports()) {
+                    final int target = resolvePackage(importStatement.getImportName());
+                    if (target < 0 || target == sourceFile.packageId) {
+                        continue;
+                    }
+                    final long edge = ((long) sourceFile.packageId << 32) | target;
+                    edges.computeIfAbsent(edge, key -> new Dependency(sourceFile.parsedFile.getPath(),
+                            sourceFile.sourceRoot, sourceFile.testCode, importStatement));
+                }
+            }
+
+            final long[] sortedEdges = edges.keySet().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sortedEdges);
+            final int[] offsets = new int[packageNames.size() + 1];
+            final int[] targets = new int[sortedEdges.length];
+            final Dependency[] dependencies = new Dependency[sortedEdges.length];
+            for (int i = 0; i < sortedEdges.length; ++i) {
+                final int source = (int) (sortedEdges[i] >>> 32);
+                ++offsets[source + 1];
+                targets[i] = (int) sortedEdges[i];
+                dependencies[i] = edges.get(sortedEdges[i]);
+            }
+            for (int i = 0; i < packageNames.size(); ++i) {
+                offsets[i + 1] += offsets[i];
+            }
+            return new PackageGraph(new ArrayList<>(packageNames), offsets, targets, dependencies);
+        }
+
+        /**
+         * Determines the package of the class that is referenced by the given import.
+         * Trailing segments that start with an upper case letter are taken to be class
+         * names, which handles static and nested class imports.
+         *
+         * @return The package id or -1 if the import does not refer to a package of the
+         *         graph.
+         */
+        private int resolvePackage(String importName) {
+            String name = importName.startsWith("static ")
+                    ? importName.substring("static ".length())
+                    : importName;
+            name = name.endsWith(".*")
+                    ? name.substring(0, name.length() - 2)
+                    : parentOf(name);
+            while (!name.isEmpty()) {
+                final Integer packageId = packageIds.get(name);
+                if (packageId != null) {
+                    return packageId;
+                }
+                final String lastSegment = name.substring(name.lastIndexOf('.') + 1);
+                if (lastSegment.isEmpty() || !Character.isUpperCase(lastSegment.charAt(0))) {
+                    return -1;
+                }
+                name = parentOf(name);
+            }
+            return -1;
+        }
+
+        private static String parentOf(String name) {
+            final int lastDot = name.lastIndexOf('.');
+            return lastDot < 0
+                    ? ""
+                    : name.substring(0, lastDot);
+        }
+    }
+
+    private static final class SourceFile {
+        private final Path sourceRoot;
+        private final ParsedFile parsedFile;
+        private final boolean testCode;
+        private final int packageId;
+
+        private SourceFile(Path sourceRoot, ParsedFile parsedFile, boolean testCode, int packageId) {
+            this.sourceRoot = sourceRoot;
+            this.parsedFile = parsedFile;
+            this.testCode = testCode;
+            this.packageId = packageId;
+        }
+    }
+}
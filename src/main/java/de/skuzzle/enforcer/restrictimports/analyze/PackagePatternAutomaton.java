@@ -0,0 +1,350 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.skuzzle.enforcer.restrictimports.analyze.PatternTrie.Node;
+
+/**
+ * Matches package and class names against a whole list of {@link PackagePattern
+ * PackagePatterns} at once. All patterns are compiled into a single automaton whose
+ * input symbols are the dot separated parts of the name to match. Matching a name thus
+ * takes a single pass over its parts, no matter how many patterns there are.
+ * <p>
+ * The automaton is determinized lazily: every state is created the first time it is
+ * reached and transitions are cached, so names that share a prefix (like all the imports
+ * from the same package) only pay for the lookups of a hash map. Results are exactly the
+ * same as calling {@link PackagePattern#matches(String)} for every single pattern,
+ * including the non backtracking semantics of <code>**</code>.
+ * <p>
+ * Instances are thread safe.
+ *
+ * @since 1.1.0
+ */
+final class PackagePatternAutomaton {
+
+    private static final String STATIC_PREFIX = "static ";
+    private static final int NONE = -1;
+    // upper bound for the number of cached states. Once reached, further states are
+    // still computed but no longer cached
+    private static final int MAX_CACHED_STATES = 10_000;
+
+    private final List<NfaState> nfaStates = new ArrayList<>();
+    private final Map<Node, NfaState> at = new HashMap<>();
+    private final Map<Node, NfaState> restStart = new HashMap<>();
+    private final Map<Node, NfaState> rest = new HashMap<>();
+    private final Map<Node, NfaState> any = new HashMap<>();
+    private final Map<Node, NfaState> waitForQuotedStar = new HashMap<>();
+    private final Map<Node, Map<String, NfaState>> waitForLiteral = new HashMap<>();
+
+    private final ConcurrentMap<StateKey, DfaState> dfaStates = new ConcurrentHashMap<>();
+    private final DfaState staticStart;
+    private final DfaState nonStaticStart;
+
+    PackagePatternAutomaton(List<PackagePattern> patterns) {
+        final PatternTrie trie = new PatternTrie(patterns);
+        createStates(trie.root(true));
+        createStates(trie.root(false));
+
+        this.staticStart = startState(trie.root(true));
+        this.nonStaticStart = startState(trie.root(false));
+    }
+
+    /**
+     * Tests whether the given name is matched by any of the compiled patterns.
+     *
+     * @param name The package or class name to match.
+     * @return Whether a pattern matches.
+     */
+    boolean matchesAny(String name) {
+        return firstMatch(name) != NONE;
+    }
+
+    /**
+     * Finds the smallest index of the compiled patterns that matches the given name.
+     *
+     * @param name The package or class name to match.
+     * @return The index of the first matching pattern or -1 if there is none.
+     */
+    int firstMatch(String name) {
+        final boolean staticc = name.startsWith(STATIC_PREFIX);
+        final String[] parts = staticc
+                ? name.substring(STATIC_PREFIX.length()).split("\\.")
+                : name.split("\\.");
+
+        DfaState state = staticc ? staticStart : nonStaticStart;
+        for (int i = 0; i < parts.length && !state.isDead(); ++i) {
+            state = state.step(parts[i]);
+        }
+        return state.firstAccepting(parts.length);
+    }
+
+    // NFA construction
+
+    private enum Kind {
+        /** Continues with the children of a node. */
+        AT,
+        /** Trailing '**' which has not yet consumed a part. */
+        REST_START,
+        /** Trailing '**' which consumes all remaining parts. */
+        REST,
+        /** '**' followed by a literal: waits for the first occurrence of that literal. */
+        WAIT_FOR_LITERAL,
+        /** '**' followed by '*': consumes the next part, whatever it is. */
+        ANY,
+        /** '**' followed by a quoted '*': waits for the first '*' part. */
+        WAIT_FOR_QUOTED_STAR
+    }
+
+    private static final class NfaState {
+        private final int id;
+        private final Kind kind;
+        // the node for AT, the '**' node for all other kinds
+        private final Node node;
+        private final String literal;
+
+        private NfaState(int id, Kind kind, Node node, String literal) {
+            this.id = id;
+            this.kind = kind;
+            this.node = node;
+            this.literal = literal;
+        }
+    }
+
+    private NfaState newState(Kind kind, Node node, String literal) {
+        final NfaState state = new NfaState(nfaStates.size(), kind, node, literal);
+        nfaStates.add(state);
+        return state;
+    }
+
+    private void createStates(Node node) {
+        at.put(node, newState(Kind.AT, node, null));
+        node.literals.values().forEach(this::createStates);
+        if (node.star != null) {
+            createStates(node.star);
+        }
+        if (node.quotedStar != null) {
+            createStates(node.quotedStar);
+        }
+        if (node.starStar != null) {
+            createStarStarStates(node.starStar);
+        }
+    }
+
+    private void createStarStarStates(Node starStar) {
+        if (!starStar.terminals.isEmpty()) {
+            restStart.put(starStar, newState(Kind.REST_START, starStar, null));
+            rest.put(starStar, newState(Kind.REST, starStar, null));
+        }
+        final Map<String, NfaState> literals = new HashMap<>();
+        starStar.literals.forEach((literal, child) -> {
+            literals.put(literal, newState(Kind.WAIT_FOR_LITERAL, starStar, literal));
+            createStates(child);
+        });
+        waitForLiteral.put(starStar, literals);
+        if (starStar.star != null) {
+            any.put(starStar, newState(Kind.ANY, starStar, null));
+            createStates(starStar.star);
+        }
+        if (starStar.quotedStar != null) {
+            waitForQuotedStar.put(starStar, newState(Kind.WAIT_FOR_QUOTED_STAR, starStar, null));
+            createStates(starStar.quotedStar);
+        }
+        if (starStar.starStar != null) {
+            createStarStarStates(starStar.starStar);
+        }
+    }
+
+    // adds the states that are active after a part has been consumed by the given node
+    private void addReached(Node node, BitSet target) {
+        target.set(at.get(node).id);
+        if (node.starStar != null) {
+            addStarStar(node.starStar, target);
+        }
+    }
+
+    private void addStarStar(Node starStar, BitSet target) {
+        // a trailing '**' only matches if there is at least one part left
+        final NfaState restStartState = restStart.get(starStar);
+        if (restStartState != null) {
+            target.set(restStartState.id);
+        }
+        waitForLiteral.get(starStar).values().forEach(state -> target.set(state.id));
+        final NfaState anyState = any.get(starStar);
+        if (anyState != null) {
+            target.set(anyState.id);
+        }
+        final NfaState quotedStarState = waitForQuotedStar.get(starStar);
+        if (quotedStarState != null) {
+            target.set(quotedStarState.id);
+        }
+        if (starStar.starStar != null) {
+            addStarStar(starStar.starStar, target);
+        }
+    }
+
+    // part is null for any part that is neither '*' nor a literal of the source states
+    private void addSuccessors(NfaState state, String part, BitSet target) {
+        final Node node = state.node;
+        switch (state.kind) {
+        case AT:
+            final Node literal = part == null ? null : node.literals.get(part);
+            if (literal != null) {
+                addReached(literal, target);
+            }
+            if (node.star != null) {
+                addReached(node.star, target);
+            }
+            if (node.quotedStar != null && "*".equals(part)) {
+                addReached(node.quotedStar, target);
+            }
+            break;
+        case REST_START:
+        case REST:
+            target.set(rest.get(node).id);
+            break;
+        case WAIT_FOR_LITERAL:
+            if (state.literal.equals(part)) {
+                addReached(node.literals.get(part), target);
+            } else {
+                target.set(state.id);
+            }
+            break;
+        case ANY:
+            addReached(node.star, target);
+            break;
+        case WAIT_FOR_QUOTED_STAR:
+            if ("*".equals(part)) {
+                addReached(node.quotedStar, target);
+            } else {
+                target.set(state.id);
+            }
+            break;
+        default:
+            throw new IllegalStateException("Unknown state kind: " + state.kind);
+        }
+    }
+
+    // DFA construction
+
+    private DfaState startState(Node root) {
+        final BitSet start = new BitSet();
+        addReached(root, start);
+        return dfaState(start);
+    }
+
+    private DfaState dfaState(BitSet nfaStateIds) {
+        final StateKey key = new StateKey(nfaStateIds.stream().toArray());
+        final DfaState existing = dfaStates.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        final DfaState state = new DfaState(key.nfaStateIds);
+        if (dfaStates.size() >= MAX_CACHED_STATES) {
+            return state;
+        }
+        final DfaState concurrent = dfaStates.putIfAbsent(key, state);
+        return concurrent == null ? state : concurrent;
+    }
+
+    private final class DfaState {
+        private final int[] nfaStateIds;
+        // literals for which this state has a specific transition
+        private final Set<String> literals = new HashSet<>();
+        // indices of the accepted patterns in ascending order along with the length of
+        // each pattern
+        private final int[] accepting;
+        private final int[] acceptingLength;
+
+        private final ConcurrentMap<String, DfaState> transitions = new ConcurrentHashMap<>();
+        private volatile DfaState otherTransition;
+
+        private DfaState(int[] nfaStateIds) {
+            this.nfaStateIds = nfaStateIds;
+
+            final List<Node> acceptingNodes = new ArrayList<>();
+            for (final int id : nfaStateIds) {
+                final NfaState state = nfaStates.get(id);
+                if (state.kind == Kind.AT) {
+                    literals.addAll(state.node.literals.keySet());
+                    acceptingNodes.add(state.node);
+                } else if (state.kind == Kind.WAIT_FOR_LITERAL) {
+                    literals.add(state.literal);
+                } else if (state.kind == Kind.REST) {
+                    acceptingNodes.add(state.node);
+                }
+            }
+
+            final List<int[]> accepted = new ArrayList<>();
+            for (final Node node : acceptingNodes) {
+                node.terminals.forEach(index -> accepted.add(new int[] { index, node.depth }));
+            }
+            accepted.sort((a, b) -> Integer.compare(a[0], b[0]));
+            this.accepting = accepted.stream().mapToInt(a -> a[0]).toArray();
+            this.acceptingLength = accepted.stream().mapToInt(a -> a[1]).toArray();
+        }
+
+        private boolean isDead() {
+            return nfaStateIds.length == 0;
+        }
+
+        private int firstAccepting(int numberOfParts) {
+            for (int i = 0; i < accepting.length; ++i) {
+                // a pattern that is longer than the name to match can never match
+                if (acceptingLength[i] <= numberOfParts) {
+                    return accepting[i];
+                }
+            }
+            return NONE;
+        }
+
+        private DfaState step(String part) {
+            if ("*".equals(part) || literals.contains(part)) {
+                return transitions.computeIfAbsent(part, this::computeSuccessor);
+            }
+            DfaState other = otherTransition;
+            if (other == null) {
+                other = computeSuccessor(null);
+                otherTransition = other;
+            }
+            return other;
+        }
+
+        private DfaState computeSuccessor(String part) {
+            final BitSet target = new BitSet(nfaStates.size());
+            for (final int id : nfaStateIds) {
+                addSuccessors(nfaStates.get(id), part, target);
+            }
+            return dfaState(target);
+        }
+    }
+
+    private static final class StateKey {
+        private final int[] nfaStateIds;
+        private final int hashCode;
+
+        private StateKey(int[] nfaStateIds) {
+            this.nfaStateIds = nfaStateIds;
+            this.hashCode = Arrays.hashCode(nfaStateIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || obj instanceof StateKey
+                    && Arrays.equals(nfaStateIds, ((StateKey) obj).nfaStateIds);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary representation of {@link PackagePattern PackagePatterns}. Patterns are stored
+ * as their already split parts so that reading them back neither needs to split nor to
+ * validate the pattern strings again.
+ *
+ * @since 1.1.0
+ */
+final class PackagePatternCodec {
+
+    private static final int STATIC_FLAG = 1;
+
+    private PackagePatternCodec() {
+        // hidden
+    }
+
+    static void write(PackagePattern pattern, DataOutput out) throws IOException {
+        final PackagePatternImpl impl = pattern instanceof PackagePatternImpl
+                ? (PackagePatternImpl) pattern
+                : new PackagePatternImpl(pattern.toString());
+        final String[] parts = impl.getParts();
+
+        out.writeByte(impl.isStatic() ? STATIC_FLAG : 0);
+        out.writeShort(parts.length);
+        for (final String part : parts) {
+            final byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a single pattern from the current position of the given buffer.
+     *
+     * @param in The buffer to read from.
+     * @return The pattern.
+     * @throws IOException If the buffer does not contain a valid pattern at its current
+     *             position.
+     */
+    static PackagePattern read(ByteBuffer in) throws IOException {
+        try {
+            final boolean staticc = (in.get() & STATIC_FLAG) != 0;
+            final String[] parts = new String[in.getShort() & 0xFFFF];
+            byte[] buffer = new byte[64];
+            for (int i = 0; i < parts.length; ++i) {
+                final int length = in.getShort() & 0xFFFF;
+                if (length > buffer.length) {
+                    buffer = new byte[length];
+                }
+                in.get(buffer, 0, length);
+                parts[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+            }
+            if (parts.length == 0) {
+                throw new IOException("Encountered pattern without parts");
+            }
+            return new PackagePatternImpl(staticc, parts);
+        } catch (final BufferUnderflowException e) {
+            throw new IOException("Unexpected end of serialized pattern", e);
+        }
+    }
+}
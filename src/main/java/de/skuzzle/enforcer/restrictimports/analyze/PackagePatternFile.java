@@ -0,0 +1,178 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads {@link PackagePattern PackagePatterns} from plain text files containing one
+ * pattern per line. Empty lines and lines starting with <code>#</code> are ignored.
+ * <p>
+ * The parsed patterns are stored in a binary index file next to the pattern file (the
+ * name of the pattern file with an additional <code>.idx</code> extension). As long as
+ * size and modification time of the pattern file do not change, subsequent loads read
+ * the patterns from that index instead of parsing the pattern file again. Failing to
+ * write the index is not an error, the patterns will then simply be parsed again on the
+ * next load.
+ *
+ * @since 1.1.0
+ */
+public final class PackagePatternFile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PackagePatternFile.class);
+
+    static final String INDEX_EXTENSION = ".idx";
+
+    private static final int MAGIC = 0x52494958;
+    private static final short VERSION = 1;
+
+    private PackagePatternFile() {
+        // hidden
+    }
+
+    /**
+     * Loads all patterns from the given file.
+     *
+     * @param patternFile The file to read.
+     * @return The patterns in the order in which they appear in the file.
+     * @throws IOException If reading the file fails.
+     * @throws IllegalArgumentException If the file contains an invalid pattern.
+     */
+    public static List<PackagePattern> load(Path patternFile) throws IOException {
+        checkArgument(patternFile != null, "patternFile must not be null");
+
+        final BasicFileAttributes attributes = Files.readAttributes(patternFile, BasicFileAttributes.class);
+        final Path indexFile = indexFileFor(patternFile);
+        final Optional<List<PackagePattern>> indexed = readIndex(indexFile, attributes);
+        if (indexed.isPresent()) {
+            LOGGER.debug("Read {} patterns from index {}", indexed.get().size(), indexFile);
+            return indexed.get();
+        }
+
+        final List<PackagePattern> patterns = scan(patternFile);
+        LOGGER.debug("Parsed {} patterns from {}", patterns.size(), patternFile);
+        writeIndex(indexFile, attributes, patterns);
+        return patterns;
+    }
+
+    static Path indexFileFor(Path patternFile) {
+        return patternFile.resolveSibling(patternFile.getFileName() + INDEX_EXTENSION);
+    }
+
+    static List<PackagePattern> scan(Path patternFile) throws IOException {
+        final ByteBuffer content = BinaryFiles.read(patternFile);
+        skipByteOrderMark(content);
+
+        final List<PackagePattern> patterns = new ArrayList<>();
+        byte[] line = new byte[128];
+        int lineNumber = 0;
+        while (content.hasRemaining()) {
+            ++lineNumber;
+            int length = 0;
+            while (content.hasRemaining()) {
+                final byte b = content.get();
+                if (b == '\n') {
+                    break;
+                } else if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+            }
+
+            int start = 0;
+            while (start < length && isWhitespace(line[start])) {
+                ++start;
+            }
+            while (length > start && isWhitespace(line[length - 1])) {
+                --length;
+            }
+            if (start == length || line[start] == '#') {
+                continue;
+            }
+
+            final String pattern = new String(line, start, length - start, StandardCharsets.UTF_8);
+            try {
+                patterns.add(PackagePattern.parse(pattern));
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Invalid pattern in %s, line %d: %s",
+                        patternFile, lineNumber, e.getMessage()), e);
+            }
+        }
+        return patterns;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static void skipByteOrderMark(ByteBuffer content) {
+        if (content.remaining() >= 3
+                && content.get(0) == (byte) 0xEF
+                && content.get(1) == (byte) 0xBB
+                && content.get(2) == (byte) 0xBF) {
+            content.position(3);
+        }
+    }
+
+    private static Optional<List<PackagePattern>> readIndex(Path indexFile, BasicFileAttributes attributes) {
+        if (!Files.isRegularFile(indexFile)) {
+            return Optional.empty();
+        }
+
+        try {
+            final ByteBuffer in = BinaryFiles.read(indexFile);
+            if (in.remaining() < 26
+                    || in.getInt() != MAGIC
+                    || in.getShort() != VERSION
+                    || in.getLong() != attributes.size()
+                    || in.getLong() != attributes.lastModifiedTime().toMillis()) {
+                LOGGER.debug("Index {} is outdated", indexFile);
+                return Optional.empty();
+            }
+
+            final int count = in.getInt();
+            if (count < 0 || count > in.remaining()) {
+                throw new IOException("Invalid number of patterns: " + count);
+            }
+            final List<PackagePattern> patterns = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                patterns.add(PackagePatternCodec.read(in));
+            }
+            return Optional.of(Collections.unmodifiableList(patterns));
+        } catch (final IOException e) {
+            LOGGER.debug("Could not read index {}", indexFile, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void writeIndex(Path indexFile, BasicFileAttributes attributes, List<PackagePattern> patterns) {
+        try {
+            BinaryFiles.writeAtomically(indexFile, out -> {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(attributes.size());
+                out.writeLong(attributes.lastModifiedTime().toMillis());
+                out.writeInt(patterns.size());
+                for (final PackagePattern pattern : patterns) {
+                    PackagePatternCodec.write(pattern, out);
+                }
+            });
+            LOGGER.debug("Wrote pattern index {}", indexFile);
+        } catch (final IOException e) {
+            LOGGER.debug("Could not write pattern index {}", indexFile, e);
+        }
+    }
+}
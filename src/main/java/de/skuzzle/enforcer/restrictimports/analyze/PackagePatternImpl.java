@@ -19,6 +19,18 @@ final class PackagePatternImpl implements PackagePattern {
         checkParts(s, this.parts);
     }
 
+    /**
+     * Creates a pattern from already validated parts, e.g. when reading a pattern that
+     * has been written by {@link PackagePatternCodec}.
+     *
+     * @param staticc Whether this is a static pattern.
+     * @param parts The parts of the pattern.
+     */
+    PackagePatternImpl(boolean staticc, String[] parts) {
+        this.staticc = staticc;
+        this.parts = parts;
+    }
+
     private void checkParts(String full, String[] parts) {
         if (full.startsWith(".") || full.endsWith(".")) {
             throw new IllegalArgumentException(String.format("The pattern '%s' contains an empty part", full));
@@ -179,6 +191,35 @@ final class PackagePatternImpl implements PackagePattern {
         return (int) Arrays.stream(arr).filter(s::equals).count();
     }
 
+    /**
+     * Direct access to the parsed parts of this pattern. The returned array must not be
+     * modified.
+     *
+     * @return The parts.
+     */
+    String[] getParts() {
+        return parts;
+    }
+
+    /**
+     * The literal parts of this pattern before the first wildcard. If the pattern
+     * contains a wildcard, the prefix ends with a dot. Names matched by this pattern
+     * always start with the prefix.
+     *
+     * @return The prefix. Empty if the pattern starts with a wildcard.
+     * @since 1.1.0
+     */
+    String getLiteralPrefix() {
+        final StringBuilder prefix = new StringBuilder();
+        for (final String part : parts) {
+            if ("*".equals(part) || "**".equals(part) || "'*'".equals(part)) {
+                return prefix.toString();
+            }
+            prefix.append(part).append('.');
+        }
+        return prefix.substring(0, prefix.length() - 1);
+    }
+
     @Override
     public boolean isStatic() {
         return staticc;
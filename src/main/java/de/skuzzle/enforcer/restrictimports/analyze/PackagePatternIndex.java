@@ -0,0 +1,136 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.List;
+
+import de.skuzzle.enforcer.restrictimports.analyze.PatternTrie.Node;
+
+/**
+ * Trie over the parts of a list of {@link PackagePattern PackagePatterns} which allows to
+ * find all patterns that match a given pattern without comparing it to every single
+ * pattern in the list. Used to validate big banned import groups in near linear time.
+ * <p>
+ * Lookups yield exactly the same results as calling {@link PackagePattern#matches}
+ * for every pattern of the list. This includes the non backtracking semantics of the
+ * <code>**</code> wildcard.
+ *
+ * @since 1.1.0
+ */
+final class PackagePatternIndex {
+
+    private static final int NONE = -1;
+
+    private final PatternTrie trie;
+
+    PackagePatternIndex(List<PackagePattern> patterns) {
+        this.trie = new PatternTrie(patterns);
+    }
+
+    /**
+     * Tests whether any of the indexed patterns matches the given pattern.
+     *
+     * @param pattern The pattern to test.
+     * @return Whether it is matched by at least one indexed pattern.
+     */
+    boolean anyMatches(PackagePattern pattern) {
+        return firstMatching(pattern, NONE) != NONE;
+    }
+
+    /**
+     * Finds the indexed pattern with the smallest index that matches the given pattern.
+     *
+     * @param pattern The pattern to test.
+     * @param excludeIndex Index of a pattern that should be ignored or -1.
+     * @return The index of the first pattern that matches or -1 if there is none.
+     */
+    int firstMatching(PackagePattern pattern, int excludeIndex) {
+        final PackagePatternImpl impl = PatternTrie.asImpl(pattern);
+        final Lookup lookup = new Lookup(impl.getParts(), excludeIndex);
+        lookup.visit(trie.root(impl.isStatic()), 0);
+        return lookup.result;
+    }
+
+    private static final class Lookup {
+        private final String[] matchParts;
+        private final int excludeIndex;
+        private int result = NONE;
+
+        private Lookup(String[] matchParts, int excludeIndex) {
+            this.matchParts = matchParts;
+            this.excludeIndex = excludeIndex;
+        }
+
+        private void collect(Node node) {
+            // a pattern that is longer than the string to match can never match
+            if (node.depth > matchParts.length) {
+                return;
+            }
+            for (final int index : node.terminals) {
+                if (index != excludeIndex) {
+                    if (result == NONE || index < result) {
+                        result = index;
+                    }
+                    return;
+                }
+            }
+        }
+
+        // node has consumed the first 'matchIndex' match parts
+        private void visit(Node node, int matchIndex) {
+            if (matchIndex == matchParts.length) {
+                collect(node);
+                return;
+            }
+
+            final String matchPart = matchParts[matchIndex];
+            final Node literal = node.literals.get(matchPart);
+            if (literal != null) {
+                visit(literal, matchIndex + 1);
+            }
+            if (node.star != null) {
+                visit(node.star, matchIndex + 1);
+            }
+            if (node.quotedStar != null && "*".equals(matchPart)) {
+                visit(node.quotedStar, matchIndex + 1);
+            }
+            if (node.starStar != null) {
+                visitStarStar(node.starStar, matchIndex);
+            }
+        }
+
+        // '**' consumes all remaining parts if it is the last pattern part, otherwise it
+        // skips to the first match part that is matched by the next pattern part
+        private void visitStarStar(Node node, int matchIndex) {
+            collect(node);
+
+            for (int i = matchIndex; i < matchParts.length; ++i) {
+                final Node literal = node.literals.get(matchParts[i]);
+                if (literal != null && firstOccurrence(matchIndex, i)) {
+                    visit(literal, i + 1);
+                }
+            }
+            if (node.star != null) {
+                visit(node.star, matchIndex + 1);
+            }
+            if (node.quotedStar != null) {
+                for (int i = matchIndex; i < matchParts.length; ++i) {
+                    if ("*".equals(matchParts[i])) {
+                        visit(node.quotedStar, i + 1);
+                        break;
+                    }
+                }
+            }
+            if (node.starStar != null) {
+                visitStarStar(node.starStar, matchIndex);
+            }
+        }
+
+        private boolean firstOccurrence(int from, int index) {
+            for (int i = from; i < index; ++i) {
+                if (matchParts[i].equals(matchParts[index])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
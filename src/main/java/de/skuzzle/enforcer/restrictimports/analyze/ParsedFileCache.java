@@ -0,0 +1,125 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+
+/**
+ * Keeps parsed files in memory so that multiple analyses of the same source tree, e.g.
+ * by several rule instances with different groups, only parse each file once. A cached
+ * file is reused for as long as its size and modification time do not change.
+ * <p>
+ * As the cached files must be usable with any groups, files are always parsed
+ * completely. Analyses using a cache thus can not stop reading a file early if no group
+ * applies to it. Instances are thread safe.
+ *
+ * @since 1.1.0
+ * @see SourceTreeAnalyzer#getInstance(ParsedFileCache)
+ */
+public final class ParsedFileCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParsedFileCache.class);
+
+    // cached files per FileParser#getCacheKey
+    private final ConcurrentMap<String, ConcurrentMap<Path, CachedFile>> parsersToFiles = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The number of times a parsed file could be taken from this cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of times a file had to be parsed because it was not cached or because it
+     * had changed.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    FileParser cached(FileParser delegate) {
+        final ConcurrentMap<Path, CachedFile> files = parsersToFiles.computeIfAbsent(delegate.getCacheKey(),
+                key -> new ConcurrentHashMap<>());
+        return new FileParser() {
+
+            @Override
+            public boolean isSupported(Path file) {
+                return delegate.isSupported(file);
+            }
+
+            @Override
+            public String getCacheKey() {
+                return delegate.getCacheKey();
+            }
+
+            @Override
+            public Optional<ParsedFile> parse(Path file, Predicate<String> fqcnFilter) {
+                final BasicFileAttributes attributes = readAttributes(file);
+                CachedFile cachedFile = files.get(file);
+                if (cachedFile != null && cachedFile.isUpToDate(attributes)) {
+                    hits.incrementAndGet();
+                } else {
+                    LOGGER.trace("Parse cache miss for {}", file);
+                    misses.incrementAndGet();
+                    cachedFile = new CachedFile(attributes, delegate.parse(file));
+                    files.put(file, cachedFile);
+                }
+
+                final ParsedFile parsedFile = cachedFile.parsedFile;
+                return fqcnFilter.test(parsedFile.getFqcn())
+                        ? Optional.of(parsedFile)
+                        : Optional.empty();
+            }
+        };
+    }
+
+    private static BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(String.format(
+                    "Encountered IOException while analyzing %s for banned imports", file), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ParsedFileCache: %d hits, %d misses", hits.get(), misses.get());
+    }
+
+    private static final class CachedFile {
+        private final FileTime lastModified;
+        private final long size;
+        private final ParsedFile parsedFile;
+
+        private CachedFile(BasicFileAttributes attributes, ParsedFile parsedFile) {
+            this.lastModified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.parsedFile = parsedFile;
+        }
+
+        private boolean isUpToDate(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified.equals(attributes.lastModifiedTime());
+        }
+    }
+}
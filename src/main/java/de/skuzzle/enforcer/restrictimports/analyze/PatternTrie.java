@@ -0,0 +1,78 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie over the parts of a list of {@link PackagePattern PackagePatterns}. Static and
+ * non-static patterns are kept in separate tries as they can never match each other.
+ * Every node remembers the indices of the patterns that end in that node.
+ *
+ * @since 1.1.0
+ */
+final class PatternTrie {
+
+    private final Node staticRoot = new Node(0);
+    private final Node nonStaticRoot = new Node(0);
+
+    PatternTrie(List<? extends PackagePattern> patterns) {
+        for (int i = 0; i < patterns.size(); ++i) {
+            final PackagePatternImpl pattern = asImpl(patterns.get(i));
+            Node node = root(pattern.isStatic());
+            for (final String part : pattern.getParts()) {
+                node = node.child(part);
+            }
+            node.terminals.add(i);
+        }
+    }
+
+    static PackagePatternImpl asImpl(PackagePattern pattern) {
+        if (pattern instanceof PackagePatternImpl) {
+            return (PackagePatternImpl) pattern;
+        }
+        return new PackagePatternImpl(pattern.toString());
+    }
+
+    Node root(boolean staticc) {
+        return staticc ? staticRoot : nonStaticRoot;
+    }
+
+    static final class Node {
+        final Map<String, Node> literals = new HashMap<>();
+        // indices of the patterns ending in this node in ascending order
+        final List<Integer> terminals = new ArrayList<>(1);
+        // number of pattern parts from the root to this node
+        final int depth;
+        Node star;
+        Node starStar;
+        Node quotedStar;
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+
+        private Node child(String part) {
+            switch (part) {
+            case "*":
+                if (star == null) {
+                    star = new Node(depth + 1);
+                }
+                return star;
+            case "**":
+                if (starStar == null) {
+                    starStar = new Node(depth + 1);
+                }
+                return starStar;
+            case "'*'":
+                if (quotedStar == null) {
+                    quotedStar = new Node(depth + 1);
+                }
+                return quotedStar;
+            default:
+                return literals.computeIfAbsent(part, key -> new Node(depth + 1));
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Analyzes the whole source tree for matches of banned imports.
  *
@@ -13,7 +15,21 @@ public interface SourceTreeAnalyzer {
      * @return The analyzer.
      */
     static SourceTreeAnalyzer getInstance() {
-        return new SourceTreeAnalyzerImpl();
+        return new SourceTreeAnalyzerImpl(null);
+    }
+
+    /**
+     * Creates a new {@link SourceTreeAnalyzer} instance which takes parsed files from the
+     * given cache and adds newly parsed files to it. Analyzers sharing the same cache
+     * parse each file only once.
+     *
+     * @param parseCache The cache.
+     * @return The analyzer.
+     * @since 1.1.0
+     */
+    static SourceTreeAnalyzer getInstance(ParsedFileCache parseCache) {
+        checkArgument(parseCache != null, "parseCache must not be null");
+        return new SourceTreeAnalyzerImpl(parseCache);
     }
 
     /**
@@ -25,4 +41,16 @@ public interface SourceTreeAnalyzer {
      * @return The result of analyzing the given source files.
      */
     AnalyzeResult analyze(AnalyzerSettings settings, BannedImportGroups groups);
+
+    /**
+     * Analyzes all java classes found recursively in the given root directories for
+     * matches of banned imports. Matches are passed to the given listener as soon as they
+     * are found instead of being collected into an {@link AnalyzeResult}.
+     *
+     * @param settings Context information for performing the analysis.
+     * @param groups The banned imports.
+     * @param listener Receives the matches.
+     * @since 1.1.0
+     */
+    void analyze(AnalyzerSettings settings, BannedImportGroups groups, MatchListener listener);
 }
@@ -2,84 +2,563 @@ package de.skuzzle.enforcer.restrictimports.analyze;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
-import de.skuzzle.enforcer.restrictimports.parser.ImportStatementParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.skuzzle.enforcer.restrictimports.parser.ClassFileParser;
 import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+import de.skuzzle.enforcer.restrictimports.parser.QualifiedNameScanner;
 import de.skuzzle.enforcer.restrictimports.parser.lang.LanguageSupport;
 
 final class SourceTreeAnalyzerImpl implements SourceTreeAnalyzer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SourceTreeAnalyzerImpl.class);
+
     private final ImportAnalyzer importAnalyzer;
-    private final Predicate<Path> supportedFileTypes;
+    private final ParsedFileCache parseCache;
+    // creates the executor on which source files are read if concurrentFileReads is set
+    private final Supplier<Optional<ExecutorService>> fileReaders;
+
+    SourceTreeAnalyzerImpl(ParsedFileCache parseCache) {
+        this(parseCache, VirtualThreads::newVirtualThreadPerTaskExecutor);
+    }
 
-    SourceTreeAnalyzerImpl() {
+    SourceTreeAnalyzerImpl(ParsedFileCache parseCache, Supplier<Optional<ExecutorService>> fileReaders) {
         this.importAnalyzer = new ImportAnalyzer();
-        this.supportedFileTypes = new SourceFileMatcher();
+        this.parseCache = parseCache;
+        this.fileReaders = fileReaders;
     }
 
     @Override
     public AnalyzeResult analyze(AnalyzerSettings settings, BannedImportGroups groups) {
+        final AnalyzeResultCollector collector = new AnalyzeResultCollector();
+        analyze(settings, groups, collector);
+        return collector.getResult();
+    }
+
+    @Override
+    public void analyze(AnalyzerSettings settings, BannedImportGroups groups, MatchListener listener) {
         final long start = System.currentTimeMillis();
-        final ImportStatementParser fileParser = ImportStatementParser.defaultInstance(settings.getSourceFileCharset());
+        final BannedImportGroups resolvedGroups = resolveWildcards(settings, groups);
+        final FileParser fileParser = withParseCache(fileParserFor(settings, resolvedGroups));
+        final DirectoryLayoutFilter layoutFilter = settings.isTrustDirectoryLayout()
+                ? DirectoryLayoutFilter.forGroups(resolvedGroups)
+                : DirectoryLayoutFilter.ACCEPT_ALL;
 
-        final Collection<MatchedFile> srcMatches = analyzeDirectories(groups, fileParser, settings.getSrcDirectories());
-        final Collection<MatchedFile> testMatches = analyzeDirectories(groups, fileParser,
-                settings.getTestDirectories());
+        if (settings.getImportIndexFile().isPresent()) {
+            analyzeUsingIndex(settings, resolvedGroups, fileParser, settings.getImportIndexFile().get(), listener);
+        } else if (settings.getConcurrentFileReads() > 0
+                && analyzeOnVirtualThreads(settings, resolvedGroups, fileParser, layoutFilter, listener)) {
+            LOGGER.debug("Analyzed source files using virtual threads");
+        } else if (settings.isPipelined()) {
+            analyzeInPipeline(settings, resolvedGroups, fileParser, layoutFilter, listener);
+        } else if (settings.getParallelism() > 1) {
+            analyzeInParallel(settings, resolvedGroups, fileParser, layoutFilter, listener);
+        } else {
+            analyzeDirectories(resolvedGroups, fileParser, layoutFilter, settings.getSrcDirectories(),
+                    listener::matchInCompileCode);
+            analyzeDirectories(resolvedGroups, fileParser, layoutFilter, settings.getTestDirectories(),
+                    listener::matchInTestCode);
+        }
+
+        if (!settings.getDependencyJars().isEmpty()) {
+            new DependencyScanner(ClassFileParser.defaultInstance(), importAnalyzer, settings.getParallelism())
+                    .scan(settings.getDependencyJars(), resolvedGroups, listener::matchInCompileCode);
+        }
 
         final long stop = System.currentTimeMillis();
         final long duration = stop - start;
-        return AnalyzeResult.builder()
-                .withMatches(srcMatches)
-                .withMatchesInTestCode(testMatches)
-                .withDuration(duration)
-                .build();
+        if (parseCache != null) {
+            LOGGER.debug("{}", parseCache);
+        }
+        listener.analysisFinished(duration);
+    }
+
+    /**
+     * Enables resolution of wildcard imports for the given groups if the settings
+     * specify a classpath to resolve them against.
+     *
+     * @param settings The settings.
+     * @param groups The groups.
+     * @return The groups to match against.
+     * @since 1.1.0
+     */
+    static BannedImportGroups resolveWildcards(AnalyzerSettings settings, BannedImportGroups groups) {
+        if (settings.getWildcardClasspath().isEmpty()) {
+            return groups;
+        }
+        return groups.resolvingWildcardsWith(ClassNameIndex.of(settings.getWildcardClasspath()));
+    }
+
+    /**
+     * Parses all files of the src and test directories without matching them against
+     * any groups.
+     *
+     * @param settings Context information for performing the analysis.
+     * @param srcSink Receives the source root and the parsed file for each compile
+     *            source file.
+     * @param testSink Receives the source root and the parsed file for each test source
+     *            file.
+     * @since 1.1.0
+     */
+    void parseAll(AnalyzerSettings settings, BiConsumer<Path, ParsedFile> srcSink,
+            BiConsumer<Path, ParsedFile> testSink) {
+        final FileParser fileParser = fileParserFor(settings);
+        parseDirectories(fileParser, settings.getSrcDirectories(), srcSink);
+        parseDirectories(fileParser, settings.getTestDirectories(), testSink);
+    }
+
+    private void parseDirectories(FileParser fileParser, Iterable<Path> directories,
+            BiConsumer<Path, ParsedFile> sink) {
+        for (final Path root : directories) {
+            try (Stream<Path> sourceFiles = listFiles(root, fileParser::isSupported,
+                    DirectoryLayoutFilter.ACCEPT_ALL)) {
+                sourceFiles.forEach(sourceFile -> sink.accept(root, fileParser.parse(sourceFile)));
+            }
+        }
+    }
+
+    private FileParser fileParserFor(AnalyzerSettings settings) {
+        return withParseCache(settings.isAnalyzeClassFiles()
+                ? FileParser.forClassFiles()
+                : FileParser.forSourceFiles(settings.getSourceFileCharset()));
+    }
+
+    /**
+     * Creates the parser for analyzing the files against the given groups. If
+     * {@link AnalyzerSettings#isDetectFullyQualifiedReferences()} is set, the parser
+     * scans source files for references that start with the literal prefix of any banned
+     * import. If an import index is used, the parser records all references instead, so
+     * that the index stays valid when the banned imports change. The index applies the
+     * literal prefixes while matching, so that both ways find the same references.
+     *
+     * @param settings The settings.
+     * @param groups The groups.
+     * @return The parser.
+     * @since 1.1.0
+     */
+    static FileParser fileParserFor(AnalyzerSettings settings, BannedImportGroups groups) {
+        if (settings.isAnalyzeClassFiles()) {
+            return FileParser.forClassFiles();
+        }
+        if (settings.isDetectFullyQualifiedReferences() && settings.getImportIndexFile().isPresent()) {
+            return FileParser.forSourceFiles(settings.getSourceFileCharset(), QualifiedNameScanner.forAllNames());
+        }
+        final Set<String> prefixes = groups.getLiteralPrefixesOfBannedImports();
+        if (!settings.isDetectFullyQualifiedReferences() || prefixes.isEmpty()) {
+            return FileParser.forSourceFiles(settings.getSourceFileCharset());
+        }
+        LOGGER.debug("Scanning source files for references starting with {}", prefixes);
+        return FileParser.forSourceFiles(settings.getSourceFileCharset(),
+                QualifiedNameScanner.forPrefixes(prefixes));
+    }
+
+    private FileParser withParseCache(FileParser fileParser) {
+        return parseCache == null
+                ? fileParser
+                : parseCache.cached(fileParser);
     }
 
-    private Collection<MatchedFile> analyzeDirectories(BannedImportGroups groups, ImportStatementParser fileParser,
-            Iterable<Path> directories) {
-        final Collection<MatchedFile> matchedFiles = new ArrayList<>();
+    private void analyzeDirectories(BannedImportGroups groups, FileParser fileParser,
+            DirectoryLayoutFilter layoutFilter, Iterable<Path> directories, Consumer<MatchedFile> matchSink) {
         for (final Path srcDir : directories) {
-            try (Stream<Path> sourceFiles = listFiles(srcDir, supportedFileTypes)) {
+            try (Stream<Path> sourceFiles = listFiles(srcDir, fileParser::isSupported, layoutFilter)) {
                 sourceFiles
-                        .map(parseFileUsing(fileParser))
-                        .map(analyzeAgainst(groups))
+                        .map(parseFileUsing(fileParser, groups))
                         .filter(Optional::isPresent)
                         .map(Optional::get)
-                        .forEach(matchedFiles::add);
+                        .map(analyzeAgainst(groups, srcDir))
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .forEach(matchSink);
+            }
+        }
+    }
+
+    /**
+     * Brings the persisted import index up to date and matches the groups against it.
+     * Only files that changed since the index has been written are parsed. As the index
+     * must be usable with any groups, the directory layout filter is not applied.
+     */
+    private void analyzeUsingIndex(AnalyzerSettings settings, BannedImportGroups groups, FileParser fileParser,
+            Path indexFile, MatchListener listener) {
+        final ImportIndex index = ImportIndex.read(indexFile, fileParser.getCacheKey(),
+                indexFile.getFileSystem());
+        final Set<Path> existingFiles = new HashSet<>();
+        final int parsed = refreshIndex(index, fileParser, settings.getSrcDirectories(), false, existingFiles)
+                + refreshIndex(index, fileParser, settings.getTestDirectories(), true, existingFiles);
+        final int removed = index.retainAll(existingFiles);
+        LOGGER.debug("Import index {}: parsed {} files, removed {} files, {} distinct imports in {} files",
+                indexFile, parsed, removed, index.getImportCount(), index.getFileCount());
+
+        if (parsed > 0 || removed > 0 || !Files.exists(indexFile)) {
+            try {
+                Files.createDirectories(indexFile.toAbsolutePath().getParent());
+                index.write(indexFile);
+            } catch (final IOException e) {
+                // the index only speeds up the next run
+                LOGGER.warn("Could not write import index {}", indexFile, e);
+            }
+        }
+        index.match(groups, listener::matchInCompileCode, listener::matchInTestCode);
+    }
+
+    private int refreshIndex(ImportIndex index, FileParser fileParser, Iterable<Path> directories,
+            boolean testCode, Set<Path> existingFiles) {
+        int parsed = 0;
+        for (final Path root : directories) {
+            try (Stream<Path> sourceFiles = listFiles(root, fileParser::isSupported,
+                    DirectoryLayoutFilter.ACCEPT_ALL)) {
+                final Iterator<Path> it = sourceFiles.iterator();
+                while (it.hasNext()) {
+                    final Path sourceFile = it.next();
+                    // files that are contained in multiple roots are only indexed once
+                    if (existingFiles.add(sourceFile) && index.refresh(root, sourceFile, testCode, fileParser)) {
+                        ++parsed;
+                    }
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Encountered IOException while indexing files of " + root, e);
+            }
+        }
+        return parsed;
+    }
+
+    private void analyzeInParallel(AnalyzerSettings settings, BannedImportGroups groups,
+            FileParser fileParser, DirectoryLayoutFilter layoutFilter, MatchListener listener) {
+        // matches are reported from multiple threads but listeners need not be thread safe
+        final Object listenerLock = new Object();
+        final Consumer<MatchedFile> srcSink = synchronizedSink(listenerLock, listener::matchInCompileCode);
+        final Consumer<MatchedFile> testSink = synchronizedSink(listenerLock, listener::matchInTestCode);
+
+        // all roots go into the same pool so that idle workers can steal work from
+        // other roots
+        final List<DirectoryTask> rootTasks = new ArrayList<>();
+        settings.getSrcDirectories().forEach(srcDir -> rootTasks.add(
+                new DirectoryTask(srcDir, srcDir, groups, fileParser, layoutFilter, srcSink)));
+        settings.getTestDirectories().forEach(testDir -> rootTasks.add(
+                new DirectoryTask(testDir, testDir, groups, fileParser, layoutFilter, testSink)));
+
+        final ForkJoinPool pool = new ForkJoinPool(settings.getParallelism());
+        try {
+            pool.invoke(new RecursiveAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    invokeAll(rootTasks);
+                }
+            });
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void analyzeInPipeline(AnalyzerSettings settings, BannedImportGroups groups,
+            FileParser fileParser, DirectoryLayoutFilter layoutFilter, MatchListener listener) {
+        final AnalyzerPipeline pipeline = new AnalyzerPipeline(
+                settings.getParserThreads(),
+                settings.getMatcherThreads(),
+                settings.getPipelineQueueCapacity(),
+                parseFileUsing(fileParser, groups),
+                (root, parsedFile) -> importAnalyzer.matchFile(root, parsedFile, groups));
+
+        pipeline.start();
+        try {
+            submitAll(pipeline, fileParser, layoutFilter, settings.getSrcDirectories(),
+                    listener::matchInCompileCode);
+            submitAll(pipeline, fileParser, layoutFilter, settings.getTestDirectories(),
+                    listener::matchInTestCode);
+        } catch (final RuntimeException | Error e) {
+            // the walk failed: the pipeline must still be shut down, but its own failure
+            // must not hide the original one
+            try {
+                pipeline.finish();
+            } catch (final RuntimeException | Error finishFailure) {
+                e.addSuppressed(finishFailure);
+            }
+            throw e;
+        }
+        pipeline.finish();
+    }
+
+    private void submitAll(AnalyzerPipeline pipeline, FileParser fileParser, DirectoryLayoutFilter layoutFilter,
+            Iterable<Path> directories, Consumer<MatchedFile> matchSink) {
+        for (final Path root : directories) {
+            try (Stream<Path> sourceFiles = listFiles(root, fileParser::isSupported, layoutFilter)) {
+                final Iterator<Path> it = sourceFiles.iterator();
+                while (it.hasNext() && pipeline.submit(root, it.next(), matchSink)) {
+                    // keep walking
+                }
+            }
+        }
+    }
+
+    private static Consumer<MatchedFile> synchronizedSink(Object lock, Consumer<MatchedFile> sink) {
+        return match -> {
+            synchronized (lock) {
+                sink.accept(match);
+            }
+        };
+    }
+
+    /**
+     * Reads and parses every source file on its own virtual thread while matching the
+     * parsed files against the groups on a small pool of platform threads. The number of
+     * files that are processed at the same time is limited by
+     * {@link AnalyzerSettings#getConcurrentFileReads()}.
+     *
+     * @return Whether the analysis has been performed. Returns false if the running JDK
+     *         does not support virtual threads.
+     */
+    private boolean analyzeOnVirtualThreads(AnalyzerSettings settings, BannedImportGroups groups,
+            FileParser fileParser, DirectoryLayoutFilter layoutFilter, MatchListener listener) {
+        final Optional<ExecutorService> virtualThreads = fileReaders.get();
+        if (!virtualThreads.isPresent()) {
+            LOGGER.debug("Falling back to platform threads for reading source files");
+            return false;
+        }
+
+        final Object listenerLock = new Object();
+        final ExecutorService readers = virtualThreads.get();
+        final ExecutorService matchers = Executors.newFixedThreadPool(settings.getParallelism());
+        final VirtualThreadPipeline pipeline = new VirtualThreadPipeline(groups, fileParser, layoutFilter,
+                readers, matchers, settings.getConcurrentFileReads());
+        try {
+            for (final Path srcDir : settings.getSrcDirectories()) {
+                pipeline.submit(srcDir, synchronizedSink(listenerLock, listener::matchInCompileCode));
+            }
+            for (final Path testDir : settings.getTestDirectories()) {
+                pipeline.submit(testDir, synchronizedSink(listenerLock, listener::matchInTestCode));
+            }
+        } finally {
+            // even if walking the files failed, files in flight must not reach the
+            // listener after this method returned
+            pipeline.awaitQuiescence();
+            readers.shutdown();
+            matchers.shutdown();
+        }
+        pipeline.rethrowFailure();
+        return true;
+    }
+
+    private final class VirtualThreadPipeline {
+        private final BannedImportGroups groups;
+        private final FileParser fileParser;
+        private final DirectoryLayoutFilter layoutFilter;
+        private final ExecutorService readers;
+        private final ExecutorService matchers;
+        private final int maxConcurrentFiles;
+        private final Semaphore permits;
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        private VirtualThreadPipeline(BannedImportGroups groups, FileParser fileParser,
+                DirectoryLayoutFilter layoutFilter, ExecutorService readers, ExecutorService matchers,
+                int maxConcurrentFiles) {
+            this.groups = groups;
+            this.fileParser = fileParser;
+            this.layoutFilter = layoutFilter;
+            this.readers = readers;
+            this.matchers = matchers;
+            this.maxConcurrentFiles = maxConcurrentFiles;
+            this.permits = new Semaphore(maxConcurrentFiles);
+        }
+
+        private void submit(Path root, Consumer<MatchedFile> matchSink) {
+            final Function<Path, Optional<ParsedFile>> parser = parseFileUsing(fileParser, groups);
+            final Function<ParsedFile, Optional<MatchedFile>> analyzer = analyzeAgainst(groups, root);
+            try (Stream<Path> sourceFiles = listFiles(root, fileParser::isSupported, layoutFilter)) {
+                final Iterator<Path> it = sourceFiles.iterator();
+                while (it.hasNext() && failure.get() == null) {
+                    final Path sourceFile = it.next();
+                    permits.acquireUninterruptibly();
+                    try {
+                        CompletableFuture
+                                .supplyAsync(() -> parser.apply(sourceFile), readers)
+                                .thenApplyAsync(parsedFile -> parsedFile.flatMap(analyzer), matchers)
+                                .whenComplete((match, e) -> {
+                                    try {
+                                        if (e != null) {
+                                            failure.compareAndSet(null, unwrap(e));
+                                        } else {
+                                            match.ifPresent(matchSink);
+                                        }
+                                    } catch (final RuntimeException sinkFailure) {
+                                        failure.compareAndSet(null, sinkFailure);
+                                    } finally {
+                                        permits.release();
+                                    }
+                                });
+                    } catch (final RuntimeException e) {
+                        // the file has not been submitted
+                        permits.release();
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        private void awaitQuiescence() {
+            // all permits are available again once every submitted file is done
+            permits.acquireUninterruptibly(maxConcurrentFiles);
+            permits.release(maxConcurrentFiles);
+        }
+
+        private void rethrowFailure() {
+            final RuntimeException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        private RuntimeException unwrap(Throwable e) {
+            final Throwable cause = e instanceof CompletionException && e.getCause() != null
+                    ? e.getCause()
+                    : e;
+            return cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new IllegalStateException("Unexpected exception while analyzing source files", cause);
+        }
+    }
+
+    /**
+     * Analyzes the files of a single directory and forks a new task for each sub
+     * directory.
+     */
+    private final class DirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path directory;
+        private final transient Path root;
+        private final transient BannedImportGroups groups;
+        private final transient FileParser fileParser;
+        private final transient DirectoryLayoutFilter layoutFilter;
+        private final transient Consumer<MatchedFile> matchSink;
+
+        private DirectoryTask(Path directory, Path root, BannedImportGroups groups,
+                FileParser fileParser, DirectoryLayoutFilter layoutFilter,
+                Consumer<MatchedFile> matchSink) {
+            this.directory = directory;
+            this.root = root;
+            this.groups = groups;
+            this.fileParser = fileParser;
+            this.layoutFilter = layoutFilter;
+            this.matchSink = matchSink;
+        }
+
+        @Override
+        protected void compute() {
+            if (!Files.isDirectory(directory)) {
+                return;
+            }
+
+            final List<DirectoryTask> subDirectories = new ArrayList<>();
+            final List<Path> sourceFiles = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (final Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        if (layoutFilter.acceptsDirectory(root, entry)) {
+                            subDirectories.add(
+                                    new DirectoryTask(entry, root, groups, fileParser, layoutFilter, matchSink));
+                        }
+                    } else if (fileParser.isSupported(entry) && layoutFilter.acceptsFile(root, entry)) {
+                        sourceFiles.add(entry);
+                    }
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException("Encountered IOException while listing files of " + directory, e);
+            }
+
+            // fork the sub directories first so that other workers can steal them while
+            // we are busy with the files of this directory
+            subDirectories.forEach(DirectoryTask::fork);
+            final Function<Path, Optional<ParsedFile>> parser = parseFileUsing(fileParser, groups);
+            final Function<ParsedFile, Optional<MatchedFile>> analyzer = analyzeAgainst(groups, root);
+            for (final Path sourceFile : sourceFiles) {
+                parser.apply(sourceFile).flatMap(analyzer).ifPresent(matchSink);
+            }
+            for (int i = subDirectories.size() - 1; i >= 0; --i) {
+                subDirectories.get(i).join();
             }
         }
-        return matchedFiles;
     }
 
-    private Function<Path, ParsedFile> parseFileUsing(ImportStatementParser parser) {
-        return sourceFile -> parser.parse(sourceFile, getLanguageSupport(sourceFile));
+    // files for which no group is selected are discarded before their imports are read
+    private Function<Path, Optional<ParsedFile>> parseFileUsing(FileParser parser,
+            BannedImportGroups groups) {
+        return sourceFile -> parser.parse(sourceFile, fqcn -> groups.selectGroupFor(fqcn).isPresent());
     }
 
-    private Function<ParsedFile, Optional<MatchedFile>> analyzeAgainst(BannedImportGroups groups) {
-        return parsedFile -> importAnalyzer.matchFile(parsedFile, groups);
+    private Function<ParsedFile, Optional<MatchedFile>> analyzeAgainst(BannedImportGroups groups, Path srcDir) {
+        return parsedFile -> importAnalyzer.matchFile(srcDir, parsedFile, groups);
     }
 
-    private Stream<Path> listFiles(Path root, Predicate<Path> filter) {
+    private Stream<Path> listFiles(Path root, Predicate<Path> filter, DirectoryLayoutFilter layoutFilter) {
         try {
             if (!Files.exists(root)) {
                 return Stream.empty();
+            } else if (layoutFilter == DirectoryLayoutFilter.ACCEPT_ALL) {
+                return Files.find(root, Integer.MAX_VALUE, (path, bfa) -> filter.test(path));
             }
 
-            return Files.find(root, Integer.MAX_VALUE, (path, bfa) -> filter.test(path));
+            // Files.find can not skip whole sub trees
+            final List<Path> result = new ArrayList<>();
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (layoutFilter.acceptsDirectory(root, dir)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    LOGGER.trace("Skipping {} as it can not contain classes that are subject to analysis", dir);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (filter.test(file) && layoutFilter.acceptsFile(root, file)) {
+                        result.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return result.stream();
         } catch (final IOException e) {
             throw new UncheckedIOException("Encountered IOException while listing files of " + root, e);
         }
     }
 
-    private LanguageSupport getLanguageSupport(Path sourceFile) {
+    static LanguageSupport getLanguageSupport(Path sourceFile) {
         final String extension = getFileExtension(sourceFile);
         return LanguageSupport.getLanguageSupport(extension)
                 .orElseThrow(() -> new IllegalArgumentException(String.format(
@@ -87,7 +566,7 @@ final class SourceTreeAnalyzerImpl implements SourceTreeAnalyzer {
                         extension, sourceFile)));
     }
 
-    private boolean isFile(Path path) {
+    private static boolean isFile(Path path) {
         return !Files.isDirectory(path);
     }
 
@@ -95,7 +574,7 @@ final class SourceTreeAnalyzerImpl implements SourceTreeAnalyzer {
      * Predicate that matches source files for which a {@link LanguageSupport}
      * implementation is known.
      */
-    private class SourceFileMatcher implements Predicate<Path> {
+    static class SourceFileMatcher implements Predicate<Path> {
 
         @Override
         public boolean test(Path path) {
@@ -108,7 +587,7 @@ final class SourceTreeAnalyzerImpl implements SourceTreeAnalyzer {
         }
     }
 
-    private String getFileExtension(Path path) {
+    private static String getFileExtension(Path path) {
         final String fileName = path.getFileName().toString();
         final int index = fileName.lastIndexOf(".");
 
@@ -0,0 +1,37 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Long running variant of the {@link SourceTreeAnalyzer} which keeps the analysis result
+ * of a source tree up to date by watching the analyzed directories for changes. Only
+ * files that have been created or modified since the last query are parsed again, so
+ * querying the current violations does not need to walk the whole source tree.
+ *
+ * @since 1.1.0
+ */
+public interface SourceTreeWatcher extends Closeable {
+
+    /**
+     * Starts watching the directories defined by the given settings. The whole source
+     * tree is analyzed once before this method returns.
+     *
+     * @param settings Context information for performing the analysis.
+     * @param groups The banned imports.
+     * @return The watcher. Must be closed by the caller once it is no longer needed.
+     * @throws IOException If registering the directories with the file system's
+     *             {@link java.nio.file.WatchService} fails.
+     */
+    static SourceTreeWatcher watch(AnalyzerSettings settings, BannedImportGroups groups) throws IOException {
+        return new SourceTreeWatcherImpl(settings, groups);
+    }
+
+    /**
+     * Applies all file system changes that occurred since the last call and returns the
+     * banned imports that are currently contained in the watched source tree.
+     *
+     * @return The current analysis result.
+     */
+    AnalyzeResult currentResult();
+}
@@ -0,0 +1,193 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+
+final class SourceTreeWatcherImpl implements SourceTreeWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SourceTreeWatcherImpl.class);
+
+    private final BannedImportGroups groups;
+    private final FileParser fileParser;
+    private final ImportAnalyzer importAnalyzer;
+    private final WatchService watchService;
+
+    private final Map<WatchKey, WatchedDirectory> watchedDirectories = new HashMap<>();
+    // sorted by path so that results are reported in a stable order
+    private final Map<Path, IndexedFile> index = new TreeMap<>();
+
+    SourceTreeWatcherImpl(AnalyzerSettings settings, BannedImportGroups groups) throws IOException {
+        this.groups = SourceTreeAnalyzerImpl.resolveWildcards(settings, groups);
+        this.fileParser = SourceTreeAnalyzerImpl.fileParserFor(settings, this.groups);
+        this.importAnalyzer = new ImportAnalyzer();
+        this.watchService = firstExisting(settings).getFileSystem().newWatchService();
+
+        for (final Path srcDir : settings.getSrcDirectories()) {
+            registerTree(srcDir, srcDir, false);
+        }
+        for (final Path testDir : settings.getTestDirectories()) {
+            registerTree(testDir, testDir, true);
+        }
+    }
+
+    private static Path firstExisting(AnalyzerSettings settings) {
+        return settings.getAllDirectories().stream()
+                .filter(Files::exists)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "None of the directories to watch exists: " + settings.getAllDirectories()));
+    }
+
+    @Override
+    public synchronized AnalyzeResult currentResult() {
+        final long start = System.currentTimeMillis();
+
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            processEvents(key);
+        }
+
+        final List<MatchedFile> srcMatches = new ArrayList<>();
+        final List<MatchedFile> testMatches = new ArrayList<>();
+        for (final IndexedFile indexedFile : index.values()) {
+            indexedFile.match.ifPresent(indexedFile.testCode
+                    ? testMatches::add
+                    : srcMatches::add);
+        }
+
+        final long stop = System.currentTimeMillis();
+        return AnalyzeResult.builder()
+                .withMatches(srcMatches)
+                .withMatchesInTestCode(testMatches)
+                .withDuration(stop - start)
+                .build();
+    }
+
+    private void processEvents(WatchKey key) {
+        final WatchedDirectory directory = watchedDirectories.get(key);
+        if (directory == null) {
+            key.cancel();
+            return;
+        }
+
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                LOGGER.debug("Missed file system events for {}, rescanning", directory.path);
+                // files that have been deleted in the meantime would otherwise be kept
+                index.keySet().removeIf(path -> path.startsWith(directory.path));
+                registerTree(directory.path, directory.root, directory.testCode);
+                continue;
+            }
+
+            final Path changed = directory.path.resolve((Path) event.context());
+            if (event.kind() == ENTRY_DELETE) {
+                LOGGER.trace("Removing {} from index", changed);
+                index.keySet().removeIf(path -> path.startsWith(changed));
+            } else if (Files.isDirectory(changed)) {
+                if (event.kind() == ENTRY_CREATE) {
+                    registerTree(changed, directory.root, directory.testCode);
+                }
+            } else if (fileParser.isSupported(changed)) {
+                indexFile(changed, directory.root, directory.testCode);
+            }
+        }
+
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private void registerTree(Path directory, Path root, boolean testCode) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    final WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+                    watchedDirectories.put(key, new WatchedDirectory(dir, root, testCode));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (fileParser.isSupported(file)) {
+                        indexFile(file, root, testCode);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encountered IOException while registering " + directory + " for changes",
+                    e);
+        }
+    }
+
+    private void indexFile(Path file, Path root, boolean testCode) {
+        LOGGER.trace("(Re-)indexing {}", file);
+        try {
+            final ParsedFile parsedFile = fileParser.parse(file);
+            final Optional<MatchedFile> match = importAnalyzer.matchFile(root, parsedFile, groups);
+            index.put(file, new IndexedFile(testCode, match));
+        } catch (final UncheckedIOException e) {
+            // file has been removed again before we were able to read it
+            LOGGER.debug("Could not read {}, removing it from index", file, e);
+            index.remove(file);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        watchedDirectories.clear();
+        index.clear();
+        watchService.close();
+    }
+
+    private static final class WatchedDirectory {
+        private final Path path;
+        private final Path root;
+        private final boolean testCode;
+
+        private WatchedDirectory(Path path, Path root, boolean testCode) {
+            this.path = path;
+            this.root = root;
+            this.testCode = testCode;
+        }
+    }
+
+    private static final class IndexedFile {
+        private final boolean testCode;
+        private final Optional<MatchedFile> match;
+
+        private IndexedFile(boolean testCode, Optional<MatchedFile> match) {
+            this.testCode = testCode;
+            this.match = match;
+        }
+    }
+}
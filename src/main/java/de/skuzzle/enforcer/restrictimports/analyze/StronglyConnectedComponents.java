@@ -0,0 +1,152 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.Arrays;
+
+/**
+ * Strongly connected components of a directed graph whose nodes are identified by dense
+ * integer ids, computed with Tarjan's algorithm in O(V + E). The algorithm is
+ * implemented iteratively so that deep graphs do not overflow the stack.
+ * <p>
+ * Components are numbered in reverse topological order: all successors of a node belong
+ * to a component with an id less than or equal to the id of the node's component. The
+ * successors of all components can thus be processed before the component itself by
+ * iterating the component ids in ascending order.
+ *
+ * @since 1.1.0
+ */
+final class StronglyConnectedComponents {
+
+    private static final int UNVISITED = -1;
+
+    private final int[] componentOf;
+    private final int[] componentOffsets;
+    private final int[] members;
+
+    private StronglyConnectedComponents(int[] componentOf, int componentCount) {
+        this.componentOf = componentOf;
+        this.componentOffsets = new int[componentCount + 1];
+        for (final int component : componentOf) {
+            ++componentOffsets[component + 1];
+        }
+        for (int i = 0; i < componentCount; ++i) {
+            componentOffsets[i + 1] += componentOffsets[i];
+        }
+        this.members = new int[componentOf.length];
+        final int[] next = Arrays.copyOf(componentOffsets, componentCount);
+        for (int node = 0; node < componentOf.length; ++node) {
+            members[next[componentOf[node]]++] = node;
+        }
+    }
+
+    /**
+     * Computes the components of the given graph.
+     *
+     * @param offsets The successors of node <code>n</code> are stored in
+     *            <code>targets</code> from index <code>offsets[n]</code> (inclusive) to
+     *            <code>offsets[n + 1]</code> (exclusive). The length of this array is the
+     *            number of nodes plus one.
+     * @param targets The successors of all nodes.
+     * @return The components.
+     */
+    static StronglyConnectedComponents of(int[] offsets, int[] targets) {
+        final int nodeCount = offsets.length - 1;
+        final int[] index = new int[nodeCount];
+        final int[] lowLink = new int[nodeCount];
+        final int[] componentOf = new int[nodeCount];
+        final boolean[] onStack = new boolean[nodeCount];
+        final int[] stack = new int[nodeCount];
+        // explicit call stack: the visited node and the position of its next successor
+        final int[] callNodes = new int[nodeCount];
+        final int[] callEdges = new int[nodeCount];
+        Arrays.fill(index, UNVISITED);
+
+        int nextIndex = 0;
+        int stackSize = 0;
+        int componentCount = 0;
+        for (int start = 0; start < nodeCount; ++start) {
+            if (index[start] != UNVISITED) {
+                continue;
+            }
+            int depth = 0;
+            callNodes[0] = start;
+            callEdges[0] = offsets[start];
+            index[start] = lowLink[start] = nextIndex++;
+            stack[stackSize++] = start;
+            onStack[start] = true;
+
+            while (depth >= 0) {
+                final int node = callNodes[depth];
+                if (callEdges[depth] < offsets[node + 1]) {
+                    final int successor = targets[callEdges[depth]++];
+                    if (index[successor] == UNVISITED) {
+                        index[successor] = lowLink[successor] = nextIndex++;
+                        stack[stackSize++] = successor;
+                        onStack[successor] = true;
+                        ++depth;
+                        callNodes[depth] = successor;
+                        callEdges[depth] = offsets[successor];
+                    } else if (onStack[successor]) {
+                        lowLink[node] = Math.min(lowLink[node], index[successor]);
+                    }
+                    continue;
+                }
+
+                // all successors of node have been visited
+                if (lowLink[node] == index[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        componentOf[member] = componentCount;
+                    } while (member != node);
+                    ++componentCount;
+                }
+                --depth;
+                if (depth >= 0) {
+                    final int parent = callNodes[depth];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+            }
+        }
+        return new StronglyConnectedComponents(componentOf, componentCount);
+    }
+
+    /**
+     * The number of components.
+     *
+     * @return The number of components.
+     */
+    int getComponentCount() {
+        return componentOffsets.length - 1;
+    }
+
+    /**
+     * The id of the component that contains the given node.
+     *
+     * @param node The node.
+     * @return The component id.
+     */
+    int getComponentOf(int node) {
+        return componentOf[node];
+    }
+
+    /**
+     * The number of nodes within the given component.
+     *
+     * @param component The component id.
+     * @return The number of nodes.
+     */
+    int getSize(int component) {
+        return componentOffsets[component + 1] - componentOffsets[component];
+    }
+
+    /**
+     * The nodes of the given component in ascending order.
+     *
+     * @param component The component id.
+     * @return The nodes.
+     */
+    int[] getMembers(int component) {
+        return Arrays.copyOfRange(members, componentOffsets[component], componentOffsets[component + 1]);
+    }
+}
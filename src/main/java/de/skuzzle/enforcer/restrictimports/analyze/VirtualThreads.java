@@ -0,0 +1,45 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access to virtual threads on JDKs that support them. As this project is compiled
+ * against Java 8, the API is accessed reflectively.
+ *
+ * @since 1.1.0
+ */
+final class VirtualThreads {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private VirtualThreads() {
+        // hidden
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     *
+     * @return The executor or an empty optional if the running JDK does not support
+     *         virtual threads.
+     */
+    static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (final NoSuchMethodException e) {
+            LOGGER.debug("Virtual threads are not supported by the running JDK");
+            return Optional.empty();
+        } catch (final InvocationTargetException | IllegalAccessException e) {
+            // e.g. preview feature not enabled on JDK 19/20
+            LOGGER.debug("Virtual threads are not available", e);
+            return Optional.empty();
+        }
+    }
+}
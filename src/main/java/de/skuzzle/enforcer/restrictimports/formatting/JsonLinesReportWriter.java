@@ -0,0 +1,51 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.io.IOException;
+
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedImport;
+
+/**
+ * Writes one JSON object per matched import.
+ */
+class JsonLinesReportWriter implements ReportWriter {
+
+    private final JsonWriter json;
+
+    JsonLinesReportWriter(JsonWriter json) {
+        this.json = json;
+    }
+
+    @Override
+    public void matchInCompileCode(MatchedFile match) {
+        write(match, false);
+    }
+
+    @Override
+    public void matchInTestCode(MatchedFile match) {
+        write(match, true);
+    }
+
+    private void write(MatchedFile match, boolean testCode) {
+        final String file = match.getSourceFile().toString();
+        final String reason = match.getMatchedBy().getReason();
+        for (final MatchedImport matchedImport : match.getMatchedImports()) {
+            json.beginObject()
+                    .name("file").value(file)
+                    .name("testCode").value(testCode);
+            if (matchedImport.isImportLineKnown()) {
+                json.name("line").value(matchedImport.getImportLine());
+            }
+            json.name("import").value(matchedImport.getMatchedString())
+                    .name("matchedBy").value(matchedImport.getMatchedBy().toString())
+                    .name("reason").value(reason)
+                    .endObject()
+                    .newLine();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
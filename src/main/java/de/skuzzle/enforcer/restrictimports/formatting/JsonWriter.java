@@ -0,0 +1,173 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Minimal streaming JSON encoder which writes tokens directly to the underlying
+ * {@link Writer} without building any in-memory representation of the document.
+ */
+class JsonWriter implements Closeable, Flushable {
+
+    private final Writer out;
+    // one entry per open object/array: whether the next element is the first one
+    private final Deque<Boolean> firstElement = new ArrayDeque<>();
+    private boolean afterName;
+
+    JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    JsonWriter beginObject() {
+        beforeValue();
+        write('{');
+        firstElement.push(true);
+        return this;
+    }
+
+    JsonWriter endObject() {
+        firstElement.pop();
+        write('}');
+        return this;
+    }
+
+    JsonWriter beginArray() {
+        beforeValue();
+        write('[');
+        firstElement.push(true);
+        return this;
+    }
+
+    JsonWriter endArray() {
+        firstElement.pop();
+        write(']');
+        return this;
+    }
+
+    JsonWriter name(String name) {
+        Preconditions.checkState(!afterName, "Expected a value after name");
+        beforeElement();
+        writeString(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            write("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    JsonWriter value(long value) {
+        beforeValue();
+        write(Long.toString(value));
+        return this;
+    }
+
+    JsonWriter value(boolean value) {
+        beforeValue();
+        write(Boolean.toString(value));
+        return this;
+    }
+
+    /**
+     * Ends the current top level value by writing a line break. Used for writing
+     * multiple top level values in JSON Lines format.
+     *
+     * @return This writer.
+     */
+    JsonWriter newLine() {
+        Preconditions.checkState(firstElement.isEmpty(), "There are still unclosed objects or arrays");
+        write('\n');
+        return this;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+        } else {
+            beforeElement();
+        }
+    }
+
+    private void beforeElement() {
+        if (firstElement.isEmpty()) {
+            return;
+        }
+        if (firstElement.peek()) {
+            firstElement.pop();
+            firstElement.push(false);
+        } else {
+            write(',');
+        }
+    }
+
+    private void writeString(String s) {
+        write('"');
+        for (int i = 0; i < s.length(); ++i) {
+            final char c = s.charAt(i);
+            switch (c) {
+            case '"':
+                write("\\\"");
+                break;
+            case '\\':
+                write("\\\\");
+                break;
+            case '\n':
+                write("\\n");
+                break;
+            case '\r':
+                write("\\r");
+                break;
+            case '\t':
+                write("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    write(String.format("\\u%04x", (int) c));
+                } else {
+                    write(c);
+                }
+            }
+        }
+        write('"');
+    }
+
+    private void write(char c) {
+        try {
+            out.write(c);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Error while writing report", e);
+        }
+    }
+
+    private void write(String s) {
+        try {
+            out.write(s);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Error while writing report", e);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
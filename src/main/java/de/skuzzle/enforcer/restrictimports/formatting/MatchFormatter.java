@@ -1,9 +1,13 @@
 package de.skuzzle.enforcer.restrictimports.formatting;
 
-import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
-
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.function.Consumer;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.LayerAnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchListener;
+import de.skuzzle.enforcer.restrictimports.analyze.PackageCycleResult;
 
 /**
  * For formatting the result of the banned import analysis.
@@ -14,5 +18,42 @@ public interface MatchFormatter {
         return MatchFormatterImpl.INSTANCE;
     }
 
+    /**
+     * Creates a {@link MatchListener} which formats each match as soon as it is found
+     * and passes the formatted text to the given consumer. Unlike
+     * {@link #formatMatches(Collection, AnalyzeResult)}, the listener never holds more
+     * than a single file's matches in memory.
+     *
+     * @param roots The source roots used to relativize the reported file names.
+     * @param sink Receives the formatted text chunks.
+     * @return The listener.
+     * @since 1.1.0
+     */
+    static MatchListener streaming(Collection<Path> roots, Consumer<String> sink) {
+        return new StreamingMatchFormatter(roots, sink);
+    }
+
     String formatMatches(Collection<Path> roots, AnalyzeResult analyzeResult);
+
+    /**
+     * Formats the violations and cycles that were found by checking the layers of an
+     * architecture.
+     *
+     * @param roots The source roots used to relativize the reported file names.
+     * @param layerAnalyzeResult The result to format.
+     * @return The formatted text.
+     * @since 1.1.0
+     */
+    String formatLayerViolations(Collection<Path> roots, LayerAnalyzeResult layerAnalyzeResult);
+
+    /**
+     * Formats the package cycles that were found together with the dependencies that
+     * form them.
+     *
+     * @param roots The source roots used to relativize the reported file names.
+     * @param packageCycleResult The result to format.
+     * @return The formatted text.
+     * @since 1.1.0
+     */
+    String formatPackageCycles(Collection<Path> roots, PackageCycleResult packageCycleResult);
 }
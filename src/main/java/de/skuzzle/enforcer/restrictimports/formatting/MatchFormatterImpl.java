@@ -7,8 +7,14 @@ import java.util.Map;
 
 import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.LayerAnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.LayerViolation;
 import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
 import de.skuzzle.enforcer.restrictimports.analyze.MatchedImport;
+import de.skuzzle.enforcer.restrictimports.analyze.PackageCycle;
+import de.skuzzle.enforcer.restrictimports.analyze.PackageCycleResult;
+import de.skuzzle.enforcer.restrictimports.analyze.PackageDependency;
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
 
 class MatchFormatterImpl implements MatchFormatter {
 
@@ -31,29 +37,133 @@ class MatchFormatterImpl implements MatchFormatter {
             formatGroupedMatches(roots, b, testMatchesByGroup);
         }
 
-        final long seconds = analyzeResult.getDuration() / 1000;
-        b.append("\nAnalysis took ").append(seconds).append(" seconds\n");
+        appendDuration(analyzeResult.getDuration(), b);
+
+        return b.toString();
+    }
+
+    @Override
+    public String formatLayerViolations(Collection<Path> roots, LayerAnalyzeResult layerAnalyzeResult) {
+        final StringBuilder b = new StringBuilder();
+
+        if (!layerAnalyzeResult.getSrcViolations().isEmpty()) {
+            b.append("\nLayer violations detected:\n\n");
+            formatLayerViolations(roots, b, layerAnalyzeResult.getSrcViolations());
+        }
+
+        if (!layerAnalyzeResult.getTestViolations().isEmpty()) {
+            b.append("\nLayer violations detected in TEST code:\n\n");
+            formatLayerViolations(roots, b, layerAnalyzeResult.getTestViolations());
+        }
+
+        for (final List<String> cycle : layerAnalyzeResult.getLayerCycles()) {
+            b.append("\nCyclic dependency between layers: ")
+                    .append(String.join(", ", cycle))
+                    .append("\n");
+        }
+
+        appendDuration(layerAnalyzeResult.getDuration(), b);
+
+        return b.toString();
+    }
+
+    private void formatLayerViolations(Collection<Path> roots, StringBuilder b, List<LayerViolation> violations) {
+        Path currentFile = null;
+        for (final LayerViolation violation : violations) {
+            if (!violation.getSourceFile().equals(currentFile)) {
+                currentFile = violation.getSourceFile();
+                b.append("\tin file").append(": ")
+                        .append(violation.getSourceRoot()
+                                .map(root -> root.relativize(violation.getSourceFile()))
+                                .orElseGet(() -> searchRoot(roots, violation.getSourceFile())))
+                        .append("\n");
+            }
+            b.append("\t\t")
+                    .append(violation.getImportName())
+                    .append(" (");
+            if (violation.getImportLine() != ImportStatement.UNKNOWN_LINE) {
+                b.append("Line: ")
+                        .append(violation.getImportLine())
+                        .append(", ");
+            }
+            b.append("Layer ").append(violation.getLayer())
+                    .append(" must not depend on ").append(violation.getDependsOn());
+            if (!violation.getVia().isEmpty()) {
+                b.append(" via ").append(String.join(" -> ", violation.getVia()));
+            }
+            b.append(")\n");
+        }
+    }
+
+    @Override
+    public String formatPackageCycles(Collection<Path> roots, PackageCycleResult packageCycleResult) {
+        final StringBuilder b = new StringBuilder();
+
+        if (packageCycleResult.cyclesFound()) {
+            b.append("\nPackage cycles detected:\n");
+            for (final PackageCycle cycle : packageCycleResult.getCycles()) {
+                b.append("\nCycle between packages: ")
+                        .append(String.join(", ", cycle.getPackages()))
+                        .append("\n");
+                for (final PackageDependency dependency : cycle.getDependencies()) {
+                    b.append("\t").append(dependency.getFromPackage())
+                            .append(" -> ").append(dependency.getToPackage())
+                            .append("\n\t\t")
+                            .append(dependency.getImportName())
+                            .append(" (in file: ")
+                            .append(dependency.getSourceRoot()
+                                    .map(root -> root.relativize(dependency.getSourceFile()))
+                                    .orElseGet(() -> searchRoot(roots, dependency.getSourceFile())));
+                    if (dependency.getImportLine() != ImportStatement.UNKNOWN_LINE) {
+                        b.append(", Line: ").append(dependency.getImportLine());
+                    }
+                    b.append(")\n");
+                }
+            }
+        }
+
+        appendDuration(packageCycleResult.getDuration(), b);
 
         return b.toString();
     }
 
+    static void appendDuration(long duration, StringBuilder b) {
+        final long seconds = duration / 1000;
+        b.append("\nAnalysis took ").append(seconds).append(" seconds\n");
+    }
+
     private void formatGroupedMatches(Collection<Path> roots, StringBuilder b,
             Map<BannedImportGroup, List<MatchedFile>> matchesByGroup) {
         matchesByGroup.forEach((group, matches) -> {
-            final String message = group.getReason();
-            if (message != null && !message.isEmpty()) {
-                b.append("Reason: ").append(message).append("\n");
-            }
-            matches.forEach(fileMatch -> {
-                b.append("\tin file").append(": ")
-                        .append(relativize(roots, fileMatch.getSourceFile()))
-                        .append("\n");
-                fileMatch.getMatchedImports().forEach(match -> appendMatch(match, b));
-            });
+            appendReason(group, b);
+            matches.forEach(fileMatch -> appendFile(roots, fileMatch, b));
         });
     }
 
-    private static Path relativize(Collection<Path> roots, Path path) {
+    static void appendReason(BannedImportGroup group, StringBuilder b) {
+        final String message = group.getReason();
+        if (message != null && !message.isEmpty()) {
+            b.append("Reason: ").append(message).append("\n");
+        }
+    }
+
+    static void appendFile(Collection<Path> roots, MatchedFile fileMatch, StringBuilder b) {
+        b.append("\tin file").append(": ")
+                .append(relativize(roots, fileMatch))
+                .append("\n");
+        fileMatch.getMatchedImports().forEach(match -> appendMatch(match, b));
+    }
+
+    private static Path relativize(Collection<Path> roots, MatchedFile fileMatch) {
+        final Path path = fileMatch.getSourceFile();
+        return fileMatch.getSourceRoot()
+                .map(root -> root.relativize(path))
+                .orElseGet(() -> searchRoot(roots, path));
+    }
+
+    private static Path searchRoot(Collection<Path> roots, Path path) {
+        // Fallback for matches that have been created without information about their
+        // source root
         return roots.stream()
                 .filter(path::startsWith)
                 .map(root -> root.relativize(path))
@@ -61,12 +171,16 @@ class MatchFormatterImpl implements MatchFormatter {
                 .orElse(path);
     }
 
-    private void appendMatch(MatchedImport match, StringBuilder b) {
+    private static void appendMatch(MatchedImport match, StringBuilder b) {
         b.append("\t\t")
                 .append(match.getMatchedString())
-                .append(" (Line: ")
-                .append(match.getImportLine())
-                .append(", Matched by: ")
+                .append(" (");
+        if (match.isImportLineKnown()) {
+            b.append("Line: ")
+                    .append(match.getImportLine())
+                    .append(", ");
+        }
+        b.append("Matched by: ")
                 .append(match.getMatchedBy())
                 .append(")\n");
     }
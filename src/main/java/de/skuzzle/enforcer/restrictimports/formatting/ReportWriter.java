@@ -0,0 +1,41 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.io.Closeable;
+import java.io.Writer;
+
+import de.skuzzle.enforcer.restrictimports.analyze.MatchListener;
+
+/**
+ * A {@link MatchListener} which writes a machine readable report of all received matches.
+ * Matches are encoded and written as soon as they are received, so the report never needs
+ * to fit into memory. Closing the report writer closes the underlying {@link Writer}.
+ *
+ * @since 1.1.0
+ */
+public interface ReportWriter extends MatchListener, Closeable {
+
+    /**
+     * Creates a report writer which writes a single JSON object per matched import, each
+     * on its own line (<a href="http://jsonlines.org">JSON Lines</a>).
+     *
+     * @param out The writer to write the report to.
+     * @return The report writer.
+     */
+    static ReportWriter jsonLines(Writer out) {
+        return new JsonLinesReportWriter(new JsonWriter(out));
+    }
+
+    /**
+     * Creates a report writer which writes a
+     * <a href="https://sarifweb.azurewebsites.net/">SARIF</a> 2.1.0 log containing a
+     * single run.
+     *
+     * @param out The writer to write the report to.
+     * @param failBuild Whether matches are reported with level <code>error</code>
+     *            instead of <code>warning</code>.
+     * @return The report writer.
+     */
+    static ReportWriter sarif(Writer out, boolean failBuild) {
+        return new SarifReportWriter(new JsonWriter(out), failBuild);
+    }
+}
@@ -0,0 +1,122 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.io.IOException;
+
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedImport;
+
+/**
+ * Writes a SARIF 2.1.0 log. The log's header is written upon construction, every match is
+ * appended to the run's results as it is received and the log is completed in
+ * {@link #analysisFinished(long)}.
+ */
+class SarifReportWriter implements ReportWriter {
+
+    static final String RULE_ID = "banned-import";
+
+    private final JsonWriter json;
+    private final String level;
+    private boolean finished;
+
+    SarifReportWriter(JsonWriter json, boolean failBuild) {
+        this.json = json;
+        this.level = failBuild ? "error" : "warning";
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        json.beginObject()
+                .name("$schema").value("https://json.schemastore.org/sarif-2.1.0.json")
+                .name("version").value("2.1.0")
+                .name("runs").beginArray()
+                .beginObject()
+                .name("tool").beginObject()
+                .name("driver").beginObject()
+                .name("name").value("restrict-imports-enforcer-rule")
+                .name("informationUri").value("https://github.com/skuzzle/restrict-imports-enforcer-rule")
+                .name("rules").beginArray()
+                .beginObject()
+                .name("id").value(RULE_ID)
+                .name("shortDescription").beginObject()
+                .name("text").value("Usage of a banned import")
+                .endObject()
+                .endObject()
+                .endArray()
+                .endObject()
+                .endObject()
+                .name("results").beginArray();
+    }
+
+    @Override
+    public void matchInCompileCode(MatchedFile match) {
+        write(match, false);
+    }
+
+    @Override
+    public void matchInTestCode(MatchedFile match) {
+        write(match, true);
+    }
+
+    private void write(MatchedFile match, boolean testCode) {
+        final String uri = match.getSourceFile().toUri().toString();
+        final String reason = match.getMatchedBy().getReason();
+        for (final MatchedImport matchedImport : match.getMatchedImports()) {
+            json.beginObject()
+                    .name("ruleId").value(RULE_ID)
+                    .name("level").value(level)
+                    .name("message").beginObject()
+                    .name("text").value(message(matchedImport, reason))
+                    .endObject()
+                    .name("locations").beginArray()
+                    .beginObject()
+                    .name("physicalLocation").beginObject()
+                    .name("artifactLocation").beginObject()
+                    .name("uri").value(uri)
+                    .endObject();
+            if (matchedImport.isImportLineKnown()) {
+                json.name("region").beginObject()
+                        .name("startLine").value(matchedImport.getImportLine())
+                        .endObject();
+            }
+            json.endObject()
+                    .endObject()
+                    .endArray()
+                    .name("properties").beginObject()
+                    .name("testCode").value(testCode)
+                    .name("matchedBy").value(matchedImport.getMatchedBy().toString())
+                    .endObject()
+                    .endObject();
+        }
+    }
+
+    private static String message(MatchedImport matchedImport, String reason) {
+        final StringBuilder b = new StringBuilder()
+                .append("Banned import '")
+                .append(matchedImport.getMatchedString())
+                .append("' (Matched by: ")
+                .append(matchedImport.getMatchedBy())
+                .append(")");
+        if (reason != null && !reason.isEmpty()) {
+            b.append(". Reason: ").append(reason);
+        }
+        return b.toString();
+    }
+
+    @Override
+    public void analysisFinished(long duration) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        json.endArray()
+                .endObject()
+                .endArray()
+                .endObject()
+                .newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
@@ -0,0 +1,67 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchListener;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
+
+/**
+ * Formats every match as soon as it is reported and immediately passes the formatted
+ * text on to a consumer. Produces the same layout as {@link MatchFormatterImpl} but
+ * without grouping the matches by {@link BannedImportGroup} up front: the reason is
+ * repeated whenever it changes from one file to the next.
+ */
+class StreamingMatchFormatter implements MatchListener {
+
+    private final Collection<Path> roots;
+    private final Consumer<String> sink;
+
+    private Boolean inTestCode;
+    private BannedImportGroup lastGroup;
+
+    StreamingMatchFormatter(Collection<Path> roots, Consumer<String> sink) {
+        this.roots = roots;
+        this.sink = sink;
+    }
+
+    @Override
+    public void matchInCompileCode(MatchedFile match) {
+        format(match, false);
+    }
+
+    @Override
+    public void matchInTestCode(MatchedFile match) {
+        format(match, true);
+    }
+
+    private void format(MatchedFile match, boolean testCode) {
+        final StringBuilder b = new StringBuilder();
+        if (inTestCode == null || inTestCode != testCode) {
+            b.append(testCode
+                    ? "\nBanned imports detected in TEST code:\n\n"
+                    : "\nBanned imports detected:\n\n");
+            inTestCode = testCode;
+            lastGroup = null;
+        }
+        if (!match.getMatchedBy().equals(lastGroup)) {
+            MatchFormatterImpl.appendReason(match.getMatchedBy(), b);
+            lastGroup = match.getMatchedBy();
+        }
+        MatchFormatterImpl.appendFile(roots, match, b);
+        sink.accept(b.toString());
+    }
+
+    @Override
+    public void analysisFinished(long duration) {
+        if (inTestCode == null) {
+            // nothing has been reported
+            return;
+        }
+        final StringBuilder b = new StringBuilder();
+        MatchFormatterImpl.appendDuration(duration, b);
+        sink.accept(b.toString());
+    }
+}
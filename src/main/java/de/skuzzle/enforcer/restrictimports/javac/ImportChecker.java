@@ -0,0 +1,88 @@
+package de.skuzzle.enforcer.restrictimports.javac;
+
+import java.util.Optional;
+
+import javax.tools.Diagnostic;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+import com.sun.source.util.Trees;
+
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroups;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+
+/**
+ * Matches the imports of every parsed compilation unit against the banned imports. This
+ * does the same as the analyzer does for source files but takes the imports from the
+ * compiler's syntax tree.
+ *
+ * @since 1.1.0
+ */
+class ImportChecker implements TaskListener {
+
+    private final Trees trees;
+    private final BannedImportGroups groups;
+    private final Diagnostic.Kind kind;
+
+    ImportChecker(Trees trees, BannedImportGroups groups, Diagnostic.Kind kind) {
+        this.trees = trees;
+        this.groups = groups;
+        this.kind = kind;
+    }
+
+    @Override
+    public void started(TaskEvent e) {
+        // nothing to do
+    }
+
+    @Override
+    public void finished(TaskEvent e) {
+        if (e.getKind() == TaskEvent.Kind.PARSE) {
+            checkImports(e.getCompilationUnit());
+        }
+    }
+
+    private void checkImports(CompilationUnitTree compilationUnit) {
+        final String fqcn = fqcnOf(compilationUnit);
+        final Optional<BannedImportGroup> group = groups.selectGroupFor(fqcn);
+        if (!group.isPresent()) {
+            return;
+        }
+
+        for (final ImportTree importTree : compilationUnit.getImports()) {
+            final String importName = importTree.isStatic()
+                    ? "static " + importTree.getQualifiedIdentifier()
+                    : importTree.getQualifiedIdentifier().toString();
+            group.get().ifImportIsBanned(importName).ifPresent(matchedBy -> trees.printMessage(kind,
+                    message(group.get(), importName, matchedBy), importTree, compilationUnit));
+        }
+    }
+
+    private static String fqcnOf(CompilationUnitTree compilationUnit) {
+        final String path = compilationUnit.getSourceFile().getName();
+        final String fileName = path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+        final int extension = fileName.lastIndexOf('.');
+        final String className = extension < 0
+                ? fileName
+                : fileName.substring(0, extension);
+        return compilationUnit.getPackageName() == null
+                ? className
+                : compilationUnit.getPackageName() + "." + className;
+    }
+
+    private static String message(BannedImportGroup group, String importName, PackagePattern matchedBy) {
+        final StringBuilder b = new StringBuilder("Banned import: ")
+                .append(importName)
+                .append(" (Matched by: ")
+                .append(matchedBy)
+                .append(")");
+        final String reason = group.getReason();
+        if (reason != null && !reason.isEmpty()) {
+            b.append("\nReason: ").append(reason);
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package de.skuzzle.enforcer.restrictimports.javac;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Plugin;
+import com.sun.source.util.Trees;
+
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroups;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePatternFile;
+
+/**
+ * javac {@link Plugin} which checks the imports of each compilation unit right after it
+ * has been parsed by the compiler. Banned imports are reported as compiler errors at the
+ * offending import. As the compiler's syntax trees are used, no additional file reads or
+ * parsing are required and sources that are generated by annotation processors are
+ * checked as well.
+ * <p>
+ * The plugin is enabled by passing <code>-Xplugin:"RestrictImports &lt;options&gt;"</code>
+ * to javac, where options are space separated <code>key=value</code> pairs:
+ * <ul>
+ * <li><code>bannedImports</code>: Path of a file containing the banned imports, one
+ * pattern per line (required).</li>
+ * <li><code>allowedImports</code>: Path of a file containing allowed imports.</li>
+ * <li><code>excludedClasses</code>: Path of a file containing excluded classes.</li>
+ * <li><code>basePackages</code>: Comma separated base packages. Defaults to
+ * <code>**</code>.</li>
+ * <li><code>warn</code>: If <code>true</code>, banned imports are reported as warnings
+ * instead of errors.</li>
+ * </ul>
+ * Pattern files are read using {@link PackagePatternFile}.
+ *
+ * @since 1.1.0
+ */
+public class RestrictImportsPlugin implements Plugin {
+
+    static final String NAME = "RestrictImports";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void init(JavacTask task, String... args) {
+        final BannedImportGroup.Builder group = BannedImportGroup.builder()
+                .withBasePackages("**");
+        Diagnostic.Kind kind = Diagnostic.Kind.ERROR;
+        boolean bannedImportsPresent = false;
+        for (final String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid argument for %s plugin: '%s'. Expected key=value", NAME, arg));
+            }
+            final String key = arg.substring(0, separator);
+            final String value = arg.substring(separator + 1);
+            switch (key) {
+            case "bannedImports":
+                group.withBannedImports(loadPatterns(value));
+                bannedImportsPresent = true;
+                break;
+            case "allowedImports":
+                group.withAllowedImports(loadPatterns(value));
+                break;
+            case "excludedClasses":
+                group.withExcludedClasses(loadPatterns(value));
+                break;
+            case "basePackages":
+                group.withBasePackages(value.split(","));
+                break;
+            case "warn":
+                kind = Boolean.parseBoolean(value)
+                        ? Diagnostic.Kind.WARNING
+                        : Diagnostic.Kind.ERROR;
+                break;
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Unknown argument for %s plugin: '%s'", NAME, key));
+            }
+        }
+        if (!bannedImportsPresent) {
+            throw new IllegalArgumentException(String.format(
+                    "%s plugin requires a bannedImports=<file> argument", NAME));
+        }
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(group)
+                .build();
+        task.addTaskListener(new ImportChecker(Trees.instance(task), groups, kind));
+    }
+
+    private static List<PackagePattern> loadPatterns(String patternFile) {
+        try {
+            return PackagePatternFile.load(Paths.get(patternFile));
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Encountered IOException while reading patterns from " + patternFile,
+                    e);
+        }
+    }
+}
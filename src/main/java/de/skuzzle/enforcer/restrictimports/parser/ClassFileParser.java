@@ -0,0 +1,59 @@
+package de.skuzzle.enforcer.restrictimports.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * For parsing a compiled class file into a {@link ParsedFile}. The imports of the parsed
+ * file are the classes that are referenced from the class file's constant pool. As class
+ * files do not contain information about source lines, all of these imports have a line
+ * number of {@link ImportStatement#UNKNOWN_LINE}.
+ *
+ * @since 1.1.0
+ */
+public interface ClassFileParser {
+
+    /**
+     * Constructs a default instance of the parser.
+     *
+     * @return The parser instance.
+     */
+    static ClassFileParser defaultInstance() {
+        return new ClassFileParserImpl();
+    }
+
+    /**
+     * Parses the given class file.
+     *
+     * @param classFilePath The path of the class file to parse.
+     * @return The parsed file.
+     */
+    default ParsedFile parse(Path classFilePath) {
+        return parse(classFilePath, fqcn -> true).get();
+    }
+
+    /**
+     * Parses the given class file but stops as soon as its full qualified class name is
+     * known and is rejected by the given filter.
+     *
+     * @param classFilePath The path of the class file to parse.
+     * @param fqcnFilter Decides whether the references of the class with the given full
+     *            qualified name are of interest.
+     * @return The parsed file or an empty optional if the filter rejected the file.
+     */
+    Optional<ParsedFile> parse(Path classFilePath, Predicate<String> fqcnFilter);
+
+    /**
+     * Parses a class file that has already been read into memory, e.g. because it has
+     * been extracted from a jar file. Parsing starts at the buffer's current position.
+     *
+     * @param classFilePath The path that is reported as location of the parsed file.
+     * @param classFile The contents of the class file.
+     * @param fqcnFilter Decides whether the references of the class with the given full
+     *            qualified name are of interest.
+     * @return The parsed file or an empty optional if the filter rejected the file.
+     */
+    Optional<ParsedFile> parse(Path classFilePath, ByteBuffer classFile, Predicate<String> fqcnFilter);
+}
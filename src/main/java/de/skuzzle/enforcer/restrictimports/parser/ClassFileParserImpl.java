@@ -0,0 +1,507 @@
+package de.skuzzle.enforcer.restrictimports.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Extracts the names of all referenced classes from a class file. Besides the
+ * <code>CONSTANT_Class</code> entries of the constant pool, this includes all classes
+ * that are mentioned in field and method descriptors (e.g. parameter types of invoked
+ * methods or types of declared fields) and the types of the annotations (and of their
+ * enum and class values) on the class, its fields, methods and parameters. Method bodies
+ * are not inspected.
+ * <p>
+ * The whole file is read into a single buffer and the constant pool is parsed in place.
+ * Only the UTF-8 entries that actually hold class names or descriptors are decoded.
+ * <p>
+ * Binary names are converted into the names that would be used in an import using the
+ * <code>InnerClasses</code> attribute: only the <code>$</code> that separates a nested
+ * class from its enclosing class becomes a <code>.</code>, a <code>$</code> that is part
+ * of a class' actual name is kept.
+ */
+class ClassFileParserImpl implements ClassFileParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassFileParserImpl.class);
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+    private static final String RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+    private static final String RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS = "RuntimeInvisibleParameterAnnotations";
+    private static final String RUNTIME_VISIBLE_TYPE_ANNOTATIONS = "RuntimeVisibleTypeAnnotations";
+    private static final String RUNTIME_INVISIBLE_TYPE_ANNOTATIONS = "RuntimeInvisibleTypeAnnotations";
+    private static final String INNER_CLASSES = "InnerClasses";
+    private static final String ENCLOSING_METHOD = "EnclosingMethod";
+
+    @Override
+    public Optional<ParsedFile> parse(Path classFilePath, Predicate<String> fqcnFilter) {
+        LOGGER.trace("Analyzing {} for referenced classes", classFilePath);
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(classFilePath));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(String.format(
+                    "Encountered IOException while analyzing %s for banned imports",
+                    classFilePath), e);
+        }
+        return parse(classFilePath, buffer, fqcnFilter);
+    }
+
+    @Override
+    public Optional<ParsedFile> parse(Path classFilePath, ByteBuffer classFile, Predicate<String> fqcnFilter) {
+        try {
+            return parseConstantPool(classFilePath, classFile.slice(), fqcnFilter);
+        } catch (final BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException(String.format("Truncated class file: %s", classFilePath), e);
+        }
+    }
+
+    private Optional<ParsedFile> parseConstantPool(Path classFilePath, ByteBuffer buffer,
+            Predicate<String> fqcnFilter) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException(String.format("Not a class file: %s", classFilePath));
+        }
+        // minor and major version
+        buffer.getInt();
+
+        final int constantPoolCount = u2(buffer);
+        // buffer positions of the UTF-8 entries
+        final int[] utf8Positions = new int[constantPoolCount];
+        // UTF-8 entries holding the names of the CONSTANT_Class entries
+        final int[] classNameIndices = new int[constantPoolCount];
+        final List<Integer> classNames = new ArrayList<>();
+        final List<Integer> descriptors = new ArrayList<>();
+        for (int i = 1; i < constantPoolCount; ++i) {
+            final int tag = buffer.get() & 0xFF;
+            switch (tag) {
+            case CONSTANT_UTF8:
+                utf8Positions[i] = buffer.position();
+                skip(buffer, u2(buffer));
+                break;
+            case CONSTANT_CLASS:
+                classNameIndices[i] = u2(buffer);
+                classNames.add(classNameIndices[i]);
+                break;
+            case CONSTANT_NAME_AND_TYPE:
+                skip(buffer, 2);
+                descriptors.add(u2(buffer));
+                break;
+            case CONSTANT_METHOD_TYPE:
+                descriptors.add(u2(buffer));
+                break;
+            case CONSTANT_STRING:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                skip(buffer, 2);
+                break;
+            case CONSTANT_METHOD_HANDLE:
+                skip(buffer, 3);
+                break;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                skip(buffer, 4);
+                break;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                skip(buffer, 8);
+                // 8 byte constants take up two entries
+                ++i;
+                break;
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Unknown constant pool tag %d at index %d in %s", tag, i, classFilePath));
+            }
+        }
+
+        // access flags
+        skip(buffer, 2);
+        final int thisClassIndex = u2(buffer);
+        // super class and interfaces are part of the constant pool's class entries
+        skip(buffer, 2);
+        skip(buffer, 2 * u2(buffer));
+
+        // the InnerClasses attribute that is needed to tell the class' name comes after
+        // the fields and methods
+        final Attributes attributes = new Attributes(buffer, utf8Positions, descriptors);
+        readMembers(attributes);
+        readMembers(attributes);
+        attributes.readAll();
+
+        final NestedClasses nestedClasses = new NestedClasses(buffer, utf8Positions, classNameIndices, attributes);
+        final String thisClass = utf8(buffer, utf8Positions, classNameIndices[thisClassIndex]);
+        final String fqcn = nestedClasses.toSourceName(thisClass);
+        if (!fqcnFilter.test(fqcn)) {
+            return Optional.empty();
+        }
+
+        final Set<String> referenced = new LinkedHashSet<>();
+        for (final int nameIndex : classNames) {
+            final String name = utf8(buffer, utf8Positions, nameIndex);
+            if (name.startsWith("[")) {
+                addDescriptorTypes(name, referenced);
+            } else {
+                referenced.add(name);
+            }
+        }
+        for (final int descriptorIndex : descriptors) {
+            addDescriptorTypes(utf8(buffer, utf8Positions, descriptorIndex), referenced);
+        }
+
+        final String topLevelClass = nestedClasses.topLevelClass(thisClass);
+        final List<ImportStatement> imports = new ArrayList<>(referenced.size());
+        for (final String name : referenced) {
+            // references to the class itself and to its nested classes
+            if (nestedClasses.isWithin(name, topLevelClass)) {
+                continue;
+            }
+            imports.add(new ImportStatement(nestedClasses.toSourceName(name), ImportStatement.UNKNOWN_LINE));
+        }
+
+        // the fqcn of a nested class also contains the names of its enclosing classes
+        final int lastSlash = thisClass.lastIndexOf('/');
+        final String packageName = lastSlash < 0
+                ? ""
+                : thisClass.substring(0, lastSlash).replace('/', '.');
+        return Optional.of(new ParsedFile(classFilePath, packageName, fqcn, imports));
+    }
+
+    private static void readMembers(Attributes attributes) {
+        final ByteBuffer buffer = attributes.buffer;
+        final int memberCount = u2(buffer);
+        for (int i = 0; i < memberCount; ++i) {
+            // access flags and name
+            skip(buffer, 4);
+            attributes.descriptors.add(u2(buffer));
+            attributes.readAll();
+        }
+    }
+
+    /**
+     * Reads the attributes of the class and its members. The types of the annotations
+     * are added to the descriptors while the entries of the class' InnerClasses and
+     * EnclosingMethod attributes are recorded. All other attributes are skipped.
+     */
+    private static final class Attributes {
+        private final ByteBuffer buffer;
+        private final int[] utf8Positions;
+        private final List<Integer> descriptors;
+        // attribute names by constant pool index, decoded on first use
+        private final String[] names;
+        // inner class, outer class and simple name index of each InnerClasses entry
+        private final List<int[]> innerClasses = new ArrayList<>();
+        private int enclosingClassIndex;
+
+        private Attributes(ByteBuffer buffer, int[] utf8Positions, List<Integer> descriptors) {
+            this.buffer = buffer;
+            this.utf8Positions = utf8Positions;
+            this.descriptors = descriptors;
+            this.names = new String[utf8Positions.length];
+        }
+
+        private void readAll() {
+            final int attributeCount = u2(buffer);
+            for (int i = 0; i < attributeCount; ++i) {
+                final String name = name(u2(buffer));
+                final int length = buffer.getInt();
+                final int end = buffer.position() + length;
+                switch (name) {
+                case RUNTIME_VISIBLE_ANNOTATIONS:
+                case RUNTIME_INVISIBLE_ANNOTATIONS:
+                    readAnnotations();
+                    break;
+                case RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS:
+                case RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS:
+                    final int parameterCount = buffer.get() & 0xFF;
+                    for (int j = 0; j < parameterCount; ++j) {
+                        readAnnotations();
+                    }
+                    break;
+                case RUNTIME_VISIBLE_TYPE_ANNOTATIONS:
+                case RUNTIME_INVISIBLE_TYPE_ANNOTATIONS:
+                    readTypeAnnotations();
+                    break;
+                case INNER_CLASSES:
+                    final int classCount = u2(buffer);
+                    for (int j = 0; j < classCount; ++j) {
+                        innerClasses.add(new int[] { u2(buffer), u2(buffer), u2(buffer) });
+                        // access flags
+                        skip(buffer, 2);
+                    }
+                    break;
+                case ENCLOSING_METHOD:
+                    enclosingClassIndex = u2(buffer);
+                    break;
+                default:
+                    break;
+                }
+                buffer.position(end);
+            }
+        }
+
+        private String name(int index) {
+            if (names[index] == null) {
+                names[index] = utf8(buffer, utf8Positions, index);
+            }
+            return names[index];
+        }
+
+        private void readAnnotations() {
+            final int annotationCount = u2(buffer);
+            for (int i = 0; i < annotationCount; ++i) {
+                readAnnotation();
+            }
+        }
+
+        private void readTypeAnnotations() {
+            final int annotationCount = u2(buffer);
+            for (int i = 0; i < annotationCount; ++i) {
+                final int targetType = buffer.get() & 0xFF;
+                skip(buffer, targetInfoLength(targetType));
+                // type path
+                skip(buffer, 2 * (buffer.get() & 0xFF));
+                readAnnotation();
+            }
+        }
+
+        private int targetInfoLength(int targetType) {
+            switch (targetType) {
+            case 0x00:
+            case 0x01:
+            case 0x16:
+                return 1;
+            case 0x10:
+            case 0x11:
+            case 0x12:
+            case 0x17:
+            case 0x42:
+            case 0x43:
+            case 0x44:
+            case 0x45:
+            case 0x46:
+                return 2;
+            case 0x13:
+            case 0x14:
+            case 0x15:
+                return 0;
+            case 0x47:
+            case 0x48:
+            case 0x49:
+            case 0x4A:
+            case 0x4B:
+                return 3;
+            case 0x40:
+            case 0x41:
+                return 2 + 6 * (buffer.getShort(buffer.position()) & 0xFFFF);
+            default:
+                throw new IllegalArgumentException(String.format("Unknown type annotation target %d", targetType));
+            }
+        }
+
+        private void readAnnotation() {
+            descriptors.add(u2(buffer));
+            final int pairCount = u2(buffer);
+            for (int i = 0; i < pairCount; ++i) {
+                // element name
+                skip(buffer, 2);
+                readElementValue();
+            }
+        }
+
+        private void readElementValue() {
+            final int tag = buffer.get() & 0xFF;
+            switch (tag) {
+            case 'e':
+                // type and constant name
+                descriptors.add(u2(buffer));
+                skip(buffer, 2);
+                break;
+            case 'c':
+                descriptors.add(u2(buffer));
+                break;
+            case '@':
+                readAnnotation();
+                break;
+            case '[':
+                final int valueCount = u2(buffer);
+                for (int i = 0; i < valueCount; ++i) {
+                    readElementValue();
+                }
+                break;
+            default:
+                // constant pool index of a primitive or String constant
+                skip(buffer, 2);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Tells the enclosing classes of nested classes from the entries of the InnerClasses
+     * attribute. The compiler adds an entry for every nested class that is referenced by
+     * the class file, so there is no need to guess from the <code>$</code> in binary
+     * names. The entries are only decoded when a name that contains a <code>$</code> is
+     * looked up.
+     */
+    private static final class NestedClasses {
+        // marks local and anonymous classes, which have no outer class in the attribute.
+        // Binary names are never empty.
+        private static final String UNKNOWN_OUTER_CLASS = "";
+
+        private final ByteBuffer buffer;
+        private final int[] utf8Positions;
+        private final int[] classNameIndices;
+        private final Attributes attributes;
+        // outer class and simple name by binary name of the nested classes
+        private Map<String, String[]> nested;
+
+        private NestedClasses(ByteBuffer buffer, int[] utf8Positions, int[] classNameIndices,
+                Attributes attributes) {
+            this.buffer = buffer;
+            this.utf8Positions = utf8Positions;
+            this.classNameIndices = classNameIndices;
+            this.attributes = attributes;
+        }
+
+        // java/util/Map$Entry -> java.util.Map.Entry, just like it would be imported
+        private String toSourceName(String internalName) {
+            final String[] outer = lookup(internalName);
+            if (outer == null || outer[0].isEmpty()) {
+                return internalName.replace('/', '.');
+            }
+            return toSourceName(outer[0]) + "." + outer[1];
+        }
+
+        private String topLevelClass(String thisClass) {
+            String topLevelClass = thisClass;
+            String outer = outerClassOf(thisClass);
+            if (UNKNOWN_OUTER_CLASS.equals(outer) && attributes.enclosingClassIndex != 0) {
+                // local and anonymous classes know their enclosing class
+                outer = utf8(buffer, utf8Positions, classNameIndices[attributes.enclosingClassIndex]);
+            }
+            while (outer != null && !outer.isEmpty()) {
+                topLevelClass = outer;
+                outer = outerClassOf(outer);
+            }
+            return topLevelClass;
+        }
+
+        private boolean isWithin(String internalName, String topLevelClass) {
+            String current = internalName;
+            while (current != null) {
+                // local and anonymous classes can only be referenced from within the
+                // top level class that declares them
+                if (current.equals(topLevelClass) || current.isEmpty()) {
+                    return true;
+                }
+                current = outerClassOf(current);
+            }
+            return false;
+        }
+
+        private String outerClassOf(String internalName) {
+            final String[] outer = lookup(internalName);
+            return outer == null
+                    ? null
+                    : outer[0];
+        }
+
+        private String[] lookup(String internalName) {
+            if (internalName.indexOf('$') < 0) {
+                return null;
+            }
+            if (nested == null) {
+                nested = new HashMap<>();
+                for (final int[] entry : attributes.innerClasses) {
+                    final String innerClass = utf8(buffer, utf8Positions, classNameIndices[entry[0]]);
+                    if (entry[1] == 0 || entry[2] == 0) {
+                        nested.put(innerClass, new String[] { UNKNOWN_OUTER_CLASS, null });
+                    } else {
+                        nested.put(innerClass, new String[] {
+                                utf8(buffer, utf8Positions, classNameIndices[entry[1]]),
+                                utf8(buffer, utf8Positions, entry[2]) });
+                    }
+                }
+            }
+            return nested.get(internalName);
+        }
+    }
+
+    // reads 'L<name>;' types from a field or method descriptor
+    private static void addDescriptorTypes(String descriptor, Set<String> result) {
+        int i = descriptor.indexOf('L');
+        while (i >= 0) {
+            final int end = descriptor.indexOf(';', i);
+            if (end < 0) {
+                return;
+            }
+            result.add(descriptor.substring(i + 1, end));
+            i = descriptor.indexOf('L', end);
+        }
+    }
+
+    private static String utf8(ByteBuffer buffer, int[] utf8Positions, int index) {
+        final int position = utf8Positions[index];
+        if (position == 0) {
+            throw new IllegalArgumentException(String.format("Constant pool entry %d is not a UTF-8 entry", index));
+        }
+        final int length = buffer.getShort(position) & 0xFFFF;
+        // class names never contain the characters for which modified UTF-8 differs
+        // from standard UTF-8
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + position + 2, length, StandardCharsets.UTF_8);
+        }
+        final byte[] bytes = new byte[length];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(position + 2);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int u2(ByteBuffer buffer) {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    private static void skip(ByteBuffer buffer, int bytes) {
+        buffer.position(buffer.position() + bytes);
+    }
+}
@@ -10,28 +10,52 @@ import java.util.Objects;
  */
 public final class ImportStatement {
 
+    /**
+     * Line number of imports for which the physical line is unknown, like references
+     * that have been read from a class file.
+     *
+     * @since 1.1.0
+     */
+    public static final int UNKNOWN_LINE = -1;
+
     private static final String STATIC_IMPORT_PREFIX = "static ";
 
     private final String importName;
     private final int line;
     private final boolean staticImport;
+    private final boolean reference;
 
     public ImportStatement(String importName, int line) {
+        this(importName, line, false);
+    }
+
+    /**
+     * Creates an import statement which might represent a reference to a qualified name
+     * within the body of a source file instead of an actual import.
+     *
+     * @param importName The imported name.
+     * @param line The 1-based line number or {@link #UNKNOWN_LINE}.
+     * @param reference Whether the name has been referenced within the body.
+     * @since 1.1.0
+     */
+    public ImportStatement(String importName, int line, boolean reference) {
         Preconditions.checkArgument(importName != null && !importName.isEmpty(), "importName must not be empty");
         Preconditions.checkArgument(!importName.startsWith("import "),
                 "importName should be the raw package name without 'import ' prefix but was: '%s'", importName);
         Preconditions.checkArgument(importName.trim().equals(importName),
                 "importName has leading or trailing spaces: '%s'", importName);
-        Preconditions.checkArgument(line > 0, "line numbers should be 1-based and not start at 0");
+        Preconditions.checkArgument(line > 0 || line == UNKNOWN_LINE,
+                "line numbers should be 1-based and not start at 0");
 
         this.importName = importName;
         this.line = line;
         this.staticImport = importName.startsWith(STATIC_IMPORT_PREFIX);
+        this.reference = reference;
     }
 
     /**
      * The physical line within the source file in which the import has occurred. Number
-     * is always 1-based!
+     * is always 1-based or {@link #UNKNOWN_LINE}!
      *
      * @return The line number of the matched imports.
      */
@@ -39,6 +63,17 @@ public final class ImportStatement {
         return line;
     }
 
+    /**
+     * Whether this is a full qualified name that has been referenced within the body of
+     * the source file rather than an import.
+     *
+     * @return Whether this is a reference.
+     * @since 1.1.0
+     */
+    public boolean isReference() {
+        return reference;
+    }
+
     public String getImportName() {
         return importName;
     }
@@ -56,12 +91,13 @@ public final class ImportStatement {
                 .add("import", importName)
                 .add("line", line)
                 .add("static", staticImport)
+                .add("reference", reference)
                 .toString();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(importName, line, staticImport);
+        return Objects.hash(importName, line, staticImport, reference);
     }
 
     @Override
@@ -69,6 +105,7 @@ public final class ImportStatement {
         return obj == this || obj instanceof ImportStatement
                 && Objects.equals(this.line, ((ImportStatement) obj).line)
                 && Objects.equals(this.staticImport, ((ImportStatement) obj).staticImport)
+                && Objects.equals(this.reference, ((ImportStatement) obj).reference)
                 && Objects.equals(this.importName, ((ImportStatement) obj).importName);
     }
 }
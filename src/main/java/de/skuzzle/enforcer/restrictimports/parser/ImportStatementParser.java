@@ -3,7 +3,10 @@ package de.skuzzle.enforcer.restrictimports.parser;
 import de.skuzzle.enforcer.restrictimports.parser.lang.LanguageSupport;
 
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * For parsing a source file into a {@link ParsedFile}.
@@ -19,6 +22,21 @@ public interface ImportStatementParser {
         return new ImportStatementParserImpl(new SkipCommentsLineSupplier(charset));
     }
 
+    /**
+     * Constructs an instance of the parser which does not stop at the end of the header
+     * but also scans the rest of each file for references to full qualified class names.
+     * These references are reported as additional imports with the line in which they
+     * occur.
+     *
+     * @param charset The charset to use.
+     * @param referenceScanner Finds the references.
+     * @return The parser instance.
+     * @since 1.1.0
+     */
+    static ImportStatementParser withReferenceScanner(Charset charset, QualifiedNameScanner referenceScanner) {
+        return new ImportStatementParserImpl(path -> Files.lines(path, charset), referenceScanner);
+    }
+
     /**
      * Parses the given source file using the given {@link LanguageSupport} implementation
      * to recognize import statements.
@@ -28,4 +46,19 @@ public interface ImportStatementParser {
      * @return The parsed file.
      */
     ParsedFile parse(Path sourceFilePath, LanguageSupport languageSupport);
+
+    /**
+     * Parses the given source file but stops as soon as its full qualified class name is
+     * known and is rejected by the given filter. In that case, no import statements are
+     * read at all.
+     *
+     * @param sourceFilePath The path of the file to parse.
+     * @param languageSupport For parsing the import statements.
+     * @param fqcnFilter Decides whether the imports of the class with the given full
+     *            qualified name are of interest.
+     * @return The parsed file or an empty optional if the filter rejected the file.
+     * @since 1.1.0
+     */
+    Optional<ParsedFile> parse(Path sourceFilePath, LanguageSupport languageSupport,
+            Predicate<String> fqcnFilter);
 }
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -22,6 +23,7 @@ class ImportStatementParserImpl implements ImportStatementParser {
     private static final Logger LOGGER = LoggerFactory.getLogger(ImportStatementParserImpl.class);
 
     private final LineSupplier supplier;
+    private final QualifiedNameScanner referenceScanner;
 
     /**
      * Constructor just for testing purposes.
@@ -29,22 +31,52 @@ class ImportStatementParserImpl implements ImportStatementParser {
      * @param supplier The line sources
      */
     ImportStatementParserImpl(LineSupplier supplier) {
+        this(supplier, null);
+    }
+
+    /**
+     * Creates a parser which also scans the body of each file for references to full
+     * qualified class names. The scanner strips comments itself, so the supplier should
+     * provide the raw lines of the file.
+     *
+     * @param supplier The line sources.
+     * @param referenceScanner The scanner for the body or null to stop at the end of
+     *            the header.
+     */
+    ImportStatementParserImpl(LineSupplier supplier, QualifiedNameScanner referenceScanner) {
         this.supplier = supplier;
+        this.referenceScanner = referenceScanner;
     }
 
     @Override
     public ParsedFile parse(Path sourceFilePath, LanguageSupport languageSupport) {
+        return parse(sourceFilePath, languageSupport, fqcn -> true).get();
+    }
+
+    @Override
+    public Optional<ParsedFile> parse(Path sourceFilePath, LanguageSupport languageSupport,
+            Predicate<String> fqcnFilter) {
         LOGGER.trace("Analyzing {} for imports", sourceFilePath);
 
         final List<ImportStatement> imports = new ArrayList<>();
+        final QualifiedNameScanner.Scan scan = referenceScanner == null
+                ? null
+                : referenceScanner.newScan();
+        // references found in the current line, only kept if it is part of the body
+        final List<ImportStatement> references = new ArrayList<>();
 
         final String fileName = getFileNameWithoutExtension(sourceFilePath);
         try (final Stream<String> lines = this.supplier.lines(sourceFilePath)) {
             int row = 1;
             String packageName = "";
             String fqcn = fileName;
+            boolean fqcnAccepted = false;
             for (final Iterator<String> it = lines.map(String::trim).iterator(); it.hasNext(); ++row) {
-                final String line = it.next();
+                String line = it.next();
+                if (scan != null) {
+                    references.clear();
+                    line = scan.scanLine(line, row, references::add).trim();
+                }
 
                 // Implementation note: We check for empty lines here (instead of in
                 // LineSupplier implementation)
@@ -64,19 +96,41 @@ class ImportStatementParserImpl implements ImportStatementParser {
                     packageName = packageDeclaration.get();
                     fqcn = guessFQCN(packageName, fileName);
                     LOGGER.trace("Guessed full qualified class name from {} and {}: '{}'", packageName, fileName, fqcn);
+                    if (!fqcnFilter.test(fqcn)) {
+                        return Optional.empty();
+                    }
+                    fqcnAccepted = true;
                     continue;
                 }
 
+                // no package declaration before the first import: default package
+                if (!fqcnAccepted) {
+                    if (!fqcnFilter.test(fqcn)) {
+                        return Optional.empty();
+                    }
+                    fqcnAccepted = true;
+                }
+
                 final List<ImportStatement> importStatements = languageSupport.parseImport(line, row);
                 if (importStatements.isEmpty()) {
                     // as we are skipping empty (and comment) lines, by the time we
-                    // encounter a non-import line we can stop processing this file
+                    // encounter a non-import line we can stop processing this file,
+                    // unless its body is to be scanned as well
+                    if (scan != null) {
+                        imports.addAll(references);
+                        while (it.hasNext()) {
+                            scan.scanLine(it.next(), ++row, imports::add);
+                        }
+                    }
                     break;
                 }
                 imports.addAll(importStatements);
             }
 
-            return new ParsedFile(sourceFilePath, packageName, fqcn, imports);
+            if (!fqcnAccepted && !fqcnFilter.test(fqcn)) {
+                return Optional.empty();
+            }
+            return Optional.of(new ParsedFile(sourceFilePath, packageName, fqcn, imports));
         } catch (final IOException e) {
             throw new UncheckedIOException(String.format(
                     "Encountered IOException while analyzing %s for banned imports",
@@ -35,6 +35,17 @@ public final class ParsedFile {
         return fqcn;
     }
 
+    /**
+     * The package that is declared by the file. For source files in the default package,
+     * this is the empty string.
+     *
+     * @return The declared package.
+     * @since 1.1.0
+     */
+    public String getDeclaredPackage() {
+        return declaredPackage;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
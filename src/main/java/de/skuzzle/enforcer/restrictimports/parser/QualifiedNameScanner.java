@@ -0,0 +1,402 @@
+package de.skuzzle.enforcer.restrictimports.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+
+/**
+ * Finds references to full qualified class names within the body of a source file, like
+ * <code>new java.util.Vector()</code>, that are not declared by an import. Only
+ * references that start with one of the given literal prefixes are reported, unless the
+ * scanner has been created {@link #forAllNames() for all names}. In that case the same
+ * references are reported as for any set of prefixes, so that filtering them by a set of
+ * prefixes afterwards yields exactly the references that a scanner for these prefixes
+ * would have found.
+ * <p>
+ * Source lines are processed in a single pass by a small lexer which skips comments,
+ * string and character literals, text blocks and triple quoted strings. The remaining
+ * code characters are fed into an Aho-Corasick automaton of all prefixes, so that each
+ * character costs a single table lookup regardless of the number of prefixes. Only when
+ * a prefix is found at the start of a qualified name, the name is read and reduced to
+ * the classes it references: the name is cut after its first part that starts with an
+ * upper case letter and after each directly following such part, so
+ * <code>java.util.Map.Entry.comparingByKey</code> is reported as
+ * <code>java.util.Map</code> and as <code>java.util.Map.Entry</code>, just like the
+ * imports that the reference could replace. A name without such a part is reported as a
+ * whole.
+ *
+ * @since 1.1.0
+ */
+public final class QualifiedNameScanner {
+
+    // symbol for all characters that do not occur in any prefix
+    private static final int OTHER = 0;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private static final String ALL_NAMES_CACHE_KEY = "all";
+
+    private final List<String> prefixes;
+    // whether names are reported regardless of the prefixes
+    private final boolean allNames;
+    private final int[] asciiSymbols = new int[128];
+    private final Map<Character, Integer> otherSymbols = new HashMap<>();
+    private final int symbolCount;
+    // transitions of state s are stored from index s * symbolCount
+    private final int[] transitions;
+    // lengths of all prefixes that end when reaching a state
+    private final int[][] matchLengths;
+
+    private QualifiedNameScanner(List<String> prefixes, boolean allNames) {
+        this.prefixes = prefixes;
+        this.allNames = allNames;
+        int symbols = 1;
+        for (final String prefix : prefixes) {
+            for (int i = 0; i < prefix.length(); ++i) {
+                if (symbolOf(prefix.charAt(i)) == OTHER) {
+                    defineSymbol(prefix.charAt(i), symbols++);
+                }
+            }
+        }
+        this.symbolCount = symbols;
+
+        // trie of all prefixes
+        final List<int[]> children = new ArrayList<>();
+        final List<int[]> terminals = new ArrayList<>();
+        children.add(newState());
+        terminals.add(NO_MATCHES);
+        for (final String prefix : prefixes) {
+            int state = 0;
+            for (int i = 0; i < prefix.length(); ++i) {
+                final int symbol = symbolOf(prefix.charAt(i));
+                if (children.get(state)[symbol] == 0) {
+                    children.get(state)[symbol] = children.size();
+                    children.add(newState());
+                    terminals.add(NO_MATCHES);
+                }
+                state = children.get(state)[symbol];
+            }
+            terminals.set(state, new int[] { prefix.length() });
+        }
+
+        // breadth first construction of the failure links turns the trie into a DFA
+        final int stateCount = children.size();
+        this.transitions = new int[stateCount * symbolCount];
+        this.matchLengths = new int[stateCount][];
+        final int[] failure = new int[stateCount];
+        final Deque<Integer> queue = new ArrayDeque<>();
+        matchLengths[0] = NO_MATCHES;
+        for (int symbol = 1; symbol < symbolCount; ++symbol) {
+            final int child = children.get(0)[symbol];
+            transitions[symbol] = child;
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            matchLengths[state] = concat(terminals.get(state), matchLengths[failure[state]]);
+            for (int symbol = 0; symbol < symbolCount; ++symbol) {
+                final int child = children.get(state)[symbol];
+                final int fallback = transitions[failure[state] * symbolCount + symbol];
+                if (child == 0 || symbol == OTHER) {
+                    transitions[state * symbolCount + symbol] = fallback;
+                } else {
+                    transitions[state * symbolCount + symbol] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a scanner that finds qualified names starting with any of the given
+     * prefixes.
+     *
+     * @param prefixes The literal prefixes, like <code>java.util.</code> or
+     *            <code>java.util.Vector</code>.
+     * @return The scanner.
+     */
+    public static QualifiedNameScanner forPrefixes(Collection<String> prefixes) {
+        Preconditions.checkArgument(prefixes.stream().noneMatch(String::isEmpty), "prefixes must not be empty");
+        return new QualifiedNameScanner(Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(prefixes))),
+                false);
+    }
+
+    /**
+     * Creates a scanner that finds all qualified names. As the result does not depend on
+     * any prefixes, it can be stored and matched against changing banned imports later
+     * on, after discarding the references that do not start with any of their literal
+     * prefixes.
+     *
+     * @return The scanner.
+     */
+    public static QualifiedNameScanner forAllNames() {
+        return new QualifiedNameScanner(Collections.emptyList(), true);
+    }
+
+    /**
+     * The distinct prefixes of this scanner in alphabetical order. Empty if the scanner
+     * finds all names.
+     *
+     * @return The prefixes.
+     */
+    public List<String> getPrefixes() {
+        return this.prefixes;
+    }
+
+    /**
+     * Identifies the prefixes of this scanner so that files which have been scanned
+     * with different prefixes are not mistaken for each other.
+     *
+     * @return The key.
+     */
+    public String getCacheKey() {
+        if (allNames) {
+            return ALL_NAMES_CACHE_KEY;
+        }
+        return Hashing.murmur3_128()
+                .hashString(String.join("\n", prefixes), StandardCharsets.UTF_8)
+                .toString();
+    }
+
+    /**
+     * Starts scanning a new file. The returned object keeps track of comments and
+     * strings that span multiple lines and must thus be fed with all lines of the file
+     * in order.
+     *
+     * @return The scan.
+     */
+    Scan newScan() {
+        return new Scan();
+    }
+
+    private int[] newState() {
+        return new int[symbolCount];
+    }
+
+    private void defineSymbol(char c, int symbol) {
+        if (c < asciiSymbols.length) {
+            asciiSymbols[c] = symbol;
+        } else {
+            otherSymbols.put(c, symbol);
+        }
+    }
+
+    private int symbolOf(char c) {
+        return c < asciiSymbols.length
+                ? asciiSymbols[c]
+                : otherSymbols.getOrDefault(c, OTHER);
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        if (first.length == 0) {
+            return second;
+        } else if (second.length == 0) {
+            return first;
+        }
+        final int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Scans the lines of a single file.
+     */
+    final class Scan {
+        private boolean inBlockComment;
+        // the quote character of the current multi line string or 0
+        private char multiLineQuote;
+        // the references that have been reported for the current row
+        private final Set<String> reported = new HashSet<>();
+        private int lastRow;
+
+        private Scan() {
+            // hidden
+        }
+
+        /**
+         * Scans the next line of the file for qualified names.
+         *
+         * @param line The line.
+         * @param row The 1-based line number.
+         * @param referenceSink Receives the referenced classes.
+         * @return The line without any comments.
+         */
+        String scanLine(String line, int row, Consumer<ImportStatement> referenceSink) {
+            final StringBuilder code = new StringBuilder(line.length());
+            final int length = line.length();
+            char quote = 0;
+            int state = 0;
+            // end of the last reported name
+            int reportedUntil = 0;
+            int i = 0;
+            while (i < length) {
+                final char c = line.charAt(i);
+                if (inBlockComment) {
+                    if (c == '*' && i + 1 < length && line.charAt(i + 1) == '/') {
+                        inBlockComment = false;
+                        ++i;
+                    }
+                    ++i;
+                    continue;
+                }
+
+                code.append(c);
+                if (multiLineQuote != 0 || quote != 0) {
+                    if (c == '\\' && i + 1 < length) {
+                        code.append(line.charAt(++i));
+                    } else if (multiLineQuote != 0 && isTripleQuote(line, i, multiLineQuote)) {
+                        code.append(c).append(c);
+                        i += 2;
+                        multiLineQuote = 0;
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                    ++i;
+                    continue;
+                }
+
+                if (c == '/' && i + 1 < length && (line.charAt(i + 1) == '/' || line.charAt(i + 1) == '*')) {
+                    code.setLength(code.length() - 1);
+                    if (line.charAt(i + 1) == '/') {
+                        break;
+                    }
+                    inBlockComment = true;
+                    state = 0;
+                    i += 2;
+                    continue;
+                } else if (c == '"' || c == '\'') {
+                    if (isTripleQuote(line, i, c)) {
+                        code.append(c).append(c);
+                        multiLineQuote = c;
+                        i += 2;
+                    } else {
+                        quote = c;
+                    }
+                    state = 0;
+                    ++i;
+                    continue;
+                }
+
+                if (allNames) {
+                    if (i >= reportedUntil && isNameStart(line, i)) {
+                        reportedUntil = report(line, i, 0, row, referenceSink);
+                    }
+                    ++i;
+                    continue;
+                }
+
+                state = transitions[state * symbolCount + symbolOf(c)];
+                for (final int matchLength : matchLengths[state]) {
+                    final int start = i - matchLength + 1;
+                    if (start >= reportedUntil && isNameStart(line, start)) {
+                        // the shortest prefix at this start is found first
+                        reportedUntil = report(line, start, matchLength, row, referenceSink);
+                        break;
+                    }
+                }
+                ++i;
+            }
+            return code.toString();
+        }
+
+        private boolean isTripleQuote(String line, int i, char quote) {
+            return i + 2 < line.length()
+                    && line.charAt(i) == quote
+                    && line.charAt(i + 1) == quote
+                    && line.charAt(i + 2) == quote;
+        }
+
+        private boolean isNameStart(String line, int start) {
+            if (start > 0) {
+                final char previous = line.charAt(start - 1);
+                if (previous == '.' || Character.isJavaIdentifierPart(previous)) {
+                    return false;
+                }
+            }
+            return Character.isJavaIdentifierStart(line.charAt(start));
+        }
+
+        /**
+         * Reports the classes that are referenced by the qualified name at the given
+         * position, as far as they are not shorter than the prefix that has been found
+         * there.
+         *
+         * @return The index after the end of the name.
+         */
+        private int report(String line, int start, int prefixLength, int row,
+                Consumer<ImportStatement> referenceSink) {
+            // ends of the class names: after the first part that starts with an upper
+            // case letter and after each directly following such part
+            final List<Integer> classEnds = new ArrayList<>(2);
+            boolean nestedClasses = true;
+            boolean upperCasePart = false;
+            boolean partStart = true;
+            int end = start;
+            while (end < line.length()) {
+                final char c = line.charAt(end);
+                if (Character.isJavaIdentifierPart(c)) {
+                    if (partStart) {
+                        upperCasePart = Character.isUpperCase(c);
+                    }
+                    partStart = false;
+                } else if (c == '.' && end + 1 < line.length()
+                        && Character.isJavaIdentifierStart(line.charAt(end + 1))) {
+                    nestedClasses = addClassEnd(classEnds, end, upperCasePart, nestedClasses);
+                    partStart = true;
+                } else {
+                    break;
+                }
+                ++end;
+            }
+            addClassEnd(classEnds, end, upperCasePart, nestedClasses);
+
+            if (classEnds.isEmpty()) {
+                classEnds.add(end);
+            }
+            if (row != lastRow) {
+                reported.clear();
+                lastRow = row;
+            }
+            for (final int classEnd : classEnds) {
+                if (classEnd - start < prefixLength) {
+                    continue;
+                }
+                final String reference = line.substring(start, classEnd);
+                final boolean qualified = reference.indexOf('.') > 0;
+                if (qualified && reported.add(reference)) {
+                    referenceSink.accept(new ImportStatement(reference, row, true));
+                }
+            }
+            return end;
+        }
+
+        private boolean addClassEnd(List<Integer> classEnds, int partEnd, boolean upperCasePart,
+                boolean nestedClasses) {
+            if (!upperCasePart) {
+                // parts after the first lower case part that follows a class name are
+                // members of that class
+                return nestedClasses && classEnds.isEmpty();
+            }
+            if (nestedClasses) {
+                classEnds.add(partEnd);
+            }
+            return nestedClasses;
+        }
+    }
+}
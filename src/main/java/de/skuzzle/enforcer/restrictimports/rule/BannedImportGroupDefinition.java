@@ -2,12 +2,22 @@ package de.skuzzle.enforcer.restrictimports.rule;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import com.google.common.hash.Hasher;
+
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
 import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePatternFile;
 
 public class BannedImportGroupDefinition {
 
@@ -18,9 +28,11 @@ public class BannedImportGroupDefinition {
 
     private PackagePattern bannedImport = null;
     private List<PackagePattern> bannedImports = new ArrayList<>();
+    private File bannedImportsFile = null;
 
     private PackagePattern allowedImport = null;
     private List<PackagePattern> allowedImports = new ArrayList<>();
+    private File allowedImportsFile = null;
 
     private PackagePattern exclusion = null;
     private List<PackagePattern> exclusions = new ArrayList<>();
@@ -30,8 +42,10 @@ public class BannedImportGroupDefinition {
     public BannedImportGroup createGroupFromPluginConfiguration() {
         return BannedImportGroup.builder()
                 .withBasePackages(assembleList(this.basePackage, this.basePackages))
-                .withBannedImports(assembleList(this.bannedImport, this.bannedImports))
-                .withAllowedImports(assembleList(this.allowedImport, this.allowedImports))
+                .withBannedImports(appendPatternsFromFile(this.bannedImportsFile,
+                        assembleList(this.bannedImport, this.bannedImports)))
+                .withAllowedImports(appendPatternsFromFile(this.allowedImportsFile,
+                        assembleList(this.allowedImport, this.allowedImports)))
                 .withExcludedClasses(assembleList(this.exclusion, this.exclusions))
                 .withReason(reason)
                 .build();
@@ -48,12 +62,57 @@ public class BannedImportGroupDefinition {
                 || !basePackages.isEmpty()
                 || bannedImport != null
                 || !bannedImports.isEmpty()
+                || bannedImportsFile != null
                 || allowedImport != null
                 || !allowedImports.isEmpty()
+                || allowedImportsFile != null
                 || exclusion != null
                 || !exclusions.isEmpty();
     }
 
+    /**
+     * Feeds everything that influences the group created by
+     * {@link #createGroupFromPluginConfiguration()} into the given hasher. For pattern
+     * files only their path, size and modification time are taken into account.
+     *
+     * @param hasher The hasher.
+     */
+    void hashConfiguration(Hasher hasher) {
+        hashPatterns(hasher, assembleList(this.basePackage, this.basePackages));
+        hashPatterns(hasher, assembleList(this.bannedImport, this.bannedImports));
+        hashPatternFile(hasher, this.bannedImportsFile);
+        hashPatterns(hasher, assembleList(this.allowedImport, this.allowedImports));
+        hashPatternFile(hasher, this.allowedImportsFile);
+        hashPatterns(hasher, assembleList(this.exclusion, this.exclusions));
+        hasher.putBoolean(reason != null);
+        if (reason != null) {
+            hasher.putString(reason, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void hashPatterns(Hasher hasher, List<PackagePattern> patterns) {
+        hasher.putInt(patterns.size());
+        for (final PackagePattern pattern : patterns) {
+            hasher.putString(pattern.toString(), StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+    }
+
+    private void hashPatternFile(Hasher hasher, File patternFile) {
+        hasher.putBoolean(patternFile != null);
+        if (patternFile == null) {
+            return;
+        }
+        final Path path = patternFile.toPath().toAbsolutePath();
+        hasher.putString(path.toString(), StandardCharsets.UTF_8).putByte((byte) 0);
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            hasher.putLong(attributes.size())
+                    .putLong(attributes.lastModifiedTime().toMillis());
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not read patterns from " + patternFile, e);
+        }
+    }
+
     private List<PackagePattern> assembleList(PackagePattern single,
             List<PackagePattern> multi) {
         if (single == null) {
@@ -63,6 +122,20 @@ public class BannedImportGroupDefinition {
         }
     }
 
+    private List<PackagePattern> appendPatternsFromFile(File patternFile,
+            List<PackagePattern> patterns) {
+        if (patternFile == null) {
+            return patterns;
+        }
+        try {
+            final List<PackagePattern> result = new ArrayList<>(patterns);
+            result.addAll(PackagePatternFile.load(patternFile.toPath()));
+            return result;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Could not read patterns from " + patternFile, e);
+        }
+    }
+
     public void setBasePackage(String basePackage) {
         checkArgument(this.basePackages.isEmpty(),
                 "Configuration error: you should either specify a single base package using <basePackage> or multiple "
@@ -97,6 +170,11 @@ public class BannedImportGroupDefinition {
         this.bannedImports = PackagePattern.parseAll(bannedPackages);
     }
 
+    public void setBannedImportsFile(File bannedImportsFile) {
+        checkArgument(bannedImportsFile != null, "bannedImportsFile must not be null");
+        this.bannedImportsFile = bannedImportsFile;
+    }
+
     public void setAllowedImport(String allowedImport) {
         checkArgument(this.allowedImports.isEmpty(),
                 "Configuration error: you should either specify a single allowed import using <allowedImport> or multiple "
@@ -111,6 +189,11 @@ public class BannedImportGroupDefinition {
         this.allowedImports = PackagePattern.parseAll(allowedImports);
     }
 
+    public void setAllowedImportsFile(File allowedImportsFile) {
+        checkArgument(allowedImportsFile != null, "allowedImportsFile must not be null");
+        this.allowedImportsFile = allowedImportsFile;
+    }
+
     public void setExclusion(String exclusion) {
         checkArgument(this.exclusions.isEmpty(),
                 "Configuration error: you should either specify a single exclusion using <exclusion> or multiple "
@@ -0,0 +1,43 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.skuzzle.enforcer.restrictimports.analyze.Layer;
+
+/**
+ * Configuration of a single layer of the {@link RestrictLayers} rule.
+ *
+ * @since 1.1.0
+ */
+public class LayerDefinition {
+
+    private String name;
+    private List<String> packages = new ArrayList<>();
+    private List<String> mayDependOn = new ArrayList<>();
+
+    public Layer createLayerFromPluginConfiguration() {
+        return Layer.builder()
+                .withName(name)
+                .withPackages(packages.toArray(new String[packages.size()]))
+                .withAllowedDependencies(mayDependOn)
+                .build();
+    }
+
+    public void setName(String name) {
+        checkArgument(name != null && !name.isEmpty(), "name must not be empty");
+        this.name = name;
+    }
+
+    public void setPackages(List<String> packages) {
+        checkArgument(packages != null && !packages.isEmpty(), "packages must not be empty");
+        this.packages = packages;
+    }
+
+    public void setMayDependOn(List<String> mayDependOn) {
+        checkArgument(mayDependOn != null, "mayDependOn must not be null");
+        this.mayDependOn = mayDependOn;
+    }
+}
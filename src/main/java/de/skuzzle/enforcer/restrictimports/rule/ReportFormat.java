@@ -0,0 +1,47 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import de.skuzzle.enforcer.restrictimports.formatting.ReportWriter;
+
+/**
+ * Machine readable report formats that can be configured using
+ * <code>&lt;reportFormats&gt;</code>.
+ */
+enum ReportFormat {
+    JSONL(".jsonl") {
+        @Override
+        ReportWriter createWriter(Writer out, boolean failBuild) {
+            return ReportWriter.jsonLines(out);
+        }
+    },
+    SARIF(".sarif") {
+        @Override
+        ReportWriter createWriter(Writer out, boolean failBuild) {
+            return ReportWriter.sarif(out, failBuild);
+        }
+    };
+
+    private final String fileExtension;
+
+    private ReportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    static ReportFormat fromString(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Configuration error: unknown report format '%s'. Supported formats are: %s", name,
+                        Arrays.stream(values()).map(ReportFormat::name).collect(Collectors.joining(", ")))));
+    }
+
+    String getFileExtension() {
+        return this.fileExtension;
+    }
+
+    abstract ReportWriter createWriter(Writer out, boolean failBuild);
+}
@@ -0,0 +1,56 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.skuzzle.enforcer.restrictimports.analyze.MatchListener;
+import de.skuzzle.enforcer.restrictimports.formatting.ReportWriter;
+
+/**
+ * Holds the {@link ReportWriter report writers} that have been opened for a single rule
+ * execution and closes them all at once.
+ */
+class ReportWriters implements AutoCloseable {
+
+    private final List<ReportWriter> writers = new ArrayList<>();
+
+    void add(ReportWriter writer) {
+        writers.add(writer);
+    }
+
+    /**
+     * Creates a listener which passes each match to all the given listeners and to all
+     * report writers.
+     *
+     * @param listeners The listeners to notify in addition to the report writers.
+     * @return The composite listener.
+     */
+    MatchListener alongWith(MatchListener... listeners) {
+        final List<MatchListener> all = new ArrayList<>(writers.size() + listeners.length);
+        for (final MatchListener listener : listeners) {
+            all.add(listener);
+        }
+        all.addAll(writers);
+        return MatchListener.composite(all.toArray(new MatchListener[all.size()]));
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException first = null;
+        for (final ReportWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (final IOException e) {
+                if (first == null) {
+                    first = e;
+                } else {
+                    first.addSuppressed(e);
+                }
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+}
@@ -2,16 +2,24 @@ package de.skuzzle.enforcer.restrictimports.rule;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.enforcer.rule.api.EnforcerRule;
 import org.apache.maven.enforcer.rule.api.EnforcerRuleException;
 import org.apache.maven.enforcer.rule.api.EnforcerRuleHelper;
@@ -19,11 +27,19 @@ import org.apache.maven.project.MavenProject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResultCollector;
 import de.skuzzle.enforcer.restrictimports.analyze.AnalyzerSettings;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportDefinitionException;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroups;
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroupsFile;
+import de.skuzzle.enforcer.restrictimports.analyze.CountingMatchListener;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchListener;
+import de.skuzzle.enforcer.restrictimports.analyze.ParsedFileCache;
 import de.skuzzle.enforcer.restrictimports.analyze.SourceTreeAnalyzer;
 import de.skuzzle.enforcer.restrictimports.formatting.MatchFormatter;
 
@@ -34,12 +50,30 @@ import de.skuzzle.enforcer.restrictimports.formatting.MatchFormatter;
 public class RestrictImports extends BannedImportGroupDefinition implements EnforcerRule {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RestrictImports.class);
+    private static final String COMPILED_GROUPS_FILE = "restrict-imports-groups.bin";
+    private static final String IMPORT_INDEX_FILE = "restrict-imports-index.bin";
+    private static final String PARSE_CACHE_KEY = ParsedFileCache.class.getName();
 
     private List<BannedImportGroupDefinition> groups = new ArrayList<>();
 
     private boolean includeTestCode = false;
     private boolean failBuild = true;
     private boolean skip = false;
+    private List<ReportFormat> reportFormats = new ArrayList<>();
+    private String reportName = "restrict-imports";
+    private boolean cacheGroups = false;
+    private int parallelism = 1;
+    private int concurrentFileReads = 0;
+    private int parserThreads = 0;
+    private int matcherThreads = 0;
+    private int pipelineQueueCapacity = 1024;
+    private boolean trustDirectoryLayout = false;
+    private boolean analyzeClassFiles = false;
+    private boolean includeDependencies = false;
+    private boolean shareParsedFiles = false;
+    private boolean useImportIndex = false;
+    private boolean resolveWildcardImports = false;
+    private boolean detectFullyQualifiedReferences = false;
 
     @Override
     public void execute(EnforcerRuleHelper helper) throws EnforcerRuleException {
@@ -53,31 +87,52 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
 
             LOGGER.debug("Checking for banned imports");
 
-            final BannedImportGroups groups = assembleGroups();
+            final BannedImportGroups groups = cacheGroups
+                    ? loadCompiledGroups(project)
+                    : assembleGroups();
             LOGGER.debug("Banned import groups:\n{}", groups);
 
-            final AnalyzerSettings analyzerSettings = createAnalyzerSettingsFromPluginConfiguration(project);
+            final ArtifactRepository localRepository = includeDependencies || resolveWildcardImports
+                    ? (ArtifactRepository) helper.evaluate("${localRepository}")
+                    : null;
+            final AnalyzerSettings analyzerSettings = createAnalyzerSettingsFromPluginConfiguration(project,
+                    localRepository);
             LOGGER.debug("Analyzer settings:\n{}", analyzerSettings);
 
-            final AnalyzeResult analyzeResult = SourceTreeAnalyzer.getInstance().analyze(analyzerSettings, groups);
-            LOGGER.debug("Analyzer result:\n{}", analyzeResult);
-
-            if (analyzeResult.bannedImportsFound()) {
-                final String errorMessage = MatchFormatter.getInstance()
-                        .formatMatches(analyzerSettings.getAllDirectories(), analyzeResult);
-
+            final SourceTreeAnalyzer analyzer = shareParsedFiles
+                    ? SourceTreeAnalyzer.getInstance(parseCacheFor(project))
+                    : SourceTreeAnalyzer.getInstance();
+            try (final ReportWriters reportWriters = openReportWriters(project)) {
                 if (failBuild) {
-                    throw new EnforcerRuleException(errorMessage);
+                    final AnalyzeResultCollector collector = new AnalyzeResultCollector();
+                    analyzer.analyze(analyzerSettings, groups,
+                            reportWriters.alongWith(collector));
+                    final AnalyzeResult analyzeResult = collector.getResult();
+                    LOGGER.debug("Analyzer result:\n{}", analyzeResult);
+
+                    if (analyzeResult.bannedImportsFound()) {
+                        final String errorMessage = MatchFormatter.getInstance()
+                                .formatMatches(analyzerSettings.getAllDirectories(), analyzeResult);
+                        throw new EnforcerRuleException(errorMessage);
+                    }
+                    LOGGER.debug("No banned imports found");
                 } else {
-                    LOGGER.warn(errorMessage);
-                    LOGGER.warn(
-                            "\nDetected banned imports will not fail the build as the 'failBuild' flag is set to false!");
+                    // No need to materialize the result as we are not going to fail the
+                    // build. Report the matches to the log as they are found instead.
+                    final CountingMatchListener counter = new CountingMatchListener();
+                    final MatchListener logFormatter = MatchFormatter.streaming(analyzerSettings.getAllDirectories(),
+                            LOGGER::warn);
+                    analyzer.analyze(analyzerSettings, groups,
+                            reportWriters.alongWith(counter, logFormatter));
+                    LOGGER.debug("Analyzer result:\n{}", counter);
+
+                    if (counter.bannedImportsFound()) {
+                        LOGGER.warn(
+                                "\nDetected banned imports will not fail the build as the 'failBuild' flag is set to false!");
+                    }
                 }
-
-            } else {
-                LOGGER.debug("No banned imports found");
             }
-        } catch (final UncheckedIOException e) {
+        } catch (final UncheckedIOException | IOException e) {
             throw new EnforcerRuleException(e.getMessage(), e);
         } catch (final BannedImportDefinitionException e) {
             throw new EnforcerRuleException("RestrictImports rule configuration error: " + e.getMessage(), e);
@@ -88,6 +143,79 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
         }
     }
 
+    /**
+     * The parsed files of the given module that are shared between all rule instances
+     * analyzing it. The cache is stored with the project so that it lives exactly as
+     * long as the module's build and modules that are built in parallel do not interfere.
+     */
+    static ParsedFileCache parseCacheFor(MavenProject project) {
+        synchronized (project) {
+            ParsedFileCache parseCache = (ParsedFileCache) project.getContextValue(PARSE_CACHE_KEY);
+            if (parseCache == null) {
+                parseCache = new ParsedFileCache();
+                project.setContextValue(PARSE_CACHE_KEY, parseCache);
+            }
+            return parseCache;
+        }
+    }
+
+    private ReportWriters openReportWriters(MavenProject project) throws IOException {
+        final ReportWriters reportWriters = new ReportWriters();
+        if (reportFormats.isEmpty()) {
+            return reportWriters;
+        }
+
+        try {
+            final Path reportDirectory = Paths.get(project.getBuild().getDirectory());
+            Files.createDirectories(reportDirectory);
+            for (final ReportFormat reportFormat : reportFormats) {
+                final Path reportFile = reportDirectory.resolve(reportName + reportFormat.getFileExtension());
+                LOGGER.debug("Writing {} report to {}", reportFormat, reportFile);
+                final Writer out = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+                reportWriters.add(reportFormat.createWriter(out, failBuild));
+            }
+            return reportWriters;
+        } catch (final IOException e) {
+            try {
+                reportWriters.close();
+            } catch (final IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private BannedImportGroups loadCompiledGroups(MavenProject project) {
+        final Path compiledGroupsFile = Paths.get(project.getBuild().getDirectory(), COMPILED_GROUPS_FILE);
+        final String configurationHash = hashConfiguration();
+        final Optional<BannedImportGroups> compiledGroups = BannedImportGroupsFile.read(compiledGroupsFile,
+                configurationHash);
+        if (compiledGroups.isPresent()) {
+            LOGGER.debug("Read compiled banned import groups from {}", compiledGroupsFile);
+            return compiledGroups.get();
+        }
+
+        final BannedImportGroups groups = assembleGroups();
+        try {
+            Files.createDirectories(compiledGroupsFile.getParent());
+            BannedImportGroupsFile.write(compiledGroupsFile, configurationHash, groups);
+            LOGGER.debug("Wrote compiled banned import groups to {}", compiledGroupsFile);
+        } catch (final IOException e) {
+            LOGGER.debug("Could not write compiled banned import groups to {}", compiledGroupsFile, e);
+        }
+        return groups;
+    }
+
+    private String hashConfiguration() {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        if (!this.groups.isEmpty()) {
+            this.groups.forEach(group -> group.hashConfiguration(hasher));
+        } else {
+            hashConfiguration(hasher);
+        }
+        return hasher.hash().toString();
+    }
+
     private BannedImportGroups assembleGroups() {
         if (!this.groups.isEmpty()) {
             final List<BannedImportGroup> bannedImportGroups = this.groups.stream()
@@ -104,22 +232,91 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
     }
 
     private AnalyzerSettings createAnalyzerSettingsFromPluginConfiguration(
-            MavenProject mavenProject) {
-        final Collection<Path> srcDirectories = listSourceRoots(mavenProject.getCompileSourceRoots());
-        final Collection<Path> testDirectories = this.includeTestCode
-                ? listSourceRoots(mavenProject.getTestCompileSourceRoots())
-                : Collections.emptyList();
+            MavenProject mavenProject, ArtifactRepository localRepository) {
+        final Collection<Path> srcDirectories;
+        final Collection<Path> testDirectories;
+        if (analyzeClassFiles) {
+            // the rule must be bound to a phase after compilation for these to be
+            // populated
+            srcDirectories = listSourceRoots(
+                    Collections.singletonList(mavenProject.getBuild().getOutputDirectory()));
+            testDirectories = this.includeTestCode
+                    ? listSourceRoots(Collections.singletonList(mavenProject.getBuild().getTestOutputDirectory()))
+                    : Collections.emptyList();
+        } else {
+            srcDirectories = listSourceRoots(mavenProject.getCompileSourceRoots());
+            testDirectories = this.includeTestCode
+                    ? listSourceRoots(mavenProject.getTestCompileSourceRoots())
+                    : Collections.emptyList();
+        }
 
         final Charset sourceFileCharset = determineSourceFileCharset(mavenProject);
 
-        return AnalyzerSettings.builder()
+        final AnalyzerSettings.Builder settings = AnalyzerSettings.builder()
                 .withSrcDirectories(srcDirectories)
                 .withTestDirectories(testDirectories)
                 .withSourceFileCharset(sourceFileCharset)
-                .build();
+                .withParallelism(parallelism == 0
+                        ? Runtime.getRuntime().availableProcessors()
+                        : parallelism)
+                .withConcurrentFileReads(concurrentFileReads)
+                .withPipelineQueueCapacity(pipelineQueueCapacity)
+                .withTrustDirectoryLayout(trustDirectoryLayout)
+                .withAnalyzeClassFiles(analyzeClassFiles)
+                .withDetectFullyQualifiedReferences(detectFullyQualifiedReferences);
+
+        if (includeDependencies) {
+            settings.withDependencyJars(listDependencyJars(mavenProject, localRepository));
+        }
+
+        if (resolveWildcardImports) {
+            final Collection<Path> classpath = new ArrayList<>();
+            classpath.add(Paths.get(mavenProject.getBuild().getOutputDirectory()));
+            if (includeTestCode) {
+                classpath.add(Paths.get(mavenProject.getBuild().getTestOutputDirectory()));
+            }
+            classpath.addAll(listDependencyJars(mavenProject, localRepository));
+            settings.withWildcardClasspath(classpath);
+        }
+
+        if (useImportIndex) {
+            settings.withImportIndexFile(Paths.get(mavenProject.getBuild().getDirectory(), IMPORT_INDEX_FILE));
+        }
+
+        if (parserThreads > 0 || matcherThreads > 0) {
+            settings.withPipeline(Math.max(1, parserThreads), Math.max(1, matcherThreads));
+        }
+        return settings.build();
+    }
+
+    private Collection<Path> listDependencyJars(MavenProject mavenProject, ArtifactRepository localRepository) {
+        final Collection<Path> result = new ArrayList<>();
+        for (final Object element : mavenProject.getArtifacts()) {
+            final Artifact artifact = (Artifact) element;
+            if (!includeTestCode && Artifact.SCOPE_TEST.equals(artifact.getScope())) {
+                continue;
+            }
+            // the enforcer plugin only requires dependencies to be collected, so they
+            // might not have been resolved yet
+            final File file = artifact.getFile() != null || localRepository == null
+                    ? artifact.getFile()
+                    : new File(localRepository.getBasedir(), localRepository.pathOf(artifact));
+            if (file == null || !file.exists()) {
+                // its classes would silently go unchecked
+                LOGGER.warn("Skipping dependency {} as it has not been resolved", artifact);
+                continue;
+            }
+            if (!file.isFile() || !file.getName().endsWith(".jar")) {
+                LOGGER.debug("Skipping dependency {} as it is not a jar file", artifact);
+                continue;
+            }
+            LOGGER.debug("Including dependency: {}", file);
+            result.add(file.toPath());
+        }
+        return result;
     }
 
-    private Charset determineSourceFileCharset(MavenProject mavenProject) {
+    static Charset determineSourceFileCharset(MavenProject mavenProject) {
         final String mavenCharsetName = (String) mavenProject.getProperties().get("project.build.sourceEncoding");
         if (mavenCharsetName != null) {
             return Charset.forName(mavenCharsetName);
@@ -128,7 +325,7 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
-    private Collection<Path> listSourceRoots(Collection pathNames) {
+    static Collection<Path> listSourceRoots(Collection pathNames) {
         final Collection<String> pathNamesAsString = pathNames;
         return pathNamesAsString.stream()
                 .peek(pathName -> LOGGER.debug("Including source dir: {}", pathName))
@@ -168,6 +365,12 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
         super.setBannedImports(bannedPackages);
     }
 
+    @Override
+    public void setBannedImportsFile(File bannedImportsFile) {
+        checkGroups(this.groups.isEmpty());
+        super.setBannedImportsFile(bannedImportsFile);
+    }
+
     @Override
     public void setAllowedImport(String allowedImport) {
         checkGroups(this.groups.isEmpty());
@@ -180,6 +383,12 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
         super.setAllowedImports(allowedImports);
     }
 
+    @Override
+    public void setAllowedImportsFile(File allowedImportsFile) {
+        checkGroups(this.groups.isEmpty());
+        super.setAllowedImportsFile(allowedImportsFile);
+    }
+
     @Override
     public void setExclusion(String exclusion) {
         checkGroups(this.groups.isEmpty());
@@ -216,6 +425,75 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
         this.skip = skip;
     }
 
+    public void setReportFormats(List<String> reportFormats) {
+        checkArgument(reportFormats != null, "reportFormats must not be null");
+        this.reportFormats = reportFormats.stream()
+                .map(ReportFormat::fromString)
+                .collect(Collectors.toList());
+    }
+
+    public void setReportName(String reportName) {
+        checkArgument(reportName != null && !reportName.isEmpty(), "reportName must not be empty");
+        this.reportName = reportName;
+    }
+
+    public void setCacheGroups(boolean cacheGroups) {
+        this.cacheGroups = cacheGroups;
+    }
+
+    public void setParallelism(int parallelism) {
+        checkArgument(parallelism >= 0, "parallelism must not be negative");
+        this.parallelism = parallelism;
+    }
+
+    public void setConcurrentFileReads(int concurrentFileReads) {
+        checkArgument(concurrentFileReads >= 0, "concurrentFileReads must not be negative");
+        this.concurrentFileReads = concurrentFileReads;
+    }
+
+    public void setParserThreads(int parserThreads) {
+        checkArgument(parserThreads >= 0, "parserThreads must not be negative");
+        this.parserThreads = parserThreads;
+    }
+
+    public void setMatcherThreads(int matcherThreads) {
+        checkArgument(matcherThreads >= 0, "matcherThreads must not be negative");
+        this.matcherThreads = matcherThreads;
+    }
+
+    public void setPipelineQueueCapacity(int pipelineQueueCapacity) {
+        checkArgument(pipelineQueueCapacity > 0, "pipelineQueueCapacity must be positive");
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+    }
+
+    public void setTrustDirectoryLayout(boolean trustDirectoryLayout) {
+        this.trustDirectoryLayout = trustDirectoryLayout;
+    }
+
+    public void setAnalyzeClassFiles(boolean analyzeClassFiles) {
+        this.analyzeClassFiles = analyzeClassFiles;
+    }
+
+    public void setIncludeDependencies(boolean includeDependencies) {
+        this.includeDependencies = includeDependencies;
+    }
+
+    public void setShareParsedFiles(boolean shareParsedFiles) {
+        this.shareParsedFiles = shareParsedFiles;
+    }
+
+    public void setUseImportIndex(boolean useImportIndex) {
+        this.useImportIndex = useImportIndex;
+    }
+
+    public void setResolveWildcardImports(boolean resolveWildcardImports) {
+        this.resolveWildcardImports = resolveWildcardImports;
+    }
+
+    public void setDetectFullyQualifiedReferences(boolean detectFullyQualifiedReferences) {
+        this.detectFullyQualifiedReferences = detectFullyQualifiedReferences;
+    }
+
     @Override
     public String getCacheId() {
         return "";
@@ -0,0 +1,131 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.maven.enforcer.rule.api.EnforcerRule;
+import org.apache.maven.enforcer.rule.api.EnforcerRuleException;
+import org.apache.maven.enforcer.rule.api.EnforcerRuleHelper;
+import org.apache.maven.project.MavenProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzerSettings;
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportDefinitionException;
+import de.skuzzle.enforcer.restrictimports.analyze.LayerAnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.LayerAnalyzer;
+import de.skuzzle.enforcer.restrictimports.analyze.Layers;
+import de.skuzzle.enforcer.restrictimports.formatting.MatchFormatter;
+
+/**
+ * Enforcer rule which checks the dependencies between the packages of a code base
+ * against the allowed dependencies of a layered architecture.
+ *
+ * @since 1.1.0
+ */
+public class RestrictLayers implements EnforcerRule {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestrictLayers.class);
+
+    private List<LayerDefinition> layers = Collections.emptyList();
+    private boolean includeTestCode = false;
+    private boolean failBuild = true;
+    private boolean skip = false;
+    private boolean checkTransitiveDependencies = true;
+
+    @Override
+    public void execute(EnforcerRuleHelper helper) throws EnforcerRuleException {
+        if (skip) {
+            LOGGER.info("restrict-layers enforcer rule is skipped");
+            return;
+        }
+
+        try {
+            final MavenProject project = (MavenProject) helper.evaluate("${project}");
+
+            LOGGER.debug("Checking layer dependencies");
+
+            final Layers layers = Layers.builder()
+                    .withLayers(this.layers.stream()
+                            .map(LayerDefinition::createLayerFromPluginConfiguration)
+                            .collect(Collectors.toList()))
+                    .withCheckTransitiveDependencies(checkTransitiveDependencies)
+                    .build();
+            LOGGER.debug("Layers:\n{}", layers);
+
+            final AnalyzerSettings analyzerSettings = AnalyzerSettings.builder()
+                    .withSrcDirectories(RestrictImports.listSourceRoots(project.getCompileSourceRoots()))
+                    .withTestDirectories(includeTestCode
+                            ? RestrictImports.listSourceRoots(project.getTestCompileSourceRoots())
+                            : Collections.emptyList())
+                    .withSourceFileCharset(RestrictImports.determineSourceFileCharset(project))
+                    .build();
+            LOGGER.debug("Analyzer settings:\n{}", analyzerSettings);
+
+            final LayerAnalyzeResult result = LayerAnalyzer.getInstance().analyze(analyzerSettings, layers);
+            LOGGER.debug("Analyzer result:\n{}", result);
+
+            if (result.violationsFound()) {
+                final String errorMessage = MatchFormatter.getInstance()
+                        .formatLayerViolations(analyzerSettings.getAllDirectories(), result);
+                if (failBuild) {
+                    throw new EnforcerRuleException(errorMessage);
+                }
+                LOGGER.warn(errorMessage);
+                LOGGER.warn(
+                        "\nDetected layer violations will not fail the build as the 'failBuild' flag is set to false!");
+            } else {
+                LOGGER.debug("No layer violations found");
+            }
+        } catch (final UncheckedIOException e) {
+            throw new EnforcerRuleException(e.getMessage(), e);
+        } catch (final BannedImportDefinitionException e) {
+            throw new EnforcerRuleException("RestrictLayers rule configuration error: " + e.getMessage(), e);
+        } catch (final EnforcerRuleException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new EnforcerRuleException("Encountered unexpected exception: " + e.getLocalizedMessage(), e);
+        }
+    }
+
+    public void setLayers(List<LayerDefinition> layers) {
+        checkArgument(layers != null && !layers.isEmpty(), "Layers may not be empty");
+        this.layers = layers;
+    }
+
+    public final void setIncludeTestCode(boolean includeTestCode) {
+        this.includeTestCode = includeTestCode;
+    }
+
+    public void setFailBuild(boolean failBuild) {
+        this.failBuild = failBuild;
+    }
+
+    public void setSkip(boolean skip) {
+        this.skip = skip;
+    }
+
+    public void setCheckTransitiveDependencies(boolean checkTransitiveDependencies) {
+        this.checkTransitiveDependencies = checkTransitiveDependencies;
+    }
+
+    @Override
+    public String getCacheId() {
+        return "";
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
+    @Override
+    public boolean isResultValid(EnforcerRule rule) {
+        return false;
+    }
+
+}
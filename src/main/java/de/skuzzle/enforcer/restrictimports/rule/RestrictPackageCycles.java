@@ -0,0 +1,132 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.enforcer.rule.api.EnforcerRule;
+import org.apache.maven.enforcer.rule.api.EnforcerRuleException;
+import org.apache.maven.enforcer.rule.api.EnforcerRuleHelper;
+import org.apache.maven.project.MavenProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzerSettings;
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportDefinitionException;
+import de.skuzzle.enforcer.restrictimports.analyze.PackageCycleAnalyzer;
+import de.skuzzle.enforcer.restrictimports.analyze.PackageCycleResult;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+import de.skuzzle.enforcer.restrictimports.formatting.MatchFormatter;
+
+/**
+ * Enforcer rule which fails if packages of the code base depend on each other in a
+ * cycle.
+ *
+ * @since 1.1.0
+ */
+public class RestrictPackageCycles implements EnforcerRule {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestrictPackageCycles.class);
+
+    private List<String> basePackages = Collections.singletonList("**");
+    private boolean includeTestCode = false;
+    private boolean failBuild = true;
+    private boolean skip = false;
+    private boolean shareParsedFiles = false;
+
+    @Override
+    public void execute(EnforcerRuleHelper helper) throws EnforcerRuleException {
+        if (skip) {
+            LOGGER.info("restrict-package-cycles enforcer rule is skipped");
+            return;
+        }
+
+        try {
+            final MavenProject project = (MavenProject) helper.evaluate("${project}");
+
+            LOGGER.debug("Checking for package cycles");
+
+            final List<PackagePattern> basePackagePatterns = PackagePattern.parseAll(basePackages);
+
+            final AnalyzerSettings analyzerSettings = AnalyzerSettings.builder()
+                    .withSrcDirectories(RestrictImports.listSourceRoots(project.getCompileSourceRoots()))
+                    .withTestDirectories(includeTestCode
+                            ? RestrictImports.listSourceRoots(project.getTestCompileSourceRoots())
+                            : Collections.emptyList())
+                    .withSourceFileCharset(RestrictImports.determineSourceFileCharset(project))
+                    .build();
+            LOGGER.debug("Analyzer settings:\n{}", analyzerSettings);
+
+            final PackageCycleAnalyzer analyzer = shareParsedFiles
+                    ? PackageCycleAnalyzer.getInstance(RestrictImports.parseCacheFor(project))
+                    : PackageCycleAnalyzer.getInstance();
+            final PackageCycleResult result = analyzer.analyze(analyzerSettings, basePackagePatterns);
+            LOGGER.debug("Analyzer result:\n{}", result);
+
+            if (result.cyclesFound()) {
+                final String errorMessage = MatchFormatter.getInstance()
+                        .formatPackageCycles(analyzerSettings.getAllDirectories(), result);
+                if (failBuild) {
+                    throw new EnforcerRuleException(errorMessage);
+                }
+                LOGGER.warn(errorMessage);
+                LOGGER.warn(
+                        "\nDetected package cycles will not fail the build as the 'failBuild' flag is set to false!");
+            } else {
+                LOGGER.debug("No package cycles found");
+            }
+        } catch (final UncheckedIOException e) {
+            throw new EnforcerRuleException(e.getMessage(), e);
+        } catch (final BannedImportDefinitionException e) {
+            throw new EnforcerRuleException("RestrictPackageCycles rule configuration error: " + e.getMessage(),
+                    e);
+        } catch (final EnforcerRuleException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new EnforcerRuleException("Encountered unexpected exception: " + e.getLocalizedMessage(), e);
+        }
+    }
+
+    public void setBasePackage(String basePackage) {
+        setBasePackages(Collections.singletonList(basePackage));
+    }
+
+    public void setBasePackages(List<String> basePackages) {
+        checkArgument(basePackages != null && !basePackages.isEmpty(), "Base packages may not be empty");
+        this.basePackages = basePackages;
+    }
+
+    public final void setIncludeTestCode(boolean includeTestCode) {
+        this.includeTestCode = includeTestCode;
+    }
+
+    public void setFailBuild(boolean failBuild) {
+        this.failBuild = failBuild;
+    }
+
+    public void setSkip(boolean skip) {
+        this.skip = skip;
+    }
+
+    public void setShareParsedFiles(boolean shareParsedFiles) {
+        this.shareParsedFiles = shareParsedFiles;
+    }
+
+    @Override
+    public String getCacheId() {
+        return "";
+    }
+
+    @Override
+    public boolean isCacheable() {
+        return false;
+    }
+
+    @Override
+    public boolean isResultValid(EnforcerRule rule) {
+        return false;
+    }
+
+}
@@ -1,5 +1,13 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -8,6 +16,31 @@ public class AnalyzeResultTest {
 
     @Test
     public void testEquals() throws Exception {
-        EqualsVerifier.forClass(AnalyzeResult.class).withIgnoredFields("duration").verify();
+        EqualsVerifier.forClass(AnalyzeResult.class)
+                .withIgnoredFields("duration")
+                .withPrefabValues(BannedImportGroup.class,
+                        BannedImportGroup.builder().withBannedImports("foo.bar").build(),
+                        BannedImportGroup.builder().withBannedImports("bar.foo").build())
+                .verify();
+    }
+
+    @Test
+    public void testGroupMatchesWithSameIdOfDifferentGroups() throws Exception {
+        final BannedImportGroup first = BannedImportGroup.builder().withBannedImports("foo.bar").build();
+        final BannedImportGroup second = BannedImportGroup.builder().withBannedImports("bar.foo").build();
+        final Path firstFile = Paths.get("First.java");
+        final Path secondFile = Paths.get("Second.java");
+        // ids of two different analyses
+        final MatchedFile firstMatch = new MatchedFile(firstFile, null, Collections.emptyList(), first, 0);
+        final MatchedFile secondMatch = new MatchedFile(secondFile, null, Collections.emptyList(), second, 0);
+
+        final Map<BannedImportGroup, ?> byGroup = AnalyzeResult.builder()
+                .withMatches(Arrays.asList(firstMatch, secondMatch))
+                .build()
+                .srcMatchesByGroup();
+
+        assertThat(byGroup).containsOnlyKeys(first, second);
+        assertThat(byGroup.get(first)).isEqualTo(Collections.singletonList(firstMatch));
+        assertThat(byGroup.get(second)).isEqualTo(Collections.singletonList(secondMatch));
     }
 }
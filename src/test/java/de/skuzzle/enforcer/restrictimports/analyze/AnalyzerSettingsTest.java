@@ -15,6 +15,7 @@ public class AnalyzerSettingsTest {
                 // o_O
                 .withPrefabValues(Charset.class, StandardCharsets.ISO_8859_1,
                         StandardCharsets.UTF_8)
+                .withIgnoredFields("allDirectories")
                 .verify();
     }
 }
@@ -2,6 +2,8 @@ package de.skuzzle.enforcer.restrictimports.analyze;
 
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.util.Arrays;
+
 import org.junit.jupiter.api.Test;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -10,7 +12,13 @@ public class BannedImportGroupTest {
 
     @Test
     public void testEquals() throws Exception {
-        EqualsVerifier.forClass(BannedImportGroup.class).verify();
+        EqualsVerifier.forClass(BannedImportGroup.class)
+                .withPrefabValues(PackagePatternAutomaton.class,
+                        new PackagePatternAutomaton(PackagePattern.parseAll(Arrays.asList("foo.bar"))),
+                        new PackagePatternAutomaton(PackagePattern.parseAll(Arrays.asList("bar.foo"))))
+                .withIgnoredFields("basePackageMatcher", "bannedImportMatcher", "allowedImportMatcher",
+                        "excludedClassMatcher", "bannedImportPrefilter")
+                .verify();
     }
 
     @Test
@@ -0,0 +1,79 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BannedImportGroupsFileTest {
+
+    private final BannedImportGroups groups = BannedImportGroups.builder()
+            .withGroup(BannedImportGroup.builder()
+                    .withBasePackages("de.skuzzle.**")
+                    .withBannedImports("java.util.**", "static org.junit.Assert.*")
+                    .withAllowedImports("java.util.List")
+                    .withExcludedClasses("de.skuzzle.Sample")
+                    .withReason("Häßlich"))
+            .withGroup(BannedImportGroup.builder()
+                    .withBannedImports("java.awt.**"))
+            .build();
+
+    private Path file;
+
+    @BeforeEach
+    void setup() throws Exception {
+        file = Files.createTempFile("compiled-groups", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        BannedImportGroupsFile.write(file, "hash", groups);
+
+        assertThat(BannedImportGroupsFile.read(file, "hash")).hasValue(groups);
+    }
+
+    @Test
+    void testReadGroupsMatchLikeOriginal() throws Exception {
+        BannedImportGroupsFile.write(file, "hash", groups);
+        final BannedImportGroups read = BannedImportGroupsFile.read(file, "hash").get();
+
+        final BannedImportGroup group = read.selectGroupFor("de.skuzzle.Other").get();
+        assertThat(group.ifImportIsBanned("java.util.ArrayList")).isPresent();
+        assertThat(group.ifImportIsBanned("java.util.List")).isEmpty();
+        assertThat(group.ifImportIsBanned("static org.junit.Assert.assertTrue")).isPresent();
+        assertThat(read.selectGroupFor("de.skuzzle.Sample")).isEmpty();
+    }
+
+    @Test
+    void testDifferentHash() throws Exception {
+        BannedImportGroupsFile.write(file, "hash", groups);
+
+        assertThat(BannedImportGroupsFile.read(file, "otherHash")).isEmpty();
+    }
+
+    @Test
+    void testMissingFile() throws Exception {
+        Files.delete(file);
+
+        assertThat(BannedImportGroupsFile.read(file, "hash")).isEmpty();
+    }
+
+    @Test
+    void testCorruptFile() throws Exception {
+        BannedImportGroupsFile.write(file, "hash", groups);
+        final byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length / 2));
+
+        assertThat(BannedImportGroupsFile.read(file, "hash")).isEmpty();
+    }
+}
@@ -1,5 +1,7 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import org.junit.jupiter.api.Test;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -8,6 +10,32 @@ public class BannedImportGroupsTest {
 
     @Test
     void testEquals() throws Exception {
-        EqualsVerifier.forClass(BannedImportGroups.class).verify();
+        EqualsVerifier.forClass(BannedImportGroups.class)
+                .withIgnoredFields("patternIdOffsets", "classNameIndex", "wildcardVerdicts")
+                .withPrefabValues(BannedImportGroup.class,
+                        BannedImportGroup.builder().withBannedImports("foo.bar").build(),
+                        BannedImportGroup.builder().withBannedImports("bar.foo").build())
+                .verify();
+    }
+
+    @Test
+    void testDensePatternIds() throws Exception {
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList", "java.util.LinkedList"))
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("de.skuzzle.**")
+                        .withBannedImports("java.io.*"))
+                .build();
+
+        assertThat(groups.getPatternCount()).isEqualTo(3);
+        assertThat(groups.selectGroupIdFor("com.foo.Bar")).isEqualTo(0);
+        assertThat(groups.selectGroupIdFor("de.skuzzle.Sample")).isEqualTo(1);
+        assertThat(groups.bannedPatternIdFor(0, "java.util.LinkedList")).isEqualTo(1);
+        assertThat(groups.bannedPatternIdFor(1, "java.io.File")).isEqualTo(2);
+        assertThat(groups.bannedPatternIdFor(1, "java.util.LinkedList")).isEqualTo(-1);
+        assertThat(groups.getPattern(1)).isEqualTo(PackagePattern.parse("java.util.LinkedList"));
+        assertThat(groups.getPattern(2)).isEqualTo(PackagePattern.parse("java.io.*"));
     }
 }
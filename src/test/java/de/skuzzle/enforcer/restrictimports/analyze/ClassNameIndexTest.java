@@ -0,0 +1,113 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+public class ClassNameIndexTest {
+
+    private static final String[] ENTRIES = {
+            "META-INF/MANIFEST.MF",
+            "META-INF/versions/9/org/junit/Hidden.class",
+            "module-info.class",
+            "org/junit/package-info.class",
+            "org/junit/Test.class",
+            "org/junit/Assert.class",
+            "org/junit/Assert$1.class",
+            "org/junit/Assert$Nested.class",
+            "org/junit/Assert$Nested$1Local.class",
+            "org/junit/runner/Runner.class"
+    };
+
+    private Path repository;
+    private Path jar;
+
+    @BeforeEach
+    void setup() throws Exception {
+        repository = Files.createTempDirectory("restrict-imports");
+        jar = repository.resolve("sample.jar");
+        writeJar(jar, ENTRIES);
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        MoreFiles.deleteRecursively(repository, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    @Test
+    void testIndexJar() throws Exception {
+        final ClassNameIndex subject = ClassNameIndex.of(Collections.singletonList(jar));
+
+        assertThat(subject.getSimpleNames("org.junit")).containsExactly("Assert", "Test");
+        assertThat(subject.getSimpleNames("org.junit.Assert")).containsExactly("Nested");
+        assertThat(subject.getSimpleNames("org.junit.runner")).containsExactly("Runner");
+        assertThat(subject.getSimpleNames("org.junit.Assert.Nested")).isEmpty();
+        assertThat(subject.getSimpleNames("")).isEmpty();
+        assertThat(subject.getSimpleNames("org")).isEmpty();
+    }
+
+    @Test
+    void testIndexDirectory() throws Exception {
+        final Path classes = repository.resolve("classes");
+        Files.createDirectories(classes.resolve("com/foo"));
+        Files.createFile(classes.resolve("com/foo/Foo.class"));
+        Files.createFile(classes.resolve("com/foo/Foo$Bar.class"));
+
+        final ClassNameIndex subject = ClassNameIndex.of(Arrays.asList(classes, jar,
+                repository.resolve("missing")));
+
+        assertThat(subject.getSimpleNames("com.foo")).containsExactly("Foo");
+        assertThat(subject.getSimpleNames("com.foo.Foo")).containsExactly("Bar");
+        assertThat(subject.getSimpleNames("org.junit")).containsExactly("Assert", "Test");
+    }
+
+    @Test
+    void testReuseNamesOfUnchangedJar() throws Exception {
+        ClassNameIndex.of(Collections.singletonList(jar));
+
+        // same size and modification time
+        final FileTime lastModified = Files.getLastModifiedTime(jar);
+        final long size = Files.size(jar);
+        final String[] renamed = ENTRIES.clone();
+        renamed[4] = "org/junit/Tost.class";
+        writeJar(jar, renamed);
+        assertThat(Files.size(jar)).isEqualTo(size);
+        Files.setLastModifiedTime(jar, lastModified);
+
+        assertThat(ClassNameIndex.of(Collections.singletonList(jar)).getSimpleNames("org.junit"))
+                .containsExactly("Assert", "Test");
+    }
+
+    @Test
+    void testIndexChangedJarAgain() throws Exception {
+        ClassNameIndex.of(Collections.singletonList(jar));
+        writeJar(jar, "com/foo/Foo.class");
+
+        final ClassNameIndex subject = ClassNameIndex.of(Collections.singletonList(jar));
+
+        assertThat(subject.getSimpleNames("com.foo")).containsExactly("Foo");
+        assertThat(subject.getSimpleNames("org.junit")).isEmpty();
+    }
+
+    private static void writeJar(Path jar, String... entries) throws Exception {
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+            for (final String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.closeEntry();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+import de.skuzzle.enforcer.restrictimports.parser.ClassFileParser;
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
+import de.skuzzle.enforcer.restrictimports.parser.ParsedFile;
+
+public class DependencyScannerTest {
+
+    private static final String ENTRY = "de/skuzzle/enforcer/restrictimports/analyze/ImportPrefilterTest.class";
+
+    private final DependencyScanner subject = new DependencyScanner(ClassFileParser.defaultInstance(),
+            new ImportAnalyzer(), 2);
+
+    private Path repository;
+    private Path jar;
+
+    @BeforeEach
+    void setup() throws Exception {
+        repository = Files.createTempDirectory("restrict-imports");
+        jar = repository.resolve("sample.jar");
+        writeJar("META-INF/MANIFEST.MF");
+    }
+
+    private void writeJar(String otherEntry) throws Exception {
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar));
+                InputStream in = ImportPrefilterTest.class.getResourceAsStream("ImportPrefilterTest.class")) {
+            out.putNextEntry(new ZipEntry(otherEntry));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry(ENTRY));
+            ByteStreams.copy(in, out);
+            out.closeEntry();
+        }
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        MoreFiles.deleteRecursively(repository, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    @Test
+    void testFindMatchInJar() throws Exception {
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("de.skuzzle.**")
+                .withBannedImports("java.util.Random")
+                .build();
+        final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+
+        final List<MatchedFile> matches = new ArrayList<>();
+        subject.scan(Collections.singletonList(jar), groups, matches::add);
+
+        assertThat(matches).containsOnly(MatchedFile.forSourceFile(jar.resolve(ENTRY))
+                .inSourceRoot(jar)
+                .matchedBy(group)
+                .withMatchAt(ImportStatement.UNKNOWN_LINE, "java.util.Random", PackagePattern.parse("java.util.Random"))
+                .build());
+    }
+
+    @Test
+    void testFindMatchesInSeveralJars() throws Exception {
+        final Path otherJar = repository.resolve("other.jar");
+        Files.copy(jar, otherJar);
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("de.skuzzle.**")
+                .withBannedImports("java.util.Random")
+                .build();
+        final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+
+        final List<MatchedFile> matches = new ArrayList<>();
+        subject.scan(Arrays.asList(jar, otherJar), groups, matches::add);
+
+        assertThat(matches).extracting(MatchedFile::getSourceFile)
+                .containsExactly(jar.resolve(ENTRY), otherJar.resolve(ENTRY));
+    }
+
+    @Test
+    void testReuseClassesOfUnchangedJar() throws Exception {
+        final List<ParsedFile> scanned = subject.readClasses(jar, Optional.empty());
+
+        // same size and modification time
+        final FileTime lastModified = Files.getLastModifiedTime(jar);
+        final long size = Files.size(jar);
+        writeJar("META-INF/MANIFEST.MX");
+        assertThat(Files.size(jar)).isEqualTo(size);
+        Files.setLastModifiedTime(jar, lastModified);
+
+        assertThat(subject.readClasses(jar, Optional.empty())).isSameAs(scanned);
+        assertThat(repository.toFile().list()).containsOnly("sample.jar");
+    }
+
+    @Test
+    void testScanChangedJarAgain() throws Exception {
+        final List<ParsedFile> scanned = subject.readClasses(jar, Optional.empty());
+
+        writeJar("META-INF/LICENSE");
+
+        final List<ParsedFile> rescanned = subject.readClasses(jar, Optional.empty());
+        assertThat(rescanned).isNotSameAs(scanned).isEqualTo(scanned);
+    }
+}
@@ -0,0 +1,133 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DirectoryLayoutFilterTest {
+
+    private static final String[] PATTERN_PARTS = { "a", "b", "c", "*", "**" };
+    private static final String[] NAME_PARTS = { "a", "b", "c", "d" };
+
+    private final Path root = Paths.get("src", "main", "java");
+
+    private DirectoryLayoutFilter filterFor(String basePackage, String... exclusions) {
+        return DirectoryLayoutFilter.forGroups(BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages(basePackage)
+                        .withBannedImports("foo.bar")
+                        .withExcludedClasses(exclusions)
+                        .buildWithoutConsistencyCheck())
+                .build());
+    }
+
+    private boolean accepts(DirectoryLayoutFilter filter, String directory) {
+        return filter.acceptsDirectory(root, root.resolve(directory));
+    }
+
+    @Test
+    void testAcceptsRoot() throws Exception {
+        assertThat(filterFor("com.foo.**").acceptsDirectory(root, root)).isTrue();
+    }
+
+    @Test
+    void testPrunesUnrelatedPackage() throws Exception {
+        final DirectoryLayoutFilter filter = filterFor("com.acme.billing.**");
+
+        assertThat(accepts(filter, "com")).isTrue();
+        assertThat(accepts(filter, "com/acme")).isTrue();
+        assertThat(accepts(filter, "com/acme/billing")).isTrue();
+        assertThat(accepts(filter, "com/acme/billing/impl")).isTrue();
+        assertThat(accepts(filter, "com/acme/shipping")).isFalse();
+        assertThat(accepts(filter, "org")).isFalse();
+    }
+
+    @Test
+    void testPrunesExcludedPackage() throws Exception {
+        final DirectoryLayoutFilter filter = filterFor("com.acme.**", "com.acme.generated.**");
+
+        assertThat(accepts(filter, "com/acme")).isTrue();
+        assertThat(accepts(filter, "com/acme/generated")).isFalse();
+        assertThat(accepts(filter, "com/acme/generated/foo")).isFalse();
+    }
+
+    @Test
+    void testAcceptsFileByGuessedClassName() throws Exception {
+        final DirectoryLayoutFilter filter = filterFor("com.acme.billing.*", "com.acme.billing.Generated");
+
+        assertThat(filter.acceptsFile(root, root.resolve("com/acme/billing/Invoice.java"))).isTrue();
+        assertThat(filter.acceptsFile(root, root.resolve("com/acme/billing/Generated.java"))).isFalse();
+        assertThat(filter.acceptsFile(root, root.resolve("com/acme/billing/impl/Invoice.java"))).isFalse();
+        assertThat(filter.acceptsFile(root, root.resolve("Invoice.java"))).isFalse();
+    }
+
+    @Test
+    void testAcceptAll() throws Exception {
+        assertThat(DirectoryLayoutFilter.ACCEPT_ALL.acceptsDirectory(root, root.resolve("foo"))).isTrue();
+        assertThat(DirectoryLayoutFilter.ACCEPT_ALL.acceptsFile(root, root.resolve("foo/Bar.java"))).isTrue();
+    }
+
+    @Test
+    void testLeadingDoubleWildcardAcceptsEverything() throws Exception {
+        final DirectoryLayoutFilter filter = filterFor("**.internal.*");
+
+        assertThat(accepts(filter, "com/acme")).isTrue();
+        assertThat(accepts(filter, "com/internal")).isTrue();
+    }
+
+    @Test
+    void testNeverPrunesRelevantDirectory() throws Exception {
+        final Random random = new Random(1337);
+        for (int run = 0; run < 2000; ++run) {
+            final String basePackage = randomParts(random, PATTERN_PARTS, 4);
+            final String exclusion = randomParts(random, PATTERN_PARTS, 4);
+            final String directory = randomParts(random, NAME_PARTS, 3);
+            final PackagePattern base = PackagePattern.parse(basePackage);
+            final PackagePattern excluded = PackagePattern.parse(exclusion);
+
+            final boolean relevant = classNamesIn(directory).stream()
+                    .anyMatch(fqcn -> base.matches(fqcn) && !excluded.matches(fqcn));
+            if (relevant) {
+                assertThat(accepts(filterFor(basePackage, exclusion), directory.replace('.', '/')))
+                        .describedAs("%s with base %s and exclusion %s", directory, basePackage, exclusion)
+                        .isTrue();
+            }
+        }
+    }
+
+    // all names with up to 3 more parts
+    private static List<String> classNamesIn(String directory) {
+        final List<String> result = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        current.add(directory);
+        for (int depth = 0; depth < 3; ++depth) {
+            final List<String> next = new ArrayList<>();
+            for (final String prefix : current) {
+                for (final String part : NAME_PARTS) {
+                    next.add(prefix + "." + part);
+                }
+            }
+            result.addAll(next);
+            current = next;
+        }
+        return result;
+    }
+
+    private static String randomParts(Random random, String[] parts, int maxLength) {
+        final StringBuilder b = new StringBuilder();
+        final int length = 1 + random.nextInt(maxLength);
+        for (int j = 0; j < length; ++j) {
+            if (j > 0) {
+                b.append('.');
+            }
+            b.append(parts[random.nextInt(parts.length)]);
+        }
+        return b.toString();
+    }
+}
@@ -47,7 +47,7 @@ class ImportAnalyzerTest {
                         .withBasePackages("foo.bar", "de.skuzzle.test.*")
                         .withBannedImports("de.skuzzle.sample.*"))
                 .build();
-        final Optional<MatchedFile> matches = this.subject.matchFile(parsedFile, groups);
+        final Optional<MatchedFile> matches = this.subject.matchFile(null, parsedFile, groups);
 
         final PackagePattern expectedMatchedBy = PackagePattern
                 .parse("de.skuzzle.sample.*");
@@ -67,7 +67,7 @@ class ImportAnalyzerTest {
                         .withBannedImports("de.skuzzle.sample.*")
                         .withAllowedImports("de.skuzzle.sample.Test2", "de.skuzzle.sample.Test4"))
                 .build();
-        final Optional<MatchedFile> matches = this.subject.matchFile(this.parsedFile, groups);
+        final Optional<MatchedFile> matches = this.subject.matchFile(null, this.parsedFile, groups);
 
         final PackagePattern expectedMatchedBy = PackagePattern
                 .parse("de.skuzzle.sample.*");
@@ -88,7 +88,7 @@ class ImportAnalyzerTest {
                         .withReason("message"))
                 .build();
 
-        final Optional<MatchedFile> matches = this.subject.matchFile(this.parsedFile, groups);
+        final Optional<MatchedFile> matches = this.subject.matchFile(null, this.parsedFile, groups);
         assertThat(matches).isEmpty();
     }
 
@@ -103,14 +103,14 @@ class ImportAnalyzerTest {
                         .withBannedImports("de.skuzzle.sample.**"))
                 .build();
 
-        assertThat(subject.matchFile(parsedFile, groups).get().getMatchedImports()).first()
+        assertThat(subject.matchFile(null, parsedFile, groups).get().getMatchedImports()).first()
                 .isEqualTo(new MatchedImport(1,
                         "de.skuzzle.sample.Test", PackagePattern.parse("de.skuzzle.sample.**")));
     }
 
     @Test
     void testExcludeWholeFileByBasePackage() throws Exception {
-        final Optional<MatchedFile> matches = this.subject.matchFile(this.parsedFile,
+        final Optional<MatchedFile> matches = this.subject.matchFile(null, this.parsedFile,
                 BannedImportGroups.builder()
                         .withGroup(BannedImportGroup.builder()
                                 .withBasePackages("de.foo.bar")
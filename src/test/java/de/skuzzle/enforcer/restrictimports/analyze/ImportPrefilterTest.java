@@ -0,0 +1,80 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ImportPrefilterTest {
+
+    private static final String[] PATTERN_PARTS = { "a", "b", "c", "*", "**", "'*'" };
+    private static final String[] NAME_PARTS = { "a", "b", "c", "d", "*" };
+
+    @Test
+    void testRejectsUnrelatedImports() throws Exception {
+        final ImportPrefilter subject = new ImportPrefilter(PackagePattern.parseAll(Arrays.asList(
+                "sun.misc.Unsafe",
+                "java.sql.*",
+                "org.junit.**",
+                "static org.junit.Assert.*")));
+
+        assertThat(subject.mightBeBanned("sun.misc.Unsafe")).isTrue();
+        assertThat(subject.mightBeBanned("sun.misc.Signal")).isTrue();
+        assertThat(subject.mightBeBanned("java.sql.Connection")).isTrue();
+        assertThat(subject.mightBeBanned("java.util.List")).isFalse();
+        assertThat(subject.mightBeBanned("com.foo.Bar")).isFalse();
+        assertThat(subject.mightBeBanned("java")).isTrue();
+        assertThat(subject.mightBeBanned("static org.junit.Assert.assertTrue")).isTrue();
+        assertThat(subject.mightBeBanned("static java.util.Objects.equals")).isFalse();
+    }
+
+    @Test
+    void testLeadingWildcardAcceptsAll() throws Exception {
+        final ImportPrefilter subject = new ImportPrefilter(PackagePattern.parseAll(Arrays.asList(
+                "java.sql.*",
+                "**.internal.*")));
+
+        assertThat(subject.mightBeBanned("com.foo.Bar")).isTrue();
+        assertThat(subject.mightBeBanned("static com.foo.Bar.baz")).isFalse();
+    }
+
+    @Test
+    void testNeverRejectsMatchingImport() throws Exception {
+        final Random random = new Random(815);
+        for (int run = 0; run < 200; ++run) {
+            final List<PackagePattern> patterns = new ArrayList<>();
+            for (int i = 0, count = 1 + random.nextInt(5); i < count; ++i) {
+                patterns.add(PackagePattern.parse(randomName(random, PATTERN_PARTS)));
+            }
+            final ImportPrefilter subject = new ImportPrefilter(patterns);
+
+            for (int i = 0; i < 100; ++i) {
+                final String name = randomName(random, NAME_PARTS);
+                if (patterns.stream().anyMatch(pattern -> pattern.matches(name))) {
+                    assertThat(subject.mightBeBanned(name))
+                            .describedAs("%s in %s", name, patterns)
+                            .isTrue();
+                }
+            }
+        }
+    }
+
+    private static String randomName(Random random, String[] parts) {
+        final StringBuilder b = new StringBuilder();
+        if (random.nextInt(5) == 0) {
+            b.append("static ");
+        }
+        final int length = 1 + random.nextInt(5);
+        for (int j = 0; j < length; ++j) {
+            if (j > 0) {
+                b.append('.');
+            }
+            b.append(parts[random.nextInt(parts.length)]);
+        }
+        return b.toString();
+    }
+}
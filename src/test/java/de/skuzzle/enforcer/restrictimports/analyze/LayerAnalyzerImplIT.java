@@ -0,0 +1,181 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+import de.skuzzle.enforcer.restrictimports.formatting.MatchFormatter;
+
+public class LayerAnalyzerImplIT {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/");
+
+    private final AnalyzerSettings settings = AnalyzerSettings.builder()
+            .withSrcDirectories(root)
+            .build();
+
+    private final LayerAnalyzer subject = LayerAnalyzer.getInstance();
+
+    private Layers layers(boolean checkTransitiveDependencies) {
+        return Layers.builder()
+                .withLayer(Layer.builder()
+                        .withName("web")
+                        .withPackages("de.skuzzle.web.**")
+                        .withAllowedDependencies("service"))
+                .withLayer(Layer.builder()
+                        .withName("service")
+                        .withPackages("de.skuzzle.service.**")
+                        .withAllowedDependencies("persistence"))
+                .withLayer(Layer.builder()
+                        .withName("persistence")
+                        .withPackages("de.skuzzle.persistence.**"))
+                .withCheckTransitiveDependencies(checkTransitiveDependencies)
+                .build();
+    }
+
+    @Test
+    void testNoViolations() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/web/Controller.java")
+                .withLines("package de.skuzzle.web;",
+                        "import de.skuzzle.service.Service;",
+                        "import java.util.List;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/service/Service.java")
+                .withLines("package de.skuzzle.service;",
+                        "import de.skuzzle.persistence.Repository;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/persistence/Repository.java")
+                .withLines("package de.skuzzle.persistence;");
+
+        final LayerAnalyzeResult result = subject.analyze(settings, layers(true));
+
+        assertThat(result.violationsFound()).isFalse();
+    }
+
+    @Test
+    void testDirectViolation() throws Exception {
+        final Path controller = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/web/Controller.java")
+                .withLines("package de.skuzzle.web;",
+                        "import de.skuzzle.service.Service;",
+                        "import de.skuzzle.persistence.Repository;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/service/Service.java")
+                .withLines("package de.skuzzle.service;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/persistence/Repository.java")
+                .withLines("package de.skuzzle.persistence;");
+
+        final LayerAnalyzeResult result = subject.analyze(settings, layers(true));
+
+        assertThat(result.getSrcViolations()).containsExactly(new LayerViolation(controller, root, 3,
+                "de.skuzzle.persistence.Repository", "web", "persistence", Collections.emptyList()));
+        assertThat(result.getLayerCycles()).isEmpty();
+        assertThat(MatchFormatter.getInstance().formatLayerViolations(settings.getAllDirectories(), result))
+                .startsWith("\nLayer violations detected:\n\n"
+                        + "\tin file: work/src/main/java/de/skuzzle/web/Controller.java\n"
+                        + "\t\tde.skuzzle.persistence.Repository (Line: 3, Layer web must not depend on persistence)\n");
+    }
+
+    @Test
+    void testTransitiveViolationThroughUnlayeredPackages() throws Exception {
+        final Path controller = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/web/Controller.java")
+                .withLines("package de.skuzzle.web;",
+                        "import static de.skuzzle.util.Helper.help;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/util/Helper.java")
+                .withLines("package de.skuzzle.util;",
+                        "import de.skuzzle.util.internal.*;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/util/internal/Internal.java")
+                .withLines("package de.skuzzle.util.internal;",
+                        "import de.skuzzle.util.Helper;",
+                        "import de.skuzzle.persistence.Repository.Nested;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/persistence/Repository.java")
+                .withLines("package de.skuzzle.persistence;");
+
+        final LayerAnalyzeResult result = subject.analyze(settings, layers(true));
+
+        assertThat(result.getSrcViolations()).containsExactly(new LayerViolation(controller, root, 2,
+                "static de.skuzzle.util.Helper.help", "web", "persistence",
+                Arrays.asList("de.skuzzle.util", "de.skuzzle.util.internal", "de.skuzzle.persistence")));
+        assertThat(subject.analyze(settings, layers(false)).violationsFound()).isFalse();
+    }
+
+    @Test
+    void testLayersAreSelectedForWholePackages() throws Exception {
+        final Path special = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/web/Special.java")
+                .withLines("package de.skuzzle.web;",
+                        "import de.skuzzle.persistence.Repository;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/persistence/Repository.java")
+                .withLines("package de.skuzzle.persistence;");
+        final Layers layers = Layers.builder()
+                .withLayer(Layer.builder()
+                        .withName("web")
+                        .withPackages("de.skuzzle.web.*"))
+                .withLayer(Layer.builder()
+                        .withName("special")
+                        .withPackages("de.skuzzle.web.Special")
+                        .withAllowedDependencies("persistence"))
+                .withLayer(Layer.builder()
+                        .withName("persistence")
+                        .withPackages("de.skuzzle.persistence.*"))
+                .build();
+
+        final LayerAnalyzeResult result = subject.analyze(settings, layers);
+
+        assertThat(result.getSrcViolations()).containsExactly(new LayerViolation(special, root, 2,
+                "de.skuzzle.persistence.Repository", "web", "persistence", Collections.emptyList()));
+    }
+
+    @Test
+    void testLayerCycle() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/service/Service.java")
+                .withLines("package de.skuzzle.service;",
+                        "import de.skuzzle.persistence.Repository;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/persistence/Repository.java")
+                .withLines("package de.skuzzle.persistence;",
+                        "import de.skuzzle.service.Service;");
+
+        final LayerAnalyzeResult result = subject.analyze(settings, layers(true));
+
+        assertThat(result.getSrcViolations()).hasSize(1);
+        assertThat(result.getLayerCycles()).containsExactly(Arrays.asList("service", "persistence"));
+    }
+
+    @Test
+    void testViolationInTestCode() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/persistence/Repository.java")
+                .withLines("package de.skuzzle.persistence;");
+        final Path test = new SourceFileBuilder(fs)
+                .atPath("src/test/java/de/skuzzle/web/ControllerTest.java")
+                .withLines("package de.skuzzle.web;",
+                        "import de.skuzzle.persistence.Repository;");
+
+        final AnalyzerSettings testSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(fs.getPath("/work/src/main/java"))
+                .withTestDirectories(fs.getPath("/work/src/test/java"))
+                .build();
+        final LayerAnalyzeResult result = subject.analyze(testSettings, layers(true));
+
+        assertThat(result.getSrcViolations()).isEmpty();
+        assertThat(result.getTestViolations()).extracting(LayerViolation::getSourceFile).containsExactly(test);
+    }
+}
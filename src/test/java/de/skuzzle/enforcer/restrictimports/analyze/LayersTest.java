@@ -0,0 +1,96 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+public class LayersTest {
+
+    private final Layers layers = Layers.builder()
+            .withLayer(Layer.builder()
+                    .withName("app")
+                    .withPackages("de.skuzzle.**"))
+            .withLayer(Layer.builder()
+                    .withName("web")
+                    .withPackages("de.skuzzle.web.**")
+                    .withAllowedDependencies("service"))
+            .withLayer(Layer.builder()
+                    .withName("service")
+                    .withPackages("de.skuzzle.service.**"))
+            .build();
+
+    @Test
+    void testLayerEquals() throws Exception {
+        EqualsVerifier.forClass(Layer.class).verify();
+    }
+
+    @Test
+    void testLayersEquals() throws Exception {
+        EqualsVerifier.forClass(Layers.class)
+                .withPrefabValues(PackagePatternAutomaton.class,
+                        new PackagePatternAutomaton(PackagePattern.parseAll(Arrays.asList("foo.bar"))),
+                        new PackagePatternAutomaton(PackagePattern.parseAll(Arrays.asList("bar.foo"))))
+                .withIgnoredFields("packageMatchers", "allowedDependencies")
+                .verify();
+    }
+
+    @Test
+    void testSelectMostSpecificLayer() throws Exception {
+        assertThat(layers.selectLayerFor("de.skuzzle.web.Controller")).isEqualTo(1);
+        assertThat(layers.selectLayerFor("de.skuzzle.Application")).isEqualTo(0);
+        assertThat(layers.selectLayerFor("com.foo.Bar")).isEqualTo(-1);
+    }
+
+    @Test
+    void testSelectMostSpecificPatternWithinLayer() throws Exception {
+        final Layers layers = Layers.builder()
+                .withLayer(Layer.builder()
+                        .withName("a")
+                        .withPackages("com.acme.**", "com.acme.web.*"))
+                .withLayer(Layer.builder()
+                        .withName("b")
+                        .withPackages("com.acme.web.**"))
+                .build();
+
+        assertThat(layers.selectLayerFor("com.acme.web.*")).isEqualTo(0);
+        assertThat(layers.selectLayerFor("com.acme.web.sub.*")).isEqualTo(1);
+    }
+
+    @Test
+    void testMayDependOn() throws Exception {
+        assertThat(layers.mayDependOn(1, 2)).isTrue();
+        assertThat(layers.mayDependOn(1, 1)).isTrue();
+        assertThat(layers.mayDependOn(2, 1)).isFalse();
+    }
+
+    @Test
+    void testUnknownAllowedDependency() throws Exception {
+        assertThatExceptionOfType(BannedImportDefinitionException.class)
+                .isThrownBy(() -> Layers.builder()
+                        .withLayer(Layer.builder()
+                                .withName("web")
+                                .withPackages("de.skuzzle.web.**")
+                                .withAllowedDependencies("persistence"))
+                        .build());
+    }
+
+    @Test
+    void testDuplicateLayerName() throws Exception {
+        assertThatExceptionOfType(BannedImportDefinitionException.class)
+                .isThrownBy(() -> Layers.builder()
+                        .withLayer(Layer.builder().withName("web").withPackages("de.skuzzle.web.**"))
+                        .withLayer(Layer.builder().withName("web").withPackages("de.skuzzle.ui.**"))
+                        .build());
+    }
+
+    @Test
+    void testLayerWithoutPackages() throws Exception {
+        assertThatExceptionOfType(BannedImportDefinitionException.class)
+                .isThrownBy(() -> Layer.builder().withName("web").build());
+    }
+}
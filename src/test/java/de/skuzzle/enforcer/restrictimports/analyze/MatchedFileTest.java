@@ -8,6 +8,11 @@ public class MatchedFileTest {
 
     @Test
     public void testEquals() throws Exception {
-        EqualsVerifier.forClass(MatchedFile.class).verify();
+        EqualsVerifier.forClass(MatchedFile.class)
+                .withIgnoredFields("sourceRoot", "groupId")
+                .withPrefabValues(BannedImportGroup.class,
+                        BannedImportGroup.builder().withBannedImports("foo.bar").build(),
+                        BannedImportGroup.builder().withBannedImports("bar.foo").build())
+                .verify();
     }
 }
@@ -8,6 +8,8 @@ public class MatchedImportTest {
 
     @Test
     public void testEquals() throws Exception {
-        EqualsVerifier.forClass(MatchedImport.class).verify();
+        EqualsVerifier.forClass(MatchedImport.class)
+                .withIgnoredFields("patternId")
+                .verify();
     }
 }
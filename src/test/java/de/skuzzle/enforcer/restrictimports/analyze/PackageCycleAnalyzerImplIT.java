@@ -0,0 +1,134 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+import de.skuzzle.enforcer.restrictimports.formatting.MatchFormatter;
+
+public class PackageCycleAnalyzerImplIT {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/");
+
+    private final AnalyzerSettings settings = AnalyzerSettings.builder()
+            .withSrcDirectories(root)
+            .build();
+
+    private final PackageCycleAnalyzer subject = PackageCycleAnalyzer.getInstance();
+
+    private static List<PackagePattern> basePackages(String... patterns) {
+        return PackagePattern.parseAll(Arrays.asList(patterns));
+    }
+
+    @Test
+    void testNoCycles() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/a/A.java")
+                .withLines("package de.skuzzle.a;",
+                        "import de.skuzzle.b.B;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/b/B.java")
+                .withLines("package de.skuzzle.b;",
+                        "import java.util.List;");
+
+        final PackageCycleResult result = subject.analyze(settings, basePackages("de.skuzzle.**"));
+
+        assertThat(result.cyclesFound()).isFalse();
+    }
+
+    @Test
+    void testCycle() throws Exception {
+        final Path a = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/a/A.java")
+                .withLines("package de.skuzzle.a;",
+                        "import de.skuzzle.b.B;");
+        final Path b = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/b/B.java")
+                .withLines("package de.skuzzle.b;",
+                        "import de.skuzzle.c.C;");
+        final Path c = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/c/C.java")
+                .withLines("package de.skuzzle.c;",
+                        "import java.util.List;",
+                        "import static de.skuzzle.a.A.CONSTANT;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/d/D.java")
+                .withLines("package de.skuzzle.d;",
+                        "import de.skuzzle.a.A;");
+
+        final PackageCycleResult result = subject.analyze(settings, basePackages("de.skuzzle.**"));
+
+        assertThat(result.getCycles()).containsExactly(new PackageCycle(
+                Arrays.asList("de.skuzzle.a", "de.skuzzle.b", "de.skuzzle.c"),
+                Arrays.asList(
+                        new PackageDependency("de.skuzzle.a", "de.skuzzle.b", a, root, 2, "de.skuzzle.b.B"),
+                        new PackageDependency("de.skuzzle.b", "de.skuzzle.c", b, root, 2, "de.skuzzle.c.C"),
+                        new PackageDependency("de.skuzzle.c", "de.skuzzle.a", c, root, 3,
+                                "static de.skuzzle.a.A.CONSTANT"))));
+        assertThat(MatchFormatter.getInstance().formatPackageCycles(settings.getAllDirectories(), result))
+                .startsWith("\nPackage cycles detected:\n"
+                        + "\nCycle between packages: de.skuzzle.a, de.skuzzle.b, de.skuzzle.c\n"
+                        + "\tde.skuzzle.a -> de.skuzzle.b\n"
+                        + "\t\tde.skuzzle.b.B (in file: work/src/main/java/de/skuzzle/a/A.java, Line: 2)\n");
+    }
+
+    @Test
+    void testSeparateCycles() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/a/A.java")
+                .withLines("package de.skuzzle.a;",
+                        "import de.skuzzle.b.*;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/b/B.java")
+                .withLines("package de.skuzzle.b;",
+                        "import de.skuzzle.a.A;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/x/X.java")
+                .withLines("package de.skuzzle.x;",
+                        "import de.skuzzle.y.Y.Nested;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/y/Y.java")
+                .withLines("package de.skuzzle.y;",
+                        "import de.skuzzle.x.X;");
+
+        final PackageCycleResult result = subject.analyze(settings, basePackages("de.skuzzle.**"));
+
+        final List<List<String>> expectedCycles = Arrays.asList(
+                Arrays.asList("de.skuzzle.a", "de.skuzzle.b"),
+                Arrays.asList("de.skuzzle.x", "de.skuzzle.y"));
+        assertThat(result.getCycles())
+                .extracting(PackageCycle::getPackages)
+                .containsExactlyElementsOf(expectedCycles);
+    }
+
+    @Test
+    void testCycleThroughPackageOutsideOfBasePackagesIsIgnored() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/a/A.java")
+                .withLines("package de.skuzzle.a;",
+                        "import com.foo.Foo;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/com/foo/Foo.java")
+                .withLines("package com.foo;",
+                        "import de.skuzzle.a.A;");
+
+        assertThat(subject.analyze(settings, basePackages("de.skuzzle.**")).cyclesFound()).isFalse();
+        assertThat(subject.analyze(settings, basePackages("de.skuzzle.**", "com.foo.**")).cyclesFound()).isTrue();
+    }
+
+    @Test
+    void testStaticBasePackage() throws Exception {
+        assertThatExceptionOfType(BannedImportDefinitionException.class)
+                .isThrownBy(() -> subject.analyze(settings, basePackages("static de.skuzzle.**")));
+    }
+}
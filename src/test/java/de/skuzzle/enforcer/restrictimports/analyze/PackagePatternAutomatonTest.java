@@ -0,0 +1,103 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PackagePatternAutomatonTest {
+
+    private static final String[] PATTERN_PARTS = { "a", "b", "c", "*", "**", "'*'" };
+    private static final String[] NAME_PARTS = { "a", "b", "c", "d", "*" };
+
+    @Test
+    void testFirstMatch() throws Exception {
+        final PackagePatternAutomaton subject = new PackagePatternAutomaton(PackagePattern.parseAll(Arrays.asList(
+                "sun.misc.Unsafe",
+                "org.junit.Assert",
+                "java.util.**",
+                "**.internal.**",
+                "static org.junit.Assert.*")));
+
+        assertThat(subject.firstMatch("sun.misc.Unsafe")).isEqualTo(0);
+        assertThat(subject.firstMatch("sun.misc.Signal")).isEqualTo(-1);
+        assertThat(subject.firstMatch("java.util.internal.Foo")).isEqualTo(2);
+        assertThat(subject.firstMatch("com.foo.internal.Bar")).isEqualTo(3);
+        assertThat(subject.firstMatch("static org.junit.Assert.assertTrue")).isEqualTo(4);
+        assertThat(subject.firstMatch("org.junit.Assert.assertTrue")).isEqualTo(-1);
+        assertThat(subject.matchesAny("java.util")).isFalse();
+    }
+
+    @Test
+    void testDoubleWildcardDoesNotBacktrack() throws Exception {
+        final PackagePattern pattern = PackagePattern.parse("**.a.b");
+        final PackagePatternAutomaton subject = new PackagePatternAutomaton(Arrays.asList(pattern));
+
+        // '**' skips to the first 'a' only
+        assertThat(pattern.matches("a.c.a.b")).isFalse();
+        assertThat(subject.matchesAny("a.c.a.b")).isFalse();
+        assertThat(subject.matchesAny("c.a.b")).isTrue();
+    }
+
+    @Test
+    void testNoPatterns() throws Exception {
+        final PackagePatternAutomaton subject = new PackagePatternAutomaton(new ArrayList<>());
+
+        assertThat(subject.matchesAny("java.util.List")).isFalse();
+    }
+
+    @Test
+    void testEquivalentToPackagePatternImpl() throws Exception {
+        final Random random = new Random(4711);
+        for (int run = 0; run < 100; ++run) {
+            final List<PackagePattern> patterns = randomPatterns(random, 1 + random.nextInt(30));
+            final PackagePatternAutomaton subject = new PackagePatternAutomaton(patterns);
+
+            for (int i = 0; i < 200; ++i) {
+                final String name = randomName(random);
+                assertThat(subject.firstMatch(name))
+                        .describedAs("first match of %s in %s", name, patterns)
+                        .isEqualTo(firstMatchReference(patterns, name));
+            }
+        }
+    }
+
+    private static int firstMatchReference(List<PackagePattern> patterns, String name) {
+        for (int i = 0; i < patterns.size(); ++i) {
+            if (patterns.get(i).matches(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<PackagePattern> randomPatterns(Random random, int count) {
+        final List<PackagePattern> result = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            final String prefix = random.nextInt(5) == 0 ? "static " : "";
+            result.add(PackagePattern.parse(prefix + randomParts(random, PATTERN_PARTS, 5)));
+        }
+        return result;
+    }
+
+    private static String randomName(Random random) {
+        final String prefix = random.nextInt(5) == 0 ? "static " : "";
+        return prefix + randomParts(random, NAME_PARTS, 7);
+    }
+
+    private static String randomParts(Random random, String[] parts, int maxLength) {
+        final StringBuilder b = new StringBuilder();
+        final int length = 1 + random.nextInt(maxLength);
+        for (int j = 0; j < length; ++j) {
+            if (j > 0) {
+                b.append('.');
+            }
+            b.append(parts[random.nextInt(parts.length)]);
+        }
+        return b.toString();
+    }
+}
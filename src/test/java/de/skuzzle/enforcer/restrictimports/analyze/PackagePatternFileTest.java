@@ -0,0 +1,94 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PackagePatternFileTest {
+
+    private Path directory;
+    private Path patternFile;
+
+    @BeforeEach
+    void setup() throws Exception {
+        directory = Files.createTempDirectory("pattern-file");
+        patternFile = directory.resolve("banned-imports.txt");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(PackagePatternFile.indexFileFor(patternFile));
+        Files.deleteIfExists(patternFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void testParsePatternFile() throws Exception {
+        Files.write(patternFile, Arrays.asList(
+                "\uFEFF# comment",
+                "  java.util.**  ",
+                "",
+                "static org.junit.Assert.*\r",
+                "\tde.skuzzle.ä"), StandardCharsets.UTF_8);
+
+        assertThat(PackagePatternFile.load(patternFile)).containsExactlyElementsOf(PackagePattern.parseAll(Arrays.asList(
+                "java.util.**",
+                "static org.junit.Assert.*",
+                "de.skuzzle.ä")));
+    }
+
+    @Test
+    void testLoadFromIndex() throws Exception {
+        Files.write(patternFile, Arrays.asList("java.util.**", "static java.lang.Math.*"));
+        final List<PackagePattern> parsed = PackagePatternFile.load(patternFile);
+        assertThat(PackagePatternFile.indexFileFor(patternFile)).exists();
+
+        final List<PackagePattern> indexed = PackagePatternFile.load(patternFile);
+        assertThat(indexed).isEqualTo(parsed);
+        assertThat(indexed.get(1).isStatic()).isTrue();
+        assertThat(indexed.get(0).matches("java.util.List")).isTrue();
+    }
+
+    @Test
+    void testOutdatedIndexIsIgnored() throws Exception {
+        Files.write(patternFile, Arrays.asList("java.util.**"));
+        PackagePatternFile.load(patternFile);
+
+        Files.write(patternFile, Arrays.asList("java.awt.**", "java.sql.**"));
+        Files.setLastModifiedTime(patternFile, FileTime.fromMillis(0));
+
+        assertThat(PackagePatternFile.load(patternFile))
+                .containsExactlyElementsOf(PackagePattern.parseAll(Arrays.asList("java.awt.**", "java.sql.**")));
+    }
+
+    @Test
+    void testCorruptIndexIsIgnored() throws Exception {
+        Files.write(patternFile, Arrays.asList("java.util.**"));
+        PackagePatternFile.load(patternFile);
+        final Path indexFile = PackagePatternFile.indexFileFor(patternFile);
+        final byte[] index = Files.readAllBytes(indexFile);
+        Files.write(indexFile, Arrays.copyOf(index, index.length - 3));
+
+        assertThat(PackagePatternFile.load(patternFile))
+                .containsExactlyElementsOf(PackagePattern.parseAll(Arrays.asList("java.util.**")));
+    }
+
+    @Test
+    void testInvalidPattern() throws Exception {
+        Files.write(patternFile, Arrays.asList("java.util.**", "java..util"));
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> PackagePatternFile.load(patternFile))
+                .withMessageContaining("line 2");
+    }
+}
@@ -0,0 +1,84 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PackagePatternIndexTest {
+
+    private static final String[] PARTS = { "a", "b", "c", "*", "**", "'*'" };
+
+    @Test
+    void testFirstMatchingPattern() throws Exception {
+        final List<PackagePattern> patterns = PackagePattern.parseAll(Arrays.asList(
+                "java.util.**",
+                "java.**.List",
+                "java.util.List",
+                "static java.util.**"));
+        final PackagePatternIndex subject = new PackagePatternIndex(patterns);
+
+        assertThat(subject.firstMatching(PackagePattern.parse("java.util.List"), -1)).isEqualTo(0);
+        assertThat(subject.firstMatching(PackagePattern.parse("java.util.List"), 0)).isEqualTo(1);
+        assertThat(subject.firstMatching(PackagePattern.parse("java.lang.List"), -1)).isEqualTo(1);
+        assertThat(subject.firstMatching(PackagePattern.parse("static java.util.List.of"), -1)).isEqualTo(3);
+        assertThat(subject.anyMatches(PackagePattern.parse("java.lang.String"))).isFalse();
+    }
+
+    @Test
+    void testPatternLongerThanMatch() throws Exception {
+        final PackagePatternIndex subject = new PackagePatternIndex(
+                PackagePattern.parseAll(Arrays.asList("a.**.b")));
+
+        assertThat(subject.anyMatches(PackagePattern.parse("a.b"))).isFalse();
+        assertThat(subject.anyMatches(PackagePattern.parse("a.x.b"))).isTrue();
+    }
+
+    @Test
+    void testEquivalentToPairwiseMatching() throws Exception {
+        final Random random = new Random(1337);
+        for (int run = 0; run < 50; ++run) {
+            final List<PackagePattern> patterns = randomPatterns(random, 40);
+            final PackagePatternIndex subject = new PackagePatternIndex(patterns);
+
+            for (int i = 0; i < patterns.size(); ++i) {
+                final PackagePattern outer = patterns.get(i);
+                assertThat(subject.firstMatching(outer, i))
+                        .describedAs("first match of %s in %s", outer, patterns)
+                        .isEqualTo(firstMatchingPairwise(patterns, outer, i));
+            }
+        }
+    }
+
+    private static int firstMatchingPairwise(List<PackagePattern> patterns, PackagePattern outer, int exclude) {
+        for (int i = 0; i < patterns.size(); ++i) {
+            if (i != exclude && patterns.get(i).matches(outer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<PackagePattern> randomPatterns(Random random, int count) {
+        final List<PackagePattern> result = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            final StringBuilder b = new StringBuilder();
+            if (random.nextInt(5) == 0) {
+                b.append("static ");
+            }
+            final int length = 1 + random.nextInt(5);
+            for (int j = 0; j < length; ++j) {
+                if (j > 0) {
+                    b.append('.');
+                }
+                b.append(PARTS[random.nextInt(PARTS.length)]);
+            }
+            result.add(PackagePattern.parse(b.toString()));
+        }
+        return result;
+    }
+}
@@ -1,17 +1,34 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 import org.junit.jupiter.api.Test;
 
 import com.google.common.jimfs.Configuration;
 import com.google.common.jimfs.Jimfs;
+import com.google.common.util.concurrent.ForwardingExecutorService;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup.Builder;
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
 
 public class SourceTreeAnalyzerImplIT {
 
@@ -46,6 +63,7 @@ public class SourceTreeAnalyzerImplIT {
                 .build();
 
         assertThat(analyzeResult).isEqualTo(expected);
+        assertThat(analyzeResult.getSrcMatches().get(0).getSourceRoot()).contains(root);
     }
 
     @Test
@@ -254,6 +272,288 @@ public class SourceTreeAnalyzerImplIT {
         assertThat(analyzeResult.bannedImportsFound()).isFalse();
     }
 
+    @Test
+    void testShareParsedFilesBetweenAnalyses() throws Exception {
+        final Path sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;", "import java.util.LinkedList;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/com/foo/Other.java")
+                .withLines("package com.foo;", "import java.util.ArrayList;");
+
+        final BannedImportGroups arrayList = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("de.skuzzle.**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+        final BannedImportGroups linkedList = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.LinkedList"))
+                .build();
+
+        final ParsedFileCache parseCache = new ParsedFileCache();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance(parseCache);
+        final SourceTreeAnalyzer uncached = SourceTreeAnalyzer.getInstance();
+
+        assertThat(subject.analyze(settings, arrayList)).isEqualTo(uncached.analyze(settings, arrayList));
+        assertThat(subject.analyze(settings, linkedList)).isEqualTo(uncached.analyze(settings, linkedList));
+        assertThat(parseCache.getMisses()).isEqualTo(2);
+        assertThat(parseCache.getHits()).isEqualTo(2);
+
+        Files.write(sourceFile, Arrays.asList("package de.skuzzle;", "import java.util.ArrayList;"));
+        assertThat(subject.analyze(settings, linkedList).bannedImportsFound()).isFalse();
+        assertThat(parseCache.getMisses()).isEqualTo(3);
+    }
+
+    @Test
+    void testAnalyzeUsingImportIndex() throws Exception {
+        final Path sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;", "import java.util.LinkedList;");
+        final Path otherFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/com/foo/Other.java")
+                .withLines("package com.foo;", "import java.util.ArrayList;");
+
+        final BannedImportGroups arrayList = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+        final BannedImportGroups linkedList = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("de.skuzzle.**")
+                        .withBannedImports("java.util.*"))
+                .build();
+
+        final Path indexFile = fs.getPath("/target/restrict-imports-index.bin");
+        final AnalyzerSettings indexSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(root)
+                .withImportIndexFile(indexFile)
+                .build();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+
+        assertThat(subject.analyze(indexSettings, arrayList)).isEqualTo(subject.analyze(settings, arrayList));
+        assertThat(indexFile).exists();
+        assertThat(subject.analyze(indexSettings, linkedList)).isEqualTo(subject.analyze(settings, linkedList));
+
+        // unchanged size and modification time: the indexed imports are used
+        final FileTime lastModified = Files.getLastModifiedTime(otherFile);
+        Files.write(otherFile, Arrays.asList("package com.foo;", "import java.util.ArrayLisT;"));
+        Files.setLastModifiedTime(otherFile, lastModified);
+        assertThat(subject.analyze(indexSettings, arrayList).getSrcMatches()).hasSize(2);
+
+        Files.write(otherFile, Arrays.asList("package com.foo;", "import java.util.HashSet;"));
+        Files.delete(sourceFile);
+        assertThat(subject.analyze(indexSettings, arrayList).bannedImportsFound()).isFalse();
+        assertThat(subject.analyze(indexSettings, arrayList)).isEqualTo(subject.analyze(settings, arrayList));
+    }
+
+    @Test
+    void testImportIndexThatCanNotBeWrittenIsIgnored() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        // the parent of the index is a file
+        Files.createFile(fs.getPath("/target"));
+        final AnalyzerSettings indexSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(root)
+                .withImportIndexFile(fs.getPath("/target/restrict-imports-index.bin"))
+                .build();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+
+        assertThat(subject.analyze(indexSettings, groups)).isEqualTo(subject.analyze(settings, groups));
+    }
+
+    @Test
+    void testResolveWildcardImports() throws Exception {
+        final Path sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;",
+                        "import org.junit.*;",
+                        "import org.junit.runner.*;",
+                        "import static org.junit.Assert.*;");
+        final Path classes = fs.getPath("/target/classes/org/junit");
+        Files.createDirectories(classes.resolve("runner"));
+        Files.createFile(classes.resolve("Assert.class"));
+        Files.createFile(classes.resolve("Test.class"));
+        Files.createFile(classes.resolve("runner/Runner.class"));
+
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("org.junit.Assert")
+                .build();
+        final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+        final AnalyzerSettings resolvingSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(root)
+                .withWildcardClasspath(Arrays.asList(fs.getPath("/target/classes")))
+                .build();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+
+        assertThat(subject.analyze(settings, groups).bannedImportsFound()).isFalse();
+        assertThat(subject.analyze(resolvingSettings, groups)).isEqualTo(AnalyzeResult.builder()
+                .withMatches(MatchedFile.forSourceFile(sourceFile)
+                        .matchedBy(group)
+                        .withMatchAt(2, "org.junit.*", PackagePattern.parse("org.junit.Assert")))
+                .build());
+    }
+
+    @Test
+    void testDetectFullyQualifiedReferences() throws Exception {
+        final Path sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;",
+                        "import java.util.List;",
+                        "public class Sample {",
+                        "    // new java.util.Vector<>()",
+                        "    java.util.Vector<String> v = new java.util.Vector<>();",
+                        "    java.util.ArrayList<String> l = null;",
+                        "    String s = \"java.util.Vector\";",
+                        "}");
+
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("java.util.Vector", "**.Hashtable")
+                .build();
+        final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+        final AnalyzerSettings scanningSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(root)
+                .withDetectFullyQualifiedReferences(true)
+                .build();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+
+        assertThat(subject.analyze(settings, groups).bannedImportsFound()).isFalse();
+        assertThat(subject.analyze(scanningSettings, groups)).isEqualTo(AnalyzeResult.builder()
+                .withMatches(MatchedFile.forSourceFile(sourceFile)
+                        .matchedBy(group)
+                        .withMatchAt(5, "java.util.Vector", PackagePattern.parse("java.util.Vector")))
+                .build());
+    }
+
+    @Test
+    void testDetectFullyQualifiedReferencesUsingImportIndex() throws Exception {
+        final List<String> lines = Arrays.asList("package de.skuzzle;",
+                "public class Sample {",
+                "    java.util.Vector<String> v = new java.util.Vector<>();",
+                "    java.util.Map.Entry<String, String> e = null;",
+                "}");
+        final Path sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines(lines.toArray(new String[0]));
+
+        final BannedImportGroups vector = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.Vector"))
+                .build();
+        final BannedImportGroup entryGroup = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("java.util.Map.Entry")
+                .build();
+        final BannedImportGroups entry = BannedImportGroups.builder().withGroup(entryGroup).build();
+        final AnalyzerSettings scanningSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(root)
+                .withDetectFullyQualifiedReferences(true)
+                .build();
+        final AnalyzerSettings indexSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(root)
+                .withDetectFullyQualifiedReferences(true)
+                .withImportIndexFile(fs.getPath("/target/restrict-imports-index.bin"))
+                .build();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+
+        assertThat(subject.analyze(indexSettings, vector)).isEqualTo(subject.analyze(scanningSettings, vector));
+
+        // unchanged size and modification time: the indexed references are used although
+        // the banned imports changed
+        final FileTime lastModified = Files.getLastModifiedTime(sourceFile);
+        Files.write(sourceFile, Arrays.asList(lines.get(0), lines.get(1), lines.get(2),
+                lines.get(3).replace("Entry", "EntrY"), lines.get(4)));
+        Files.setLastModifiedTime(sourceFile, lastModified);
+        assertThat(subject.analyze(indexSettings, entry)).isEqualTo(AnalyzeResult.builder()
+                .withMatches(MatchedFile.forSourceFile(sourceFile)
+                        .matchedBy(entryGroup)
+                        .withMatchAt(4, "java.util.Map.Entry", PackagePattern.parse("java.util.Map.Entry")))
+                .build());
+    }
+
+    @Test
+    void testImportIndexDetectsSameFullyQualifiedReferences() throws Exception {
+        final Path sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;",
+                        "import java.util.Hashtable;",
+                        "public class Sample {",
+                        "    java.util.Vector<String> v = new java.util.Hashtable<>().keySet();",
+                        "    Object o = com.foo.internal.util.helper();",
+                        "    Object p = com.bar.Hashtable.INSTANCE;",
+                        "}");
+
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("java.util.Vector", "com.foo.internal.**", "**.Hashtable")
+                .build();
+        final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+        final AnalyzerSettings scanningSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(root)
+                .withDetectFullyQualifiedReferences(true)
+                .build();
+        final AnalyzerSettings indexSettings = AnalyzerSettings.builder()
+                .withSrcDirectories(root)
+                .withDetectFullyQualifiedReferences(true)
+                .withImportIndexFile(fs.getPath("/target/restrict-imports-index.bin"))
+                .build();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+
+        final AnalyzeResult expected = AnalyzeResult.builder()
+                .withMatches(MatchedFile.forSourceFile(sourceFile)
+                        .matchedBy(group)
+                        .withMatchAt(2, "java.util.Hashtable", PackagePattern.parse("**.Hashtable"))
+                        .withMatchAt(4, "java.util.Vector", PackagePattern.parse("java.util.Vector"))
+                        .withMatchAt(5, "com.foo.internal.util.helper", PackagePattern.parse("com.foo.internal.**")))
+                .build();
+        assertThat(subject.analyze(scanningSettings, groups)).isEqualTo(expected);
+        assertThat(subject.analyze(indexSettings, groups)).isEqualTo(expected);
+        // matched against the persisted index
+        assertThat(subject.analyze(indexSettings, groups)).isEqualTo(expected);
+    }
+
+    @Test
+    void testAnalyzeClassFiles() throws Exception {
+        final Path classDir = fs.getPath("target/classes/de/skuzzle/enforcer/restrictimports/analyze");
+        Files.createDirectories(classDir);
+        final Path classFile = classDir.resolve("ImportPrefilterTest.class");
+        try (InputStream in = ImportPrefilterTest.class.getResourceAsStream("ImportPrefilterTest.class")) {
+            Files.copy(in, classFile);
+        }
+
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("de.skuzzle.**")
+                .withBannedImports("java.util.Random")
+                .build();
+        final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+        final AnalyzeResult analyzeResult = subject.analyze(AnalyzerSettings.builder()
+                .withSrcDirectories(fs.getPath("target/classes"))
+                .withAnalyzeClassFiles(true)
+                .build(), groups);
+
+        final AnalyzeResult expected = AnalyzeResult.builder()
+                .withMatches(MatchedFile
+                        .forSourceFile(classFile)
+                        .matchedBy(group)
+                        .withMatchAt(ImportStatement.UNKNOWN_LINE, "java.util.Random",
+                                PackagePattern.parse("java.util.Random")))
+                .build();
+        assertThat(analyzeResult).isEqualTo(expected);
+    }
+
     @Test
     void testEverythingExcludedByBasePackage() throws Exception {
         new SourceFileBuilder(fs)
@@ -391,4 +691,207 @@ public class SourceTreeAnalyzerImplIT {
 
         assertThat(result.bannedImportsFound()).isFalse();
     }
+
+    @Test
+    void testStreamMatchesToListener() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;",
+                        "import java.util.ArrayList;",
+                        "import java.util.List;");
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.*"))
+                .build();
+
+        final CountingMatchListener counter = new CountingMatchListener();
+        SourceTreeAnalyzer.getInstance().analyze(settings, groups, counter);
+
+        assertThat(counter.getSrcFiles()).isEqualTo(1);
+        assertThat(counter.getSrcImports()).isEqualTo(2);
+        assertThat(counter.getTestFiles()).isZero();
+    }
+
+    @Test
+    void testParallelAnalysisYieldsSameResultAsSequential() throws Exception {
+        assertSameResultAsSequential(settings -> settings.withParallelism(4));
+    }
+
+    @Test
+    void testConcurrentFileReadsYieldSameResultAsSequential() throws Exception {
+        // falls back to platform threads on JDKs without virtual threads
+        assertSameResultAsSequential(settings -> settings
+                .withParallelism(2)
+                .withConcurrentFileReads(8));
+    }
+
+    @Test
+    void testConcurrentFileReadsOnInjectedExecutorYieldSameResultAsSequential() throws Exception {
+        final ExecutorService readers = Executors.newFixedThreadPool(3);
+        final SourceTreeAnalyzer subject = new SourceTreeAnalyzerImpl(null, () -> Optional.of(readers));
+
+        assertSameResultAsSequential(subject, settings -> settings
+                .withParallelism(2)
+                .withConcurrentFileReads(4));
+        assertThat(readers.isShutdown()).isTrue();
+    }
+
+    @Test
+    void testConcurrentFileReadsWaitForFilesInFlightIfWalkFails() throws Exception {
+        for (int i = 0; i < 20; ++i) {
+            new SourceFileBuilder(fs)
+                    .atPath("src/main/java/de/skuzzle/Sample" + i + ".java")
+                    .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+        }
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        // slow readers that fail the walk after a few files have been submitted
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        final AtomicInteger submitted = new AtomicInteger();
+        final ExecutorService readers = new ForwardingExecutorService() {
+
+            @Override
+            protected ExecutorService delegate() {
+                return pool;
+            }
+
+            @Override
+            public void execute(Runnable command) {
+                if (submitted.incrementAndGet() > 5) {
+                    throw new RejectedExecutionException("walk failed");
+                }
+                pool.execute(() -> {
+                    Uninterruptibles.sleepUninterruptibly(50, TimeUnit.MILLISECONDS);
+                    command.run();
+                });
+            }
+        };
+        final AnalyzeResultCollector collector = new AnalyzeResultCollector();
+        final AnalyzerSettings concurrent = AnalyzerSettings.builder()
+                .withSrcDirectories(fs.getPath("src/main/java"))
+                .withConcurrentFileReads(8)
+                .build();
+        final SourceTreeAnalyzer subject = new SourceTreeAnalyzerImpl(null, () -> Optional.of(readers));
+
+        assertThatExceptionOfType(RejectedExecutionException.class)
+                .isThrownBy(() -> subject.analyze(concurrent, groups, collector));
+        assertThat(collector.getResult().getSrcMatches()).hasSize(5);
+        Thread.sleep(100);
+        assertThat(collector.getResult().getSrcMatches()).hasSize(5);
+    }
+
+    @Test
+    void testPipelinedAnalysisYieldsSameResultAsSequential() throws Exception {
+        // tiny queues so that stages actually block each other
+        assertSameResultAsSequential(settings -> settings
+                .withPipeline(3, 2)
+                .withPipelineQueueCapacity(2));
+    }
+
+    @Test
+    void testTrustDirectoryLayoutSkipsUnrelatedPackages() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/billing/Invoice.java")
+                .withLines("package de.skuzzle.billing;", "import java.util.ArrayList;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/shipping/Parcel.java")
+                .withLines("package de.skuzzle.shipping;", "import java.util.ArrayList;");
+        // does not follow the directory layout and is thus missed
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/misplaced/Payment.java")
+                .withLines("package de.skuzzle.billing;", "import java.util.ArrayList;");
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("de.skuzzle.billing.**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        final AnalyzerSettings settings = AnalyzerSettings.builder()
+                .withSrcDirectories(fs.getPath("src/main/java"))
+                .withTrustDirectoryLayout(true)
+                .build();
+        final AnalyzeResult result = SourceTreeAnalyzer.getInstance().analyze(settings, groups);
+
+        assertThat(result.getSrcMatches()).hasSize(1);
+        assertThat(result.getSrcMatches().get(0).getSourceFile())
+                .isEqualTo(fs.getPath("src/main/java/de/skuzzle/billing/Invoice.java"));
+    }
+
+    @Test
+    void testTrustDirectoryLayoutSkipsFilesWithoutGroup() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/billing/Invoice.java")
+                .withLines("package de.skuzzle.billing;", "import java.util.ArrayList;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/billing/Receipt.java")
+                .withLines("package de.skuzzle.billing;", "import java.util.ArrayList;");
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("de.skuzzle.billing.*")
+                        .withBannedImports("java.util.ArrayList")
+                        .withExcludedClasses("de.skuzzle.billing.Receipt"))
+                .build();
+
+        final AnalyzerSettings settings = AnalyzerSettings.builder()
+                .withSrcDirectories(fs.getPath("src/main/java"))
+                .withTrustDirectoryLayout(true)
+                .withParallelism(2)
+                .build();
+        final AnalyzeResult result = SourceTreeAnalyzer.getInstance().analyze(settings, groups);
+
+        assertThat(result.getSrcMatches()).hasSize(1);
+        assertThat(result.getSrcMatches().get(0).getSourceFile())
+                .isEqualTo(fs.getPath("src/main/java/de/skuzzle/billing/Invoice.java"));
+    }
+
+    @Test
+    void testTrustDirectoryLayoutInParallel() throws Exception {
+        assertSameResultAsSequential(settings -> settings
+                .withParallelism(4)
+                .withTrustDirectoryLayout(true));
+    }
+
+    private void assertSameResultAsSequential(UnaryOperator<AnalyzerSettings.Builder> configureSubject)
+            throws IOException {
+        assertSameResultAsSequential(SourceTreeAnalyzer.getInstance(), configureSubject);
+    }
+
+    private void assertSameResultAsSequential(SourceTreeAnalyzer subject,
+            UnaryOperator<AnalyzerSettings.Builder> configureSubject) throws IOException {
+        for (int i = 0; i < 20; ++i) {
+            new SourceFileBuilder(fs)
+                    .atPath("src/main/java/de/skuzzle/p" + (i % 4) + "/Sample" + i + ".java")
+                    .withLines("package de.skuzzle.p" + (i % 4) + ";", "import java.util.ArrayList;");
+            new SourceFileBuilder(fs)
+                    .atPath("src/test/java/de/skuzzle/p" + (i % 3) + "/SampleTest" + i + ".java")
+                    .withLines("package de.skuzzle.p" + (i % 3) + ";", "import java.util.ArrayList;");
+        }
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        final AnalyzerSettings sequential = AnalyzerSettings.builder()
+                .withSrcDirectories(fs.getPath("src/main/java"))
+                .withTestDirectories(fs.getPath("src/test/java"), fs.getPath("src/doesNotExist"))
+                .build();
+        final AnalyzerSettings concurrent = configureSubject.apply(AnalyzerSettings.builder()
+                .withSrcDirectories(fs.getPath("src/main/java"))
+                .withTestDirectories(fs.getPath("src/test/java"), fs.getPath("src/doesNotExist")))
+                .build();
+
+        final AnalyzeResult expected = SourceTreeAnalyzer.getInstance().analyze(sequential, groups);
+        final AnalyzeResult result = subject.analyze(concurrent, groups);
+
+        assertThat(result.getSrcMatches()).hasSize(20);
+        assertThat(result.getTestMatches()).hasSize(20);
+        assertThat(result).isEqualTo(expected);
+    }
 }
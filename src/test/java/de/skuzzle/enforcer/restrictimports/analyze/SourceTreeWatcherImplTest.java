@@ -0,0 +1,115 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import com.google.common.jimfs.WatchServiceConfiguration;
+
+public class SourceTreeWatcherImplTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix().toBuilder()
+            .setWatchServiceConfiguration(WatchServiceConfiguration.polling(10, TimeUnit.MILLISECONDS))
+            .build());
+    private final Path root = fs.getPath("/");
+
+    private final AnalyzerSettings settings = AnalyzerSettings.builder()
+            .withSrcDirectories(root)
+            .build();
+    private final BannedImportGroup group = BannedImportGroup.builder()
+            .withBasePackages("**")
+            .withBannedImports("java.util.ArrayList")
+            .build();
+    private final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+
+    private Path sourceFile;
+    private SourceTreeWatcher subject;
+
+    @BeforeEach
+    void setup() throws Exception {
+        sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+        subject = SourceTreeWatcher.watch(settings, groups);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        subject.close();
+    }
+
+    private AnalyzeResult awaitResult(Predicate<AnalyzeResult> condition) throws InterruptedException {
+        final long timeout = System.currentTimeMillis() + 5000;
+        AnalyzeResult result = subject.currentResult();
+        while (!condition.test(result) && System.currentTimeMillis() < timeout) {
+            Thread.sleep(20);
+            result = subject.currentResult();
+        }
+        return result;
+    }
+
+    @Test
+    void testInitialResult() throws Exception {
+        final AnalyzeResult expected = AnalyzeResult.builder()
+                .withMatches(MatchedFile.forSourceFile(sourceFile)
+                        .matchedBy(group)
+                        .withMatchAt(2, "java.util.ArrayList", PackagePattern.parse("java.util.ArrayList")))
+                .build();
+
+        assertThat(subject.currentResult()).isEqualTo(expected);
+    }
+
+    @Test
+    void testModifiedFileIsReparsed() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.List;");
+
+        final AnalyzeResult result = awaitResult(r -> !r.bannedImportsFound());
+        assertThat(result.bannedImportsFound()).isFalse();
+    }
+
+    @Test
+    void testDeletedFileIsRemoved() throws Exception {
+        Files.delete(sourceFile);
+
+        final AnalyzeResult result = awaitResult(r -> !r.bannedImportsFound());
+        assertThat(result.bannedImportsFound()).isFalse();
+    }
+
+    @Test
+    void testFileDeletedDuringOverflowIsRemoved() throws Exception {
+        // more events than the watch service queues for a single directory, so that the
+        // deletion is lost once the watch service has picked it up
+        for (int i = 0; i < 300; ++i) {
+            Files.createFile(sourceFile.resolveSibling("file" + i + ".txt"));
+        }
+        Files.delete(sourceFile);
+        Thread.sleep(100);
+
+        final AnalyzeResult result = awaitResult(r -> !r.bannedImportsFound());
+        assertThat(result.bannedImportsFound()).isFalse();
+    }
+
+    @Test
+    void testFileInNewDirectoryIsIndexed() throws Exception {
+        final Path newFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/sub/Sample2.java")
+                .withLines("package de.skuzzle.sub;", "import java.util.ArrayList;");
+
+        final AnalyzeResult result = awaitResult(r -> r.getSrcMatches().size() == 2);
+        assertThat(result.getSrcMatches())
+                .extracting(MatchedFile::getSourceFile)
+                .containsExactly(sourceFile, newFile);
+    }
+}
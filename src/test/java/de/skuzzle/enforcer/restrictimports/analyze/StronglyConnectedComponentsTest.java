@@ -0,0 +1,42 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class StronglyConnectedComponentsTest {
+
+    @Test
+    void testComponentsInReverseTopologicalOrder() throws Exception {
+        // 0 -> 1 -> 2 -> 1, 2 -> 3, 4 isolated
+        final int[] offsets = { 0, 1, 2, 4, 4, 4 };
+        final int[] targets = { 1, 2, 1, 3 };
+
+        final StronglyConnectedComponents components = StronglyConnectedComponents.of(offsets, targets);
+
+        assertThat(components.getComponentCount()).isEqualTo(4);
+        final int cycle = components.getComponentOf(1);
+        assertThat(components.getComponentOf(2)).isEqualTo(cycle);
+        assertThat(components.getSize(cycle)).isEqualTo(2);
+        assertThat(components.getMembers(cycle)).containsExactly(1, 2);
+        assertThat(components.getComponentOf(3)).isLessThan(cycle);
+        assertThat(components.getComponentOf(0)).isGreaterThan(cycle);
+        assertThat(components.getSize(components.getComponentOf(4))).isEqualTo(1);
+    }
+
+    @Test
+    void testDeepGraphDoesNotOverflowStack() throws Exception {
+        final int nodeCount = 100_000;
+        final int[] offsets = new int[nodeCount + 1];
+        final int[] targets = new int[nodeCount];
+        for (int node = 0; node < nodeCount; ++node) {
+            offsets[node + 1] = node + 1;
+            targets[node] = (node + 1) % nodeCount;
+        }
+
+        final StronglyConnectedComponents components = StronglyConnectedComponents.of(offsets, targets);
+
+        assertThat(components.getComponentCount()).isEqualTo(1);
+        assertThat(components.getSize(0)).isEqualTo(nodeCount);
+    }
+}
@@ -0,0 +1,45 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+public class JsonWriterTest {
+
+    private final StringWriter out = new StringWriter();
+    private final JsonWriter subject = new JsonWriter(out);
+
+    @Test
+    void testNestedStructures() throws Exception {
+        subject.beginObject()
+                .name("a").value("b")
+                .name("array").beginArray()
+                .value(1)
+                .value(true)
+                .beginObject().endObject()
+                .endArray()
+                .name("nested").beginObject()
+                .name("null").value((String) null)
+                .endObject()
+                .endObject();
+
+        assertThat(out.toString()).isEqualTo("{\"a\":\"b\",\"array\":[1,true,{}],\"nested\":{\"null\":null}}");
+    }
+
+    @Test
+    void testEscapeStrings() throws Exception {
+        subject.value("\"quoted\"\\\n\r\t\u0001ü");
+
+        assertThat(out.toString()).isEqualTo("\"\\\"quoted\\\"\\\\\\n\\r\\t\\u0001ü\"");
+    }
+
+    @Test
+    void testJsonLines() throws Exception {
+        subject.beginObject().name("a").value(1).endObject().newLine()
+                .beginObject().name("a").value(2).endObject().newLine();
+
+        assertThat(out.toString()).isEqualTo("{\"a\":1}\n{\"a\":2}\n");
+    }
+}
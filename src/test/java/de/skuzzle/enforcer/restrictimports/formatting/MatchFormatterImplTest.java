@@ -17,6 +17,7 @@ import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
 import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
 import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+import de.skuzzle.enforcer.restrictimports.parser.ImportStatement;
 
 public class MatchFormatterImplTest {
 
@@ -68,6 +69,25 @@ public class MatchFormatterImplTest {
                 "Analysis took 5 seconds\n");
     }
 
+    @Test
+    public void testFormatMatchWithUnknownLine() throws Exception {
+        final AnalyzeResult analyzeResult = AnalyzeResult.builder()
+                .withDuration(5000)
+                .withMatches(MatchedFile.forSourceFile(sourceFile)
+                        .matchedBy(group)
+                        .withMatchAt(ImportStatement.UNKNOWN_LINE, "java.util.ArrayList",
+                                PackagePattern.parse("java.util.*")))
+                .build();
+
+        final String formatted = subject.formatMatches(roots, analyzeResult);
+
+        assertThat(formatted).isEqualTo("\nBanned imports detected:\n\n" +
+                "Reason: Some reason\n" +
+                "\tin file: SampleJavaFile.java\n" +
+                "\t\tjava.util.ArrayList (Matched by: java.util.*)\n\n" +
+                "Analysis took 5 seconds\n");
+    }
+
     @Test
     public void testFormatMatchInCompileCode() throws Exception {
         final AnalyzeResult analyzeResult = AnalyzeResult.builder()
@@ -103,4 +123,19 @@ public class MatchFormatterImplTest {
                 "\t\tjava.util.ArrayList (Line: 3, Matched by: java.util.*)\n\n" +
                 "Analysis took 5 seconds\n");
     }
+
+    @Test
+    public void testFormatMatchUsesSourceRootOfMatch() throws Exception {
+        final AnalyzeResult analyzeResult = AnalyzeResult.builder()
+                .withDuration(5000)
+                .withMatches(MatchedFile.forSourceFile(sourceFile)
+                        .inSourceRoot(root)
+                        .matchedBy(group)
+                        .withMatchAt(3, "java.util.ArrayList", PackagePattern.parse("java.util.*")))
+                .build();
+
+        final String formatted = subject.formatMatches(ImmutableList.of(), analyzeResult);
+
+        assertThat(formatted).contains("\tin file: SampleJavaFile.java\n");
+    }
 }
@@ -0,0 +1,81 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+
+public class ReportWriterTest {
+
+    private final StringWriter out = new StringWriter();
+    private final Path sourceFile = Paths.get("src", "Sample.java").toAbsolutePath();
+    private final BannedImportGroup group = BannedImportGroup.builder()
+            .withBasePackages("**")
+            .withBannedImports("java.util.*")
+            .withReason("Some \"reason\"")
+            .build();
+    private final MatchedFile match = MatchedFile.forSourceFile(sourceFile)
+            .matchedBy(group)
+            .withMatchAt(3, "java.util.ArrayList", PackagePattern.parse("java.util.*"))
+            .withMatchAt(4, "java.util.List", PackagePattern.parse("java.util.*"))
+            .build();
+
+    @Test
+    void testJsonLines() throws Exception {
+        try (ReportWriter subject = ReportWriter.jsonLines(out)) {
+            subject.matchInCompileCode(match);
+            subject.matchInTestCode(match);
+            subject.analysisFinished(100);
+        }
+
+        final String file = sourceFile.toString().replace("\\", "\\\\");
+        assertThat(out.toString()).isEqualTo(""
+                + "{\"file\":\"" + file + "\",\"testCode\":false,\"line\":3,\"import\":\"java.util.ArrayList\","
+                + "\"matchedBy\":\"java.util.*\",\"reason\":\"Some \\\"reason\\\"\"}\n"
+                + "{\"file\":\"" + file + "\",\"testCode\":false,\"line\":4,\"import\":\"java.util.List\","
+                + "\"matchedBy\":\"java.util.*\",\"reason\":\"Some \\\"reason\\\"\"}\n"
+                + "{\"file\":\"" + file + "\",\"testCode\":true,\"line\":3,\"import\":\"java.util.ArrayList\","
+                + "\"matchedBy\":\"java.util.*\",\"reason\":\"Some \\\"reason\\\"\"}\n"
+                + "{\"file\":\"" + file + "\",\"testCode\":true,\"line\":4,\"import\":\"java.util.List\","
+                + "\"matchedBy\":\"java.util.*\",\"reason\":\"Some \\\"reason\\\"\"}\n");
+    }
+
+    @Test
+    void testSarifWithoutResults() throws Exception {
+        try (ReportWriter subject = ReportWriter.sarif(out, true)) {
+            subject.analysisFinished(100);
+        }
+
+        assertThat(out.toString()).isEqualTo("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+                + "\"version\":\"2.1.0\",\"runs\":[{\"tool\":{\"driver\":{"
+                + "\"name\":\"restrict-imports-enforcer-rule\","
+                + "\"informationUri\":\"https://github.com/skuzzle/restrict-imports-enforcer-rule\","
+                + "\"rules\":[{\"id\":\"banned-import\",\"shortDescription\":{\"text\":\"Usage of a banned import\"}}]}},"
+                + "\"results\":[]}]}\n");
+    }
+
+    @Test
+    void testSarifResult() throws Exception {
+        try (ReportWriter subject = ReportWriter.sarif(out, false)) {
+            subject.matchInTestCode(match);
+            subject.analysisFinished(100);
+        }
+
+        assertThat(out.toString())
+                .contains("\"results\":[{\"ruleId\":\"banned-import\",\"level\":\"warning\","
+                        + "\"message\":{\"text\":\"Banned import 'java.util.ArrayList' (Matched by: java.util.*). "
+                        + "Reason: Some \\\"reason\\\"\"},"
+                        + "\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":\""
+                        + sourceFile.toUri() + "\"},\"region\":{\"startLine\":3}}}],"
+                        + "\"properties\":{\"testCode\":true,\"matchedBy\":\"java.util.*\"}},")
+                .endsWith("\"region\":{\"startLine\":4}}}],"
+                        + "\"properties\":{\"testCode\":true,\"matchedBy\":\"java.util.*\"}}]}]}\n");
+    }
+}
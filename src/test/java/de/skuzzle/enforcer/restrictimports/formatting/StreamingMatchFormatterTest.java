@@ -0,0 +1,73 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchListener;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+
+public class StreamingMatchFormatterTest {
+
+    private final Path root = Paths.get("src");
+    private final List<String> chunks = new ArrayList<>();
+    private final MatchListener subject = MatchFormatter.streaming(ImmutableList.of(root), chunks::add);
+
+    private final BannedImportGroup group1 = BannedImportGroup.builder()
+            .withBasePackages("**")
+            .withBannedImports("java.util.*")
+            .withReason("Some reason")
+            .build();
+    private final BannedImportGroup group2 = BannedImportGroup.builder()
+            .withBasePackages("de.**")
+            .withBannedImports("java.util.*")
+            .withReason("Other reason")
+            .build();
+
+    private MatchedFile match(String file, BannedImportGroup group) {
+        return MatchedFile.forSourceFile(root.resolve(file))
+                .matchedBy(group)
+                .withMatchAt(3, "java.util.ArrayList", PackagePattern.parse("java.util.*"))
+                .build();
+    }
+
+    @Test
+    void testNoMatches() throws Exception {
+        subject.analysisFinished(5000);
+        assertThat(chunks).isEmpty();
+    }
+
+    @Test
+    void testStreamMatches() throws Exception {
+        subject.matchInCompileCode(match("A.java", group1));
+        subject.matchInCompileCode(match("B.java", group1));
+        subject.matchInCompileCode(match("C.java", group2));
+        subject.matchInTestCode(match("D.java", group2));
+        subject.analysisFinished(5000);
+
+        assertThat(String.join("", chunks)).isEqualTo("\nBanned imports detected:\n\n" +
+                "Reason: Some reason\n" +
+                "\tin file: A.java\n" +
+                "\t\tjava.util.ArrayList (Line: 3, Matched by: java.util.*)\n" +
+                "\tin file: B.java\n" +
+                "\t\tjava.util.ArrayList (Line: 3, Matched by: java.util.*)\n" +
+                "Reason: Other reason\n" +
+                "\tin file: C.java\n" +
+                "\t\tjava.util.ArrayList (Line: 3, Matched by: java.util.*)\n" +
+                "\nBanned imports detected in TEST code:\n\n" +
+                "Reason: Other reason\n" +
+                "\tin file: D.java\n" +
+                "\t\tjava.util.ArrayList (Line: 3, Matched by: java.util.*)\n" +
+                "\nAnalysis took 5 seconds\n");
+        assertThat(chunks).hasSize(5);
+    }
+}
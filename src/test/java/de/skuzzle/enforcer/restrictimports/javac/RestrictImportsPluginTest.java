@@ -0,0 +1,129 @@
+package de.skuzzle.enforcer.restrictimports.javac;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.sun.source.util.JavacTask;
+
+public class RestrictImportsPluginTest {
+
+    private Path tempDir;
+    private Path bannedImports;
+
+    @BeforeEach
+    void setup() throws Exception {
+        tempDir = Files.createTempDirectory("restrict-imports");
+        bannedImports = tempDir.resolve("banned.txt");
+        Files.write(bannedImports, Arrays.asList("java.util.LinkedList", "static java.util.Collections.*"),
+                StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        MoreFiles.deleteRecursively(tempDir, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(JavaFileObject source, String... pluginArgs) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final JavacTask task = (JavacTask) compiler.getTask(null, null, diagnostics,
+                Arrays.asList("-d", tempDir.toString()), null, Arrays.asList(source));
+        new RestrictImportsPlugin().init(task, pluginArgs);
+        task.call();
+        return diagnostics.getDiagnostics();
+    }
+
+    private static JavaFileObject source(String path, String... lines) {
+        final String content = String.join("\n", lines);
+        return new SimpleJavaFileObject(URI.create("string:///" + path), JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    private static List<String> errors(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getLineNumber() + ": " + diagnostic.getMessage(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testReportBannedImports() throws Exception {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(source("de/skuzzle/Sample.java",
+                "package de.skuzzle;",
+                "import java.util.ArrayList;",
+                "import java.util.LinkedList;",
+                "import static java.util.Collections.emptyList;",
+                "class Sample {}"),
+                "bannedImports=" + bannedImports);
+
+        assertThat(errors(diagnostics)).containsExactly(
+                "3: Banned import: java.util.LinkedList (Matched by: java.util.LinkedList)",
+                "4: Banned import: static java.util.Collections.emptyList (Matched by: static java.util.Collections.*)");
+    }
+
+    @Test
+    void testRespectBasePackages() throws Exception {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(source("de/skuzzle/Sample.java",
+                "package de.skuzzle;",
+                "import java.util.LinkedList;",
+                "class Sample {}"),
+                "bannedImports=" + bannedImports,
+                "basePackages=com.foo.**,com.bar.**");
+
+        assertThat(errors(diagnostics)).isEmpty();
+    }
+
+    @Test
+    void testReportAsWarning() throws Exception {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(source("de/skuzzle/Sample.java",
+                "package de.skuzzle;",
+                "import java.util.LinkedList;",
+                "class Sample {}"),
+                "bannedImports=" + bannedImports,
+                "warn=true");
+
+        assertThat(errors(diagnostics)).isEmpty();
+        assertThat(diagnostics)
+                .anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING
+                        && diagnostic.getMessage(Locale.ROOT).contains("java.util.LinkedList"));
+    }
+
+    @Test
+    void testBannedImportsAreRequired() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new RestrictImportsPlugin().init(null, "basePackages=de.skuzzle.**"));
+    }
+
+    @Test
+    void testUnknownArgument() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new RestrictImportsPlugin().init(null, "foo=bar"));
+    }
+}
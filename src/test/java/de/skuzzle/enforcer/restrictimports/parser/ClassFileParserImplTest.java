@@ -0,0 +1,161 @@
+package de.skuzzle.enforcer.restrictimports.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+class ClassFileParserImplTest {
+
+    private final ClassFileParser subject = new ClassFileParserImpl();
+
+    static class Sample {
+        private BitSet onlyInFieldDescriptor;
+        private Map.Entry<String, String> nestedType;
+
+        List<String> create() {
+            return new ArrayList<>();
+        }
+
+        Object fullQualified() {
+            return new java.util.concurrent.ConcurrentHashMap<String, String>();
+        }
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    @interface ClassRetained {
+        Class<?> value();
+    }
+
+    @ClassRetained(UUID.class)
+    static class Annotated {
+        @Deprecated
+        Object field;
+
+        void method(@ClassRetained(Currency.class) Object parameter) {
+        }
+    }
+
+    static class Dollar$Sign {
+        static class Nested {
+        }
+    }
+
+    private static Path classFileOf(Class<?> type) throws Exception {
+        final String fileName = type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class";
+        return Paths.get(type.getResource(fileName).toURI());
+    }
+
+    @Test
+    void testParseClassName() throws Exception {
+        final Path classFile = classFileOf(Sample.class);
+        final ParsedFile parsedFile = subject.parse(classFile);
+
+        assertThat(parsedFile.getFqcn()).isEqualTo(
+                "de.skuzzle.enforcer.restrictimports.parser.ClassFileParserImplTest.Sample");
+        assertThat(parsedFile.getPath()).isEqualTo(classFile);
+    }
+
+    @Test
+    void testParseReferencedClasses() throws Exception {
+        final ParsedFile parsedFile = subject.parse(classFileOf(Sample.class));
+
+        assertThat(parsedFile.getImports()).contains(
+                new ImportStatement("java.util.ArrayList", ImportStatement.UNKNOWN_LINE),
+                new ImportStatement("java.util.List", ImportStatement.UNKNOWN_LINE),
+                new ImportStatement("java.util.BitSet", ImportStatement.UNKNOWN_LINE),
+                new ImportStatement("java.util.concurrent.ConcurrentHashMap", ImportStatement.UNKNOWN_LINE));
+    }
+
+    @Test
+    void testParseNestedClassNameContainingDollarSign() throws Exception {
+        final ParsedFile parsedFile = subject.parse(classFileOf(Dollar$Sign.Nested.class));
+
+        assertThat(parsedFile.getFqcn()).isEqualTo(
+                "de.skuzzle.enforcer.restrictimports.parser.ClassFileParserImplTest.Dollar$Sign.Nested");
+        assertThat(parsedFile.getDeclaredPackage()).isEqualTo("de.skuzzle.enforcer.restrictimports.parser");
+    }
+
+    @Test
+    void testParseReferencedNestedClass() throws Exception {
+        final ParsedFile parsedFile = subject.parse(classFileOf(Sample.class));
+
+        assertThat(parsedFile.getImports()).contains(
+                new ImportStatement("java.util.Map.Entry", ImportStatement.UNKNOWN_LINE));
+    }
+
+    @Test
+    void testParseAnnotationTypes() throws Exception {
+        final ParsedFile parsedFile = subject.parse(classFileOf(Annotated.class));
+
+        assertThat(parsedFile.getImports()).contains(
+                new ImportStatement("java.lang.Deprecated", ImportStatement.UNKNOWN_LINE),
+                new ImportStatement("java.util.UUID", ImportStatement.UNKNOWN_LINE),
+                new ImportStatement("java.util.Currency", ImportStatement.UNKNOWN_LINE));
+    }
+
+    @Test
+    void testParseEnumValuesOfAnnotations() throws Exception {
+        final ParsedFile parsedFile = subject.parse(classFileOf(ClassRetained.class));
+
+        assertThat(parsedFile.getImports()).contains(
+                new ImportStatement("java.lang.annotation.Retention", ImportStatement.UNKNOWN_LINE),
+                new ImportStatement("java.lang.annotation.RetentionPolicy", ImportStatement.UNKNOWN_LINE));
+    }
+
+    @Test
+    void testSkipReferencesToEnclosingClass() throws Exception {
+        final ParsedFile parsedFile = subject.parse(classFileOf(Sample.class));
+
+        assertThat(parsedFile.getImports())
+                .extracting(ImportStatement::getImportName)
+                .noneMatch(name -> name.startsWith(ClassFileParserImplTest.class.getName()));
+    }
+
+    @Test
+    void testStopIfClassIsRejected() throws Exception {
+        final Optional<ParsedFile> parsedFile = subject.parse(classFileOf(Sample.class),
+                fqcn -> !fqcn.endsWith(".Sample"));
+
+        assertThat(parsedFile).isEmpty();
+    }
+
+    @Test
+    void testNotAClassFile() throws Exception {
+        final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+        final Path file = fs.getPath("Sample.class");
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.parse(file));
+    }
+
+    @Test
+    void testTruncatedClassFile() throws Exception {
+        final byte[] bytes = Files.readAllBytes(classFileOf(Sample.class));
+        final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+        final Path file = fs.getPath("Sample.class");
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.parse(file));
+    }
+}
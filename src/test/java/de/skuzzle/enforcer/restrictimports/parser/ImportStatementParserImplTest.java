@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -48,6 +50,67 @@ class ImportStatementParserImplTest {
         assertThat(parsedFile.getPath()).isEqualTo(path);
     }
 
+    @Test
+    void testFilterRejectsFqcnBeforeImportsAreRead() {
+        final ImportStatementParserImpl subject = new ImportStatementParserImpl(path -> Stream.of(
+                "package com.foo.bar;",
+                "import de.skuzzle.test;")
+                .peek(line -> assertThat(line).doesNotStartWith("import")));
+        final Optional<ParsedFile> parsedFile = subject.parse(path, javaLang,
+                fqcn -> !fqcn.equals("com.foo.bar.Filename"));
+        assertThat(parsedFile).isEmpty();
+    }
+
+    @Test
+    void testFilterAcceptsFqcn() {
+        final ImportStatementParserImpl subject = new ImportStatementParserImpl(lines(
+                "package com.foo.bar;",
+                "import de.skuzzle.test;"));
+        final Optional<ParsedFile> parsedFile = subject.parse(path, javaLang,
+                fqcn -> fqcn.equals("com.foo.bar.Filename"));
+        assertThat(parsedFile.get().getImports()).containsOnly(new ImportStatement("de.skuzzle.test", 2));
+    }
+
+    @Test
+    void testScanBodyForReferences() {
+        final QualifiedNameScanner scanner = QualifiedNameScanner.forPrefixes(Arrays.asList("java.util."));
+        final ImportStatementParserImpl subject = new ImportStatementParserImpl(lines(
+                "/* java.util.Header */ package com.foo.bar;",
+                "import java.util.List; // java.util.Comment",
+                "",
+                "public class Filename { // java.util.Comment",
+                "    java.util.Vector<String> v = new java.util.Vector<>();",
+                "}"), scanner);
+        final ParsedFile parsedFile = subject.parse(path, javaLang);
+        assertThat(parsedFile.getFqcn()).isEqualTo("com.foo.bar.Filename");
+        assertThat(parsedFile.getImports()).containsExactly(
+                new ImportStatement("java.util.List", 2),
+                new ImportStatement("java.util.Vector", 5, true));
+    }
+
+    @Test
+    void testScanFirstBodyLineForReferences() {
+        final QualifiedNameScanner scanner = QualifiedNameScanner.forPrefixes(Arrays.asList("java.lang."));
+        final ImportStatementParserImpl subject = new ImportStatementParserImpl(lines(
+                "package com.foo.bar;",
+                "@java.lang.Deprecated class Filename {}"), scanner);
+        assertThat(subject.parse(path, javaLang).getImports())
+                .containsExactly(new ImportStatement("java.lang.Deprecated", 2, true));
+    }
+
+    @Test
+    void testFilterDefaultPackage() {
+        final ImportStatementParserImpl subject = new ImportStatementParserImpl(lines("import de.skuzzle.test;"));
+        assertThat(subject.parse(path, javaLang, "Filename"::equals)).isPresent();
+        assertThat(subject.parse(path, javaLang, fqcn -> false)).isEmpty();
+    }
+
+    @Test
+    void testFilterEmptyFile() {
+        final ImportStatementParserImpl subject = new ImportStatementParserImpl(lines(""));
+        assertThat(subject.parse(path, javaLang, fqcn -> false)).isEmpty();
+    }
+
     @Test
     void testAnalyzeWithStaticImport() {
         final ImportStatementParserImpl subject = new ImportStatementParserImpl(lines(
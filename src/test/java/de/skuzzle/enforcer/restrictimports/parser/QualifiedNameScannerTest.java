@@ -0,0 +1,138 @@
+package de.skuzzle.enforcer.restrictimports.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class QualifiedNameScannerTest {
+
+    private final QualifiedNameScanner subject = QualifiedNameScanner.forPrefixes(Arrays.asList(
+            "java.util.", "java.util.Vector", "sun.", "com.foo.Bar"));
+
+    private List<ImportStatement> scan(String... lines) {
+        final List<ImportStatement> result = new ArrayList<>();
+        final QualifiedNameScanner.Scan scan = subject.newScan();
+        for (int i = 0; i < lines.length; ++i) {
+            scan.scanLine(lines[i], i + 1, result::add);
+        }
+        return result;
+    }
+
+    private static ImportStatement reference(String name, int line) {
+        return new ImportStatement(name, line, true);
+    }
+
+    @Test
+    void testFindReferences() throws Exception {
+        assertThat(scan(
+                "java.util.Vector<String> v = new java.util.Vector<>();",
+                "final Object o = sun.misc.Unsafe.getUnsafe();",
+                "java.util.Map.Entry<String, String> e = null;",
+                "@com.foo.Bar(value = java.util.concurrent.TimeUnit.SECONDS)"))
+                        .containsExactly(
+                                reference("java.util.Vector", 1),
+                                reference("sun.misc.Unsafe", 2),
+                                reference("java.util.Map", 3),
+                                reference("java.util.Map.Entry", 3),
+                                reference("com.foo.Bar", 4),
+                                reference("java.util.concurrent.TimeUnit", 4),
+                                reference("java.util.concurrent.TimeUnit.SECONDS", 4));
+    }
+
+    @Test
+    void testReportEachNestedClass() throws Exception {
+        assertThat(scan(
+                "java.util.Map.Entry.comparingByKey().Foo;",
+                "java.util.Map.Entry e = (java.util.Map.Entry) o;"))
+                        .containsExactly(
+                                reference("java.util.Map", 1),
+                                reference("java.util.Map.Entry", 1),
+                                reference("java.util.Map", 2),
+                                reference("java.util.Map.Entry", 2));
+    }
+
+    @Test
+    void testFindAllNames() throws Exception {
+        final List<ImportStatement> result = new ArrayList<>();
+        final QualifiedNameScanner.Scan scan = QualifiedNameScanner.forAllNames().newScan();
+        scan.scanLine("javax.util.Vector v = list.stream().map(Foo.Bar::baz); // com.foo.Bar", 1, result::add);
+        scan.scanLine("this.value = de.skuzzle.Outer.Inner.CONSTANT;", 2, result::add);
+
+        assertThat(result).containsExactly(
+                reference("javax.util.Vector", 1),
+                reference("list.stream", 1),
+                reference("Foo.Bar", 1),
+                reference("this.value", 2),
+                reference("de.skuzzle.Outer", 2),
+                reference("de.skuzzle.Outer.Inner", 2),
+                reference("de.skuzzle.Outer.Inner.CONSTANT", 2));
+    }
+
+    @Test
+    void testReportOnlyReferencesThatStartWithPrefix() throws Exception {
+        final List<ImportStatement> result = new ArrayList<>();
+        final QualifiedNameScanner.Scan scan = QualifiedNameScanner
+                .forPrefixes(Arrays.asList("java.util.Map.Entry", "java.util.function")).newScan();
+        scan.scanLine("java.util.Map.Entry e = java.util.function.Function.identity();", 1, result::add);
+        scan.scanLine("Object o = java.util.function;", 2, result::add);
+
+        assertThat(result).containsExactly(
+                reference("java.util.Map.Entry", 1),
+                reference("java.util.function.Function", 1),
+                reference("java.util.function", 2));
+    }
+
+    @Test
+    void testIgnoreNamesThatDoNotStartWithPrefix() throws Exception {
+        assertThat(scan(
+                "this.java.util.Vector = myjava.util.Vector;",
+                "com.foo.Barista b;",
+                "javax.util.Vector v;",
+                "java.lang.String s;"))
+                        .containsExactly(reference("com.foo.Barista", 2));
+    }
+
+    @Test
+    void testSkipCommentsAndStrings() throws Exception {
+        assertThat(scan(
+                "String s = \"java.util.Vector\"; // java.util.Vector",
+                "char c = '\"'; /* java.util.Vector",
+                "java.util.Vector */ sun.misc.Unsafe u;",
+                "String t = \"\\\" java.util.List\" + java.util.List.of();",
+                "String block = \"\"\"",
+                "    java.util.Vector \\\"\"\" java.util.Vector",
+                "    \"\"\"; java.util.Set s;",
+                "String groovy = '''sun.misc.Unsafe",
+                "'''; sun.misc.Signal s;",
+                "String url = \"http://foo\"; java.util.Map m;"))
+                        .containsExactly(
+                                reference("sun.misc.Unsafe", 3),
+                                reference("java.util.List", 4),
+                                reference("java.util.Set", 7),
+                                reference("sun.misc.Signal", 9),
+                                reference("java.util.Map", 10));
+    }
+
+    @Test
+    void testReturnLineWithoutComments() throws Exception {
+        final QualifiedNameScanner.Scan scan = subject.newScan();
+        final List<ImportStatement> references = new ArrayList<>();
+        assertThat(scan.scanLine("import java.util.List; // comment", 1, references::add))
+                .isEqualTo("import java.util.List; ");
+        assertThat(scan.scanLine("/* comment */import java.util.Set;/*", 2, references::add))
+                .isEqualTo("import java.util.Set;");
+        assertThat(scan.scanLine("still comment */", 3, references::add)).isEmpty();
+    }
+
+    @Test
+    void testEquivalentPrefixesHaveSameCacheKey() throws Exception {
+        assertThat(QualifiedNameScanner.forPrefixes(Arrays.asList("sun.", "java.util.", "sun.")).getCacheKey())
+                .isEqualTo(QualifiedNameScanner.forPrefixes(Arrays.asList("java.util.", "sun.")).getCacheKey())
+                .isNotEqualTo(QualifiedNameScanner.forPrefixes(Arrays.asList("java.util.")).getCacheKey())
+                .isNotEqualTo(QualifiedNameScanner.forAllNames().getCacheKey());
+    }
+}
@@ -1,11 +1,14 @@
 package de.skuzzle.enforcer.restrictimports.rule;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
@@ -13,6 +16,7 @@ import java.util.Properties;
 
 import org.apache.maven.enforcer.rule.api.EnforcerRuleException;
 import org.apache.maven.enforcer.rule.api.EnforcerRuleHelper;
+import org.apache.maven.model.Build;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,6 +58,85 @@ public class RestrictImportsTest {
                 });
     }
 
+    @Test
+    void testRestrictNoFailureIfFailBuildIsFalse() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        this.subject.setFailBuild(false);
+        this.subject.execute(this.helper);
+    }
+
+    @Test
+    void testWriteReports() throws Exception {
+        final Path reportDirectory = Files.createTempDirectory("restrict-imports");
+        final Build build = new Build();
+        build.setDirectory(reportDirectory.toString());
+        when(this.mavenProject.getBuild()).thenReturn(build);
+
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        this.subject.setReportFormats(Arrays.asList("jsonl", "SARIF"));
+        this.subject.setReportName("report");
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> this.subject.execute(this.helper));
+
+        assertThat(reportDirectory.resolve("report.jsonl")).exists();
+        assertThat(new String(Files.readAllBytes(reportDirectory.resolve("report.sarif")), StandardCharsets.UTF_8))
+                .contains("\"level\":\"error\"");
+    }
+
+    @Test
+    void testUnknownReportFormat() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> this.subject.setReportFormats(Arrays.asList("xml")));
+    }
+
+    @Test
+    void testBannedImportsFromFile() throws Exception {
+        final Path patternFile = Files.createTempFile("banned-imports", ".txt");
+        Files.write(patternFile, Arrays.asList("# banned", "foo.com.**", "java.util.**"));
+
+        this.subject.setBannedImportsFile(patternFile.toFile());
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> this.subject.execute(this.helper));
+    }
+
+    @Test
+    void testCacheCompiledGroups() throws Exception {
+        final Path buildDirectory = Files.createTempDirectory("restrict-imports");
+        final Build build = new Build();
+        build.setDirectory(buildDirectory.toString());
+        when(this.mavenProject.getBuild()).thenReturn(build);
+
+        this.subject.setCacheGroups(true);
+        this.subject.setBannedImports(Collections.singletonList("foo.com.**"));
+        this.subject.execute(this.helper);
+        assertThat(buildDirectory.resolve("restrict-imports-groups.bin")).exists();
+        // second execution reads the compiled groups
+        this.subject.execute(this.helper);
+
+        final RestrictImports changed = new RestrictImports();
+        changed.setCacheGroups(true);
+        changed.setBannedImports(Collections.singletonList("java.util.**"));
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> changed.execute(this.helper));
+    }
+
+    @Test
+    void testRestrictFailureInParallel() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        this.subject.setParallelism(0);
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> this.subject.execute(this.helper));
+    }
+
+    @Test
+    void testParsedFilesAreSharedPerProject() throws Exception {
+        final MavenProject project = new MavenProject();
+        final MavenProject otherProject = new MavenProject();
+
+        assertThat(RestrictImports.parseCacheFor(project)).isSameAs(RestrictImports.parseCacheFor(project));
+        assertThat(RestrictImports.parseCacheFor(project)).isNotSameAs(RestrictImports.parseCacheFor(otherProject));
+    }
+
     @Test
     void testExcludedByBasePackage() throws Exception {
         this.subject.setBasePackage("foo.bar");